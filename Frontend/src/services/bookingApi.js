@@ -1,5 +1,5 @@
 
-import { springInstance } from './axiosInstance';
+import { springInstance, SPRING_API_URL } from './axiosInstance';
 
 export const bookingApi = {
     create: async (data) => {
@@ -27,6 +27,14 @@ export const bookingApi = {
         return response.data;
     },
 
+    // Live occupancy (SSE). EventSource cannot send the Authorization header,
+    // so the token goes in the query string; listen for "snapshot" and "delta"
+    availabilityStream: (villaId) => {
+        const user = JSON.parse(localStorage.getItem('user'));
+        const query = user?.token ? `?access_token=${encodeURIComponent(user.token)}` : '';
+        return new EventSource(`${SPRING_API_URL}/bookings/villa/${villaId}/availability/stream${query}`);
+    },
+
     confirm: async (id) => {
         const response = await springInstance.patch(`/bookings/${id}/confirm`);
         return response.data;
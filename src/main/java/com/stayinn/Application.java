@@ -6,9 +6,11 @@ import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
 @SpringBootApplication
+@PropertySource("classpath:stayinn-defaults.properties") // overridable defaults (metrics, tuning knobs)
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
 public class Application {
 
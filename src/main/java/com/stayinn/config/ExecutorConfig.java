@@ -0,0 +1,92 @@
+package com.stayinn.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+	/**
+	 * Runs the admin dashboard aggregate queries side by side. Bounded so a burst
+	 * of dashboard loads cannot take more than a few pool connections; when full
+	 * the caller runs the query itself.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor dashboardExecutor(
+			@Value("${stayinn.admin.dashboard.threads:4}") int threads) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(threads * 4);
+		executor.setThreadNamePrefix("dashboard-");
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		return executor;
+	}
+
+	/**
+	 * Writes availability stream events to subscribers. Each subscriber is drained
+	 * by at most one task at a time and buffers its own backlog, so the queue only
+	 * holds one entry per subscriber with pending events.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor availabilityStreamExecutor(
+			@Value("${stayinn.availability.stream.threads:2}") int threads) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setThreadNamePrefix("availability-stream-");
+		return executor;
+	}
+
+	/**
+	 * Runs the periodic full rebuild of the payment analytics snapshot, so no
+	 * request waits for it. One rebuild at a time; PaymentColumnSnapshot only
+	 * submits one when none is pending.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor paymentAnalyticsExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setThreadNamePrefix("payment-analytics-");
+		return executor;
+	}
+
+	/**
+	 * Trims the rate limit buckets once the map passes its bound, off the
+	 * request thread. RateLimitFilter keeps at most one pass queued or running.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor rateLimitEvictionExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setQueueCapacity(1);
+		executor.setThreadNamePrefix("rate-limit-eviction-");
+		return executor;
+	}
+
+	/**
+	 * Runs MVC async work, i.e. the streaming exports (StreamingResponseBody).
+	 * Declaring the executors above makes Boot skip its applicationTaskExecutor,
+	 * which would otherwise leave MVC on a new thread per async request; this one
+	 * is registered in WebMvcConfig. Bounded: exports past the threads and queue
+	 * are rejected instead of each holding another thread and pool connection.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor mvcAsyncExecutor(
+			@Value("${stayinn.mvc.async.threads:8}") int threads,
+			@Value("${stayinn.mvc.async.queue-capacity:50}") int queueCapacity) {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setThreadNamePrefix("mvc-async-");
+		return executor;
+	}
+}
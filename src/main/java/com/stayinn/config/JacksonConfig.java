@@ -0,0 +1,17 @@
+package com.stayinn.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfig {
+
+	// Picked up by Spring Boot's ObjectMapper; replaces reflective getter calls
+	// with generated lambdas when serializing DTOs and ApiEnvelope
+	@Bean
+	public BlackbirdModule blackbirdModule() {
+		return new BlackbirdModule();
+	}
+}
@@ -0,0 +1,92 @@
+package com.stayinn.config;
+
+import java.io.Closeable;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read replica routing, on when stayinn.datasource.replica.url is set. The
+ * primary keeps its spring.datasource.* settings (hikari included), the
+ * replica pool takes the same keys under stayinn.datasource.replica.*.
+ * <p>
+ * Only the routing DataSource is a bean, so JPA, Boot's DataSource
+ * auto-configuration and the SQL statistics proxy see exactly one DataSource;
+ * closing it closes both pools.
+ */
+@Configuration
+@ConditionalOnProperty(name = "stayinn.datasource.replica.url")
+@Slf4j
+public class ReadReplicaConfig {
+
+	private static final String REPLICA_PREFIX = "stayinn.datasource.replica";
+
+	@Bean
+	public DataSource dataSource(DataSourceProperties primaryProperties, Environment environment,
+			@Value("${stayinn.datasource.replica.fallback-to-primary:true}") boolean fallbackToPrimary,
+			@Value("${stayinn.datasource.replica.max-lag:5s}") Duration maxLag,
+			@Value("${stayinn.datasource.replica.lag-check-interval:5s}") Duration lagCheckInterval,
+			@Value("${stayinn.datasource.replica.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+			@Value("${stayinn.datasource.replica.lag-column:Seconds_Behind_Source}") String lagColumn) {
+		Binder binder = Binder.get(environment);
+
+		HikariDataSource primary = pool(primaryProperties, binder, "spring.datasource.hikari", "primary");
+
+		DataSourceProperties replicaProperties = binder.bind(REPLICA_PREFIX, DataSourceProperties.class)
+				.orElseThrow(() -> new IllegalStateException(REPLICA_PREFIX + ".url is not set"));
+		HikariDataSource replica = pool(replicaProperties, binder, REPLICA_PREFIX + ".hikari", "replica");
+		replica.setReadOnly(true);
+
+		ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, fallbackToPrimary,
+				maxLag, lagCheckInterval, lagQuery, lagColumn);
+		routing.afterPropertiesSet();
+		log.info("Read-only transactions routed to replica {} (max lag {}, fallback to primary: {})",
+				replicaProperties.getUrl(), maxLag, fallbackToPrimary);
+		return new RoutingDataSourceProxy(routing);
+	}
+
+	private static HikariDataSource pool(DataSourceProperties properties, Binder binder, String hikariPrefix,
+			String name) {
+		HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+		if (pool.getPoolName() == null) {
+			pool.setPoolName(name);
+		}
+		return pool;
+	}
+
+	/**
+	 * Defers the physical connection to the first statement, by which time the
+	 * transaction's read-only flag is known; close() lets the container shut
+	 * both pools down.
+	 */
+	private static final class RoutingDataSourceProxy extends LazyConnectionDataSourceProxy
+			implements Closeable {
+
+		private final ReplicaRoutingDataSource routing;
+
+		private RoutingDataSourceProxy(ReplicaRoutingDataSource routing) {
+			super(routing);
+			this.routing = routing;
+		}
+
+		@Override
+		public void close() {
+			routing.close();
+		}
+	}
+}
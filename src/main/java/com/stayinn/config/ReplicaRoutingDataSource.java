@@ -0,0 +1,149 @@
+package com.stayinn.config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sends connections of read-only transactions to the replica pool and
+ * everything else (writes, reads outside a transaction) to the primary.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * asks for a connection before the read-only flag of the new transaction is
+ * visible, the lazy proxy only fetches it at the first statement.
+ * <p>
+ * A background check marks the replica unhealthy while it is unreachable or
+ * further behind than the allowed lag. Read-only work then goes to the
+ * primary, or fails if fallback is off; a replica that fails to hand out a
+ * connection is treated the same way until the next check.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+	private static final String PRIMARY = "primary";
+	private static final String REPLICA = "replica";
+
+	private final DataSource primary;
+	private final DataSource replica;
+	private final boolean fallbackToPrimary;
+	private final Duration maxLag;
+	private final Duration checkInterval;
+	private final String lagQuery;
+	private final String lagColumn;
+
+	private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "replica-lag-check");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private volatile boolean replicaHealthy = true;
+
+	public ReplicaRoutingDataSource(DataSource primary, DataSource replica, boolean fallbackToPrimary,
+			Duration maxLag, Duration checkInterval, String lagQuery, String lagColumn) {
+		this.primary = primary;
+		this.replica = replica;
+		this.fallbackToPrimary = fallbackToPrimary;
+		this.maxLag = maxLag;
+		this.checkInterval = checkInterval;
+		this.lagQuery = lagQuery;
+		this.lagColumn = lagColumn;
+		setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		checker.scheduleWithFixedDelay(this::checkReplica, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+		return readOnly && (replicaHealthy || !fallbackToPrimary) ? REPLICA : PRIMARY;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (determineCurrentLookupKey() != REPLICA) {
+			return primary.getConnection();
+		}
+		try {
+			return replica.getConnection();
+		} catch (SQLException e) {
+			if (!fallbackToPrimary) {
+				throw e;
+			}
+			markReplica(false, "no connection: " + e.getMessage());
+			return primary.getConnection();
+		}
+	}
+
+	/**
+	 * Healthy when a connection can be had and, with a lag query configured
+	 * (e.g. SHOW REPLICA STATUS), replication runs within the allowed lag
+	 */
+	private void checkReplica() {
+		try (Connection connection = replica.getConnection()) {
+			if (lagQuery == null || lagQuery.isBlank()) {
+				markReplica(connection.isValid(5), "connection not valid");
+				return;
+			}
+			try (Statement statement = connection.createStatement();
+					ResultSet status = statement.executeQuery(lagQuery)) {
+				if (!status.next()) {
+					markReplica(false, "not configured as a replica");
+					return;
+				}
+				long lagSeconds = status.getLong(lagColumn);
+				if (status.wasNull()) {
+					markReplica(false, "replication is not running");
+				} else {
+					markReplica(lagSeconds <= maxLag.toSeconds(), lagSeconds + " s behind the primary");
+				}
+			}
+		} catch (SQLException | RuntimeException e) {
+			markReplica(false, "check failed: " + e.getMessage());
+		}
+	}
+
+	private void markReplica(boolean healthy, String reason) {
+		if (healthy == replicaHealthy) {
+			return;
+		}
+		replicaHealthy = healthy;
+		if (healthy) {
+			log.info("Read replica is healthy again, read-only transactions go to the replica");
+		} else {
+			log.warn("Read replica unhealthy ({}), read-only transactions {}", reason,
+					fallbackToPrimary ? "go to the primary" : "will fail");
+		}
+	}
+
+	@Override
+	public void close() {
+		checker.shutdownNow();
+		for (DataSource pool : new DataSource[] { primary, replica }) {
+			if (pool instanceof Closeable closeable) {
+				try {
+					closeable.close();
+				} catch (Exception e) {
+					log.warn("Could not close connection pool: {}", e.getMessage());
+				}
+			}
+		}
+	}
+}
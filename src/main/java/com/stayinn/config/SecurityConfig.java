@@ -2,8 +2,12 @@ package com.stayinn.config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -15,14 +19,22 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.stayinn.security.JwtAuthenticationFilter;
+import com.stayinn.security.RateLimitFilter;
+import com.stayinn.service.IdempotencyStore;
 
 @Configuration
 public class SecurityConfig {
 
 	private final JwtAuthenticationFilter jwtAuthenticationFilter;
+	private final RateLimitFilter rateLimitFilter;
+	private final int managementPort;
 
-	public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+	public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter,
+			@Value("${management.server.port:-1}") int managementPort, @Value("${server.port:8080}") int serverPort) {
 		this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+		this.rateLimitFilter = rateLimitFilter;
+		// A management port shared with the application is public, so it gets no exception
+		this.managementPort = managementPort != serverPort ? managementPort : -1;
 	}
 
 	@Bean
@@ -43,11 +55,24 @@ public class SecurityConfig {
 						// Public APIs
 						.requestMatchers("/api/users/change_password").permitAll()
 
+						// Prometheus scrapes without a JWT, but only on the (internal) management port
+						.requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+								&& EndpointRequest.to("prometheus").matches(request)).permitAll()
+
+						// Admins only: JFR recordings, the admin API, the full-table exports and the villa import
+						.requestMatchers("/actuator/jfr/**").hasRole("ADMIN")
+						.requestMatchers("/api/admin/**").hasRole("ADMIN")
+						.requestMatchers(HttpMethod.GET, "/api/*/export").hasRole("ADMIN")
+						.requestMatchers(HttpMethod.POST, "/api/villas/import").hasRole("ADMIN")
+
 						// Everything else needs JWT
 						.anyRequest().authenticated())
 
 				// 5️⃣ JWT filter
-				.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+				.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+
+				// 6️⃣ Rate limits, keyed by the authenticated email when there is one
+				.addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
 
 		return http.build();
 	}
@@ -62,9 +87,11 @@ public class SecurityConfig {
 
 		config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
 
-		config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+		config.setAllowedHeaders(List.of("Authorization", "Content-Type", "If-None-Match", "If-Modified-Since",
+				IdempotencyStore.HEADER));
 
-		config.setExposedHeaders(List.of("Authorization"));
+		config.setExposedHeaders(List.of("Authorization", "ETag", "Last-Modified", IdempotencyStore.REPLAYED_HEADER,
+				"Retry-After"));
 
 		config.setAllowCredentials(true);
 
@@ -74,6 +101,15 @@ public class SecurityConfig {
 		return source;
 	}
 
+	// The rate limit filter only runs inside the security chain (after authentication),
+	// not a second time as a plain servlet filter
+	@Bean
+	public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration() {
+		FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(rateLimitFilter);
+		registration.setEnabled(false);
+		return registration;
+	}
+
 	@Bean
 	public PasswordEncoder passwordEncoder() {
 		return new BCryptPasswordEncoder();
@@ -0,0 +1,33 @@
+package com.stayinn.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.stayinn.metrics.SqlStatisticsInterceptor;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+	private final SqlStatisticsInterceptor sqlStatisticsInterceptor;
+	private final ThreadPoolTaskExecutor mvcAsyncExecutor;
+
+	public WebMvcConfig(SqlStatisticsInterceptor sqlStatisticsInterceptor,
+			@Qualifier("mvcAsyncExecutor") ThreadPoolTaskExecutor mvcAsyncExecutor) {
+		this.sqlStatisticsInterceptor = sqlStatisticsInterceptor;
+		this.mvcAsyncExecutor = mvcAsyncExecutor;
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(sqlStatisticsInterceptor).addPathPatterns("/api/**");
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(mvcAsyncExecutor);
+	}
+}
@@ -0,0 +1,54 @@
+package com.stayinn.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.dto.Admin.AdminDashboardDTO;
+import com.stayinn.service.AdminDashboardService;
+import com.stayinn.service.DailyRevenueRecorder;
+import com.stayinn.service.WeightedRatingCalculator;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final AdminDashboardService adminDashboardService;
+    private final DailyRevenueRecorder dailyRevenueRecorder;
+    private final WeightedRatingCalculator weightedRatingCalculator;
+
+    /**
+     * Get all dashboard figures in one call (Admin only)
+     * GET /api/admin/dashboard
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<ApiEnvelope<AdminDashboardDTO>> getDashboard() {
+        return ResponseEntity.ok(ApiEnvelope.success(adminDashboardService.getDashboard()));
+    }
+
+    /**
+     * Rebuild the daily revenue rollup from all payments (Admin only)
+     * POST /api/admin/daily-revenue/rebuild
+     */
+    @PostMapping("/daily-revenue/rebuild")
+    public ResponseEntity<ApiEnvelope<Void>> rebuildDailyRevenue() {
+        int buckets = dailyRevenueRecorder.rebuildAll();
+        return ResponseEntity.ok(ApiEnvelope.<Void>message("Daily revenue rollup rebuilt").withCount(buckets));
+    }
+
+    /**
+     * Recount every villa's ratings and re-derive the weighted rating with the configured prior (Admin only)
+     * POST /api/admin/ratings/recalculate
+     */
+    @PostMapping("/ratings/recalculate")
+    public ResponseEntity<ApiEnvelope<Void>> recalculateRatings() {
+        int villas = weightedRatingCalculator.recalculateAll();
+        return ResponseEntity.ok(ApiEnvelope.<Void>message("Weighted ratings recalculated").withCount(villas));
+    }
+}
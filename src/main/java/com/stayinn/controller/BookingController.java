@@ -1,12 +1,11 @@
 package com.stayinn.controller;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -16,10 +15,15 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.dto.BatchLookupDTO;
 import com.stayinn.dto.Booking.BookingAvailabilityDTO;
 import com.stayinn.dto.Booking.BookingAvailabilityResponseDTO;
 import com.stayinn.dto.Booking.BookingCalendarDTO;
@@ -28,8 +32,11 @@ import com.stayinn.dto.Booking.BookingDetailDTO;
 import com.stayinn.dto.Booking.BookingResponseDTO;
 import com.stayinn.dto.Booking.BookingSummaryDTO;
 import com.stayinn.dto.Booking.BookingUpdateStatusDTO;
+import com.stayinn.dto.Booking.VillaOccupancyDTO;
 import com.stayinn.entities.BookingStatus;
+import com.stayinn.service.AvailabilityStreamHub;
 import com.stayinn.service.BookingService;
+import com.stayinn.service.IdempotencyStore;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +47,11 @@ import lombok.RequiredArgsConstructor;
 public class BookingController {
 
 	private final BookingService bookingService;
+	private final ExportResponses exportResponses;
+	private final AvailabilityStreamHub availabilityStreamHub;
+	private final IdempotencyStore idempotencyStore;
+
+	private static final int DEFAULT_AVAILABILITY_NIGHTS = 90;
 
 	// ========== PUBLIC/USER ENDPOINTS ==========
 
@@ -47,61 +59,57 @@ public class BookingController {
 	 * Create a new booking POST /api/bookings
 	 */
 	@PostMapping
-	public ResponseEntity<Map<String, Object>> createBooking(@Valid @RequestBody BookingCreateDTO bookingCreateDTO) {
+	public ResponseEntity<ApiEnvelope<BookingResponseDTO>> createBooking(@Valid @RequestBody BookingCreateDTO bookingCreateDTO,
+			@RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
 		System.out.println("Received booking create request: " + bookingCreateDTO);
-		try {
-			BookingResponseDTO booking = bookingService.createBooking(bookingCreateDTO);
-			System.out.println("Booking created successfully: " + booking);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("message", "Booking created successfully");
-			response.put("data", booking);
-			return ResponseEntity.status(HttpStatus.CREATED).body(response);
-		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-		}
+		return idempotencyStore.execute(idempotencyKey, "POST /api/bookings", bookingCreateDTO, BookingResponseDTO.class, () -> {
+			try {
+				BookingResponseDTO booking = bookingService.createBooking(bookingCreateDTO);
+				System.out.println("Booking created successfully: " + booking);
+				return ResponseEntity.status(HttpStatus.CREATED).body(ApiEnvelope.success("Booking created successfully", booking));
+			} catch (RuntimeException e) {
+				if (IdempotencyStore.isInfrastructureFailure(e)) {
+					throw e; // 500, and the key is released for a retry
+				}
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
+			}
+		});
 	}
 
 	/**
 	 * Check villa availability POST /api/bookings/check-availability
 	 */
 	@PostMapping("/check-availability")
-	public ResponseEntity<Map<String, Object>> checkAvailability(
+	public ResponseEntity<ApiEnvelope<BookingAvailabilityResponseDTO>> checkAvailability(
 			@Valid @RequestBody BookingAvailabilityDTO availabilityDTO) {
 		try {
 			BookingAvailabilityResponseDTO availability = bookingService.checkAvailability(availabilityDTO);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("data", availability);
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(ApiEnvelope.success(availability.getMessage(), availability));
 		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
 		}
 	}
 
+	/**
+	 * Get several bookings in one call, in the order requested GET
+	 * /api/bookings/batch?ids=3,1,7
+	 */
+	@GetMapping("/batch")
+	public ResponseEntity<ApiEnvelope<BatchLookupDTO<BookingResponseDTO>>> getBookingsByIds(@RequestParam List<Long> ids) {
+		BatchLookupDTO<BookingResponseDTO> bookings = bookingService.getBookingsByIds(ids);
+		return ResponseEntity.ok(ApiEnvelope.success(bookings).withCount(bookings.found().size()));
+	}
+
 	/**
 	 * Get booking by ID GET /api/bookings/{id}
 	 */
 	@GetMapping("/{id}")
-	public ResponseEntity<Map<String, Object>> getBookingById(@PathVariable Long id) {
+	public ResponseEntity<ApiEnvelope<BookingResponseDTO>> getBookingById(@PathVariable Long id) {
 		try {
 			BookingResponseDTO booking = bookingService.getBookingById(id);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("data", booking);
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(ApiEnvelope.success(booking));
 		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
 		}
 	}
 
@@ -109,18 +117,12 @@ public class BookingController {
 	 * Get detailed booking information GET /api/bookings/{id}/details
 	 */
 	@GetMapping("/{id}/details")
-	public ResponseEntity<Map<String, Object>> getBookingDetails(@PathVariable Long id) {
+	public ResponseEntity<ApiEnvelope<BookingDetailDTO>> getBookingDetails(@PathVariable Long id) {
 		try {
 			BookingDetailDTO bookingDetail = bookingService.getBookingDetailById(id);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("data", bookingDetail);
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(ApiEnvelope.success(bookingDetail));
 		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
 		}
 	}
 
@@ -128,77 +130,54 @@ public class BookingController {
 	 * Get all bookings by user ID GET /api/bookings/user/{userId}
 	 */
 	@GetMapping("/user/{userId}")
-	public ResponseEntity<Map<String, Object>> getUserBookings(@PathVariable Long userId) {
+	public ResponseEntity<ApiEnvelope<List<BookingResponseDTO>>> getUserBookings(@PathVariable Long userId) {
 		List<BookingResponseDTO> bookings = bookingService.getBookingsByUserId(userId);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", bookings.size());
-		response.put("data", bookings);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(bookings));
 	}
 
 	/**
 	 * Get upcoming bookings for a user GET /api/bookings/user/{userId}/upcoming
 	 */
 	@GetMapping("/user/{userId}/upcoming")
-	public ResponseEntity<Map<String, Object>> getUpcomingBookings(@PathVariable Long userId) {
+	public ResponseEntity<ApiEnvelope<List<BookingResponseDTO>>> getUpcomingBookings(@PathVariable Long userId) {
 		List<BookingResponseDTO> bookings = bookingService.getUpcomingBookings(userId);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", bookings.size());
-		response.put("data", bookings);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(bookings));
 	}
 
 	/**
 	 * Get past bookings for a user GET /api/bookings/user/{userId}/past
 	 */
 	@GetMapping("/user/{userId}/past")
-	public ResponseEntity<Map<String, Object>> getPastBookings(@PathVariable Long userId) {
+	public ResponseEntity<ApiEnvelope<List<BookingResponseDTO>>> getPastBookings(@PathVariable Long userId) {
 		List<BookingResponseDTO> bookings = bookingService.getPastBookings(userId);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", bookings.size());
-		response.put("data", bookings);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(bookings));
 	}
 
 	/**
 	 * Get active bookings for a user GET /api/bookings/user/{userId}/active
 	 */
 	@GetMapping("/user/{userId}/active")
-	public ResponseEntity<Map<String, Object>> getActiveBookings(@PathVariable Long userId) {
+	public ResponseEntity<ApiEnvelope<List<BookingResponseDTO>>> getActiveBookings(@PathVariable Long userId) {
 		List<BookingResponseDTO> bookings = bookingService.getActiveBookings(userId);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", bookings.size());
-		response.put("data", bookings);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(bookings));
 	}
 
 	/**
 	 * Get user booking summary GET /api/bookings/user/{userId}/summary
 	 */
 	@GetMapping("/user/{userId}/summary")
-	public ResponseEntity<Map<String, Object>> getUserBookingSummary(@PathVariable Long userId) {
+	public ResponseEntity<ApiEnvelope<BookingSummaryDTO>> getUserBookingSummary(@PathVariable Long userId) {
 		BookingSummaryDTO summary = bookingService.getUserBookingSummary(userId);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("data", summary);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.success(summary));
 	}
 
 	/**
 	 * Get all bookings for a villa GET /api/bookings/villa/{villaId}
 	 */
 	@GetMapping("/villa/{villaId}")
-	public ResponseEntity<Map<String, Object>> getVillaBookings(@PathVariable Long villaId) {
+	public ResponseEntity<ApiEnvelope<List<BookingResponseDTO>>> getVillaBookings(@PathVariable Long villaId) {
 		List<BookingResponseDTO> bookings = bookingService.getBookingsByVillaId(villaId);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", bookings.size());
-		response.put("data", bookings);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(bookings));
 	}
 
 	/**
@@ -206,35 +185,60 @@ public class BookingController {
 	 * /api/bookings/villa/{villaId}/calendar?startDate=2024-01-01&endDate=2024-12-31
 	 */
 	@GetMapping("/villa/{villaId}/calendar")
-	public ResponseEntity<Map<String, Object>> getVillaCalendar(@PathVariable Long villaId,
+	public ResponseEntity<ApiEnvelope<List<BookingCalendarDTO>>> getVillaCalendar(@PathVariable Long villaId,
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
 			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
 		List<BookingCalendarDTO> calendar = bookingService.getVillaCalendar(villaId, startDate, endDate);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", calendar.size());
-		response.put("data", calendar);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(calendar));
+	}
+
+	/**
+	 * Villa occupancy for date pickers, no booking details (defaults to the next 90 nights) GET
+	 * /api/bookings/villa/{villaId}/availability?startDate=2024-01-01&endDate=2024-03-31&encoding=runs
+	 */
+	@GetMapping("/villa/{villaId}/availability")
+	public ResponseEntity<ApiEnvelope<VillaOccupancyDTO>> getVillaAvailability(@PathVariable Long villaId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+			@RequestParam(defaultValue = VillaOccupancyDTO.BITMAP) String encoding) {
+		LocalDate start = startDate != null ? startDate : LocalDate.now();
+		LocalDate end = endDate != null ? endDate : start.plusDays(DEFAULT_AVAILABILITY_NIGHTS - 1);
+		try {
+			VillaOccupancyDTO availability = bookingService.getVillaAvailability(villaId, start, end, encoding);
+			return ResponseEntity.ok(ApiEnvelope.success(availability));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
+		} catch (RuntimeException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
+		}
+	}
+
+	/**
+	 * Live villa occupancy (Server-Sent Events): a "snapshot" event of the whole booking
+	 * horizon, then a "delta" event whenever a booking of the villa changes. GET
+	 * /api/bookings/villa/{villaId}/availability/stream?access_token={jwt}
+	 * (EventSource cannot send an Authorization header; the header works too)
+	 */
+	@GetMapping(value = "/villa/{villaId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamVillaAvailability(@PathVariable Long villaId) {
+		try {
+			return ResponseEntity.ok(availabilityStreamHub.subscribe(villaId));
+		} catch (RuntimeException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+		}
 	}
 
 	/**
 	 * Confirm booking (after payment) PATCH /api/bookings/{id}/confirm
 	 */
 	@PatchMapping("/{id}/confirm")
-	public ResponseEntity<Map<String, Object>> confirmBooking(@PathVariable Long id) {
+	public ResponseEntity<ApiEnvelope<BookingResponseDTO>> confirmBooking(@PathVariable Long id) {
 		try {
 			BookingResponseDTO booking = bookingService.confirmBooking(id);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("message", "Booking confirmed successfully");
-			response.put("data", booking);
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(ApiEnvelope.success("Booking confirmed successfully", booking));
 		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
 		}
 	}
 
@@ -242,20 +246,13 @@ public class BookingController {
 	 * Cancel booking PATCH /api/bookings/{id}/cancel
 	 */
 	@PatchMapping("/{id}/cancel")
-	public ResponseEntity<Map<String, Object>> cancelBooking(@PathVariable Long id,
+	public ResponseEntity<ApiEnvelope<BookingResponseDTO>> cancelBooking(@PathVariable Long id,
 			@RequestParam(required = false) String reason) {
 		try {
 			BookingResponseDTO booking = bookingService.cancelBooking(id, reason);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("message", "Booking cancelled successfully");
-			response.put("data", booking);
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(ApiEnvelope.success("Booking cancelled successfully", booking));
 		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
 		}
 	}
 
@@ -263,20 +260,13 @@ public class BookingController {
 	 * Update booking status PATCH /api/bookings/{id}/status
 	 */
 	@PatchMapping("/{id}/status")
-	public ResponseEntity<Map<String, Object>> updateBookingStatus(@PathVariable Long id,
+	public ResponseEntity<ApiEnvelope<BookingResponseDTO>> updateBookingStatus(@PathVariable Long id,
 			@Valid @RequestBody BookingUpdateStatusDTO updateStatusDTO) {
 		try {
 			BookingResponseDTO booking = bookingService.updateBookingStatus(id, updateStatusDTO);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("message", "Booking status updated successfully");
-			response.put("data", booking);
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(ApiEnvelope.success("Booking status updated successfully", booking));
 		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
 		}
 	}
 
@@ -286,56 +276,49 @@ public class BookingController {
 	 * Get all bookings (Admin only) GET /api/bookings
 	 */
 	@GetMapping
-	public ResponseEntity<Map<String, Object>> getAllBookings() {
+	public ResponseEntity<ApiEnvelope<List<BookingResponseDTO>>> getAllBookings() {
 		List<BookingResponseDTO> bookings = bookingService.getAllBookings();
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", bookings.size());
-		response.put("data", bookings);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(bookings));
+	}
+
+	/**
+	 * Export all bookings, streamed row by row (Admin only) GET
+	 * /api/bookings/export?format=ndjson|csv
+	 */
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> exportBookings(
+			@RequestParam(defaultValue = ExportResponses.NDJSON) String format) {
+		return exportResponses.export("bookings", format, BookingResponseDTO.class, bookingService::exportAllBookings);
 	}
 
 	/**
 	 * Get bookings by status (Admin only) GET /api/bookings/status/{status}
 	 */
 	@GetMapping("/status/{status}")
-	public ResponseEntity<Map<String, Object>> getBookingsByStatus(@PathVariable BookingStatus status) {
+	public ResponseEntity<ApiEnvelope<List<BookingResponseDTO>>> getBookingsByStatus(@PathVariable BookingStatus status) {
 		List<BookingResponseDTO> bookings = bookingService.getBookingsByStatus(status);
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("count", bookings.size());
-		response.put("data", bookings);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.list(bookings));
 	}
 
 	/**
 	 * Get booking summary/statistics (Admin only) GET /api/bookings/summary
 	 */
 	@GetMapping("/summary")
-	public ResponseEntity<Map<String, Object>> getBookingSummary() {
+	public ResponseEntity<ApiEnvelope<BookingSummaryDTO>> getBookingSummary() {
 		BookingSummaryDTO summary = bookingService.getBookingSummary();
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("data", summary);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.success(summary));
 	}
 
 	/**
 	 * Delete booking (Admin only) DELETE /api/bookings/{id}
 	 */
 	@DeleteMapping("/{id}")
-	public ResponseEntity<Map<String, Object>> deleteBooking(@PathVariable Long id) {
+	public ResponseEntity<ApiEnvelope<Void>> deleteBooking(@PathVariable Long id) {
 		try {
 			bookingService.deleteBooking(id);
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", true);
-			response.put("message", "Booking deleted successfully");
-			return ResponseEntity.ok(response);
+			return ResponseEntity.ok(ApiEnvelope.message("Booking deleted successfully"));
 		} catch (RuntimeException e) {
-			Map<String, Object> response = new HashMap<>();
-			response.put("success", false);
-			response.put("message", e.getMessage());
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
 		}
 	}
 
@@ -344,12 +327,8 @@ public class BookingController {
 	 * /api/bookings/auto-complete
 	 */
 	@PostMapping("/auto-complete")
-	public ResponseEntity<Map<String, Object>> autoCompleteBookings() {
+	public ResponseEntity<ApiEnvelope<Void>> autoCompleteBookings() {
 		int completedCount = bookingService.autoCompleteBookings();
-		Map<String, Object> response = new HashMap<>();
-		response.put("success", true);
-		response.put("message", completedCount + " bookings auto-completed");
-		response.put("count", completedCount);
-		return ResponseEntity.ok(response);
+		return ResponseEntity.ok(ApiEnvelope.<Void>message(completedCount + " bookings auto-completed").withCount(completedCount));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.stayinn.controller;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+
+/**
+ * Builds streaming admin exports: rows are written to the response as the
+ * service produces them (one JSON document per line, or CSV with a header),
+ * so nothing is collected into a list first.
+ */
+@Component
+public class ExportResponses {
+
+	public static final String NDJSON = "ndjson";
+	public static final String CSV = "csv";
+
+	private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+
+	private final ObjectMapper objectMapper;
+	private final CsvMapper csvMapper;
+
+	public ExportResponses(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		this.csvMapper = CsvMapper.builder()
+				.findAndAddModules()
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+				.build();
+	}
+
+	/**
+	 * @param name   file name prefix, e.g. "bookings"
+	 * @param format {@link #NDJSON} or {@link #CSV}
+	 * @param source writes every row to the given sink (runs on the async request thread)
+	 */
+	public <T> ResponseEntity<StreamingResponseBody> export(String name, String format, Class<T> rowType,
+			Consumer<Consumer<T>> source) {
+		boolean csv = CSV.equalsIgnoreCase(format);
+		if (!csv && !NDJSON.equalsIgnoreCase(format)) {
+			throw new IllegalArgumentException("Unsupported export format: " + format);
+		}
+		ObjectWriter writer = csv
+				? csvMapper.writer(csvMapper.schemaFor(rowType).withHeader())
+				: objectMapper.writer().withRootValueSeparator("\n");
+
+		StreamingResponseBody body = outputStream -> {
+			try (SequenceWriter rows = writer.writeValues(outputStream)) {
+				source.accept(row -> {
+					try {
+						rows.write(row);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+
+		String filename = name + "-" + LocalDate.now() + (csv ? ".csv" : ".ndjson");
+		return ResponseEntity.ok()
+				.contentType(csv ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+				.body(body);
+	}
+}
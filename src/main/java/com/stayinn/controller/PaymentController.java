@@ -1,9 +1,7 @@
 package com.stayinn.controller;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -15,20 +13,29 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.stayinn.dto.ApiEnvelope;
 import com.stayinn.dto.Payment.PaymentCreateDTO;
 import com.stayinn.dto.Payment.PaymentDetailDTO;
 import com.stayinn.dto.Payment.PaymentResponseDTO;
+import com.stayinn.dto.Payment.PaymentStatisticsDTO;
 import com.stayinn.dto.Payment.PaymentUpdateStatusDTO;
 import com.stayinn.dto.Payment.PaymentVerificationDTO;
+import com.stayinn.dto.Payment.PaymentVerificationResultDTO;
 import com.stayinn.dto.Payment.RazorpayOrderResponse;
 import com.stayinn.dto.Payment.RazorpayVerificationDTO;
 import com.stayinn.dto.Payment.RefundRequestDTO;
+import com.stayinn.dto.Payment.RevenueReportDTO;
 import com.stayinn.dto.Payment.SimplePaymentDTO;
+import com.stayinn.dto.Payment.TotalRevenueDTO;
 import com.stayinn.entities.PaymentStatus;
+import com.stayinn.money.Money;
+import com.stayinn.service.IdempotencyStore;
 import com.stayinn.service.PaymentService;
 
 import jakarta.validation.Valid;
@@ -40,6 +47,8 @@ import lombok.RequiredArgsConstructor;
 public class PaymentController {
     
     private final PaymentService paymentService;
+    private final ExportResponses exportResponses;
+    private final IdempotencyStore idempotencyStore;
     
     // ========== USER ENDPOINTS ==========
     
@@ -48,20 +57,20 @@ public class PaymentController {
      * POST /api/payments
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createPayment(@Valid @RequestBody PaymentCreateDTO paymentCreateDTO) {
-        try {
-            PaymentResponseDTO payment = paymentService.createPayment(paymentCreateDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Payment initiated successfully");
-            response.put("data", payment);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
-        }
+    public ResponseEntity<ApiEnvelope<PaymentResponseDTO>> createPayment(
+            @Valid @RequestBody PaymentCreateDTO paymentCreateDTO,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /api/payments", paymentCreateDTO, PaymentResponseDTO.class, () -> {
+            try {
+                PaymentResponseDTO payment = paymentService.createPayment(paymentCreateDTO);
+                return ResponseEntity.status(HttpStatus.CREATED).body(ApiEnvelope.success("Payment initiated successfully", payment));
+            } catch (RuntimeException e) {
+                if (IdempotencyStore.isInfrastructureFailure(e)) {
+                    throw e; // 500, and the key is released for a retry
+                }
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
+            }
+        });
     }
     
     /**
@@ -69,18 +78,12 @@ public class PaymentController {
      * GET /api/payments/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getPaymentById(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<PaymentResponseDTO>> getPaymentById(@PathVariable Long id) {
         try {
             PaymentResponseDTO payment = paymentService.getPaymentById(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", payment);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(payment));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -89,18 +92,12 @@ public class PaymentController {
      * GET /api/payments/{id}/details
      */
     @GetMapping("/{id}/details")
-    public ResponseEntity<Map<String, Object>> getPaymentDetails(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<PaymentDetailDTO>> getPaymentDetails(@PathVariable Long id) {
         try {
             PaymentDetailDTO paymentDetail = paymentService.getPaymentDetailById(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", paymentDetail);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(paymentDetail));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -109,18 +106,12 @@ public class PaymentController {
      * GET /api/payments/booking/{bookingId}
      */
     @GetMapping("/booking/{bookingId}")
-    public ResponseEntity<Map<String, Object>> getPaymentByBooking(@PathVariable Long bookingId) {
+    public ResponseEntity<ApiEnvelope<PaymentResponseDTO>> getPaymentByBooking(@PathVariable Long bookingId) {
         try {
             PaymentResponseDTO payment = paymentService.getPaymentByBookingId(bookingId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", payment);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(payment));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -129,13 +120,9 @@ public class PaymentController {
      * GET /api/payments/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getUserPayments(@PathVariable Long userId) {
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getUserPayments(@PathVariable Long userId) {
         List<PaymentResponseDTO> payments = paymentService.getPaymentsByUserId(userId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
@@ -143,13 +130,9 @@ public class PaymentController {
      * GET /api/payments/user/{userId}/simple
      */
     @GetMapping("/user/{userId}/simple")
-    public ResponseEntity<Map<String, Object>> getSimpleUserPayments(@PathVariable Long userId) {
+    public ResponseEntity<ApiEnvelope<List<SimplePaymentDTO>>> getSimpleUserPayments(@PathVariable Long userId) {
         List<SimplePaymentDTO> payments = paymentService.getSimplePaymentsByUserId(userId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
@@ -157,21 +140,14 @@ public class PaymentController {
      * POST /api/payments/{id}/complete
      */
     @PostMapping("/{id}/complete")
-    public ResponseEntity<Map<String, Object>> completePayment(
+    public ResponseEntity<ApiEnvelope<PaymentResponseDTO>> completePayment(
             @PathVariable Long id,
             @RequestParam String transactionId) {
         try {
             PaymentResponseDTO payment = paymentService.completePayment(id, transactionId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Payment completed successfully");
-            response.put("data", payment);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Payment completed successfully", payment));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -180,13 +156,10 @@ public class PaymentController {
      * POST /api/payments/verify
      */
     @PostMapping("/verify")
-    public ResponseEntity<Map<String, Object>> verifyPayment(@Valid @RequestBody PaymentVerificationDTO verificationDTO) {
+    public ResponseEntity<PaymentVerificationResultDTO> verifyPayment(@Valid @RequestBody PaymentVerificationDTO verificationDTO) {
         boolean isVerified = paymentService.verifyPayment(verificationDTO);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", isVerified);
-        response.put("verified", isVerified);
-        response.put("message", isVerified ? "Payment verified successfully" : "Payment verification failed");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new PaymentVerificationResultDTO(isVerified, isVerified,
+                isVerified ? "Payment verified successfully" : "Payment verification failed"));
     }
     
     /**
@@ -194,19 +167,12 @@ public class PaymentController {
      * POST /api/payments/refund
      */
     @PostMapping("/refund")
-    public ResponseEntity<Map<String, Object>> requestRefund(@Valid @RequestBody RefundRequestDTO refundRequestDTO) {
+    public ResponseEntity<ApiEnvelope<PaymentResponseDTO>> requestRefund(@Valid @RequestBody RefundRequestDTO refundRequestDTO) {
         try {
             PaymentResponseDTO payment = paymentService.processRefund(refundRequestDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Refund processed successfully");
-            response.put("data", payment);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Refund processed successfully", payment));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -215,21 +181,14 @@ public class PaymentController {
      * PATCH /api/payments/{id}/status
      */
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Map<String, Object>> updatePaymentStatus(
+    public ResponseEntity<ApiEnvelope<PaymentResponseDTO>> updatePaymentStatus(
             @PathVariable Long id,
             @Valid @RequestBody PaymentUpdateStatusDTO updateStatusDTO) {
         try {
             PaymentResponseDTO payment = paymentService.updatePaymentStatus(id, updateStatusDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Payment status updated successfully");
-            response.put("data", payment);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Payment status updated successfully", payment));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -240,13 +199,19 @@ public class PaymentController {
      * GET /api/payments
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllPayments() {
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getAllPayments() {
         List<PaymentResponseDTO> payments = paymentService.getAllPayments();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
+    }
+    
+    /**
+     * Export all payments (Admin only), streamed row by row
+     * GET /api/payments/export?format=ndjson|csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = ExportResponses.NDJSON) String format) {
+        return exportResponses.export("payments", format, PaymentResponseDTO.class, paymentService::exportAllPayments);
     }
     
     /**
@@ -254,13 +219,9 @@ public class PaymentController {
      * GET /api/payments/villa/{villaId}
      */
     @GetMapping("/villa/{villaId}")
-    public ResponseEntity<Map<String, Object>> getVillaPayments(@PathVariable Long villaId) {
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getVillaPayments(@PathVariable Long villaId) {
         List<PaymentResponseDTO> payments = paymentService.getPaymentsByVillaId(villaId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
@@ -268,13 +229,9 @@ public class PaymentController {
      * GET /api/payments/status/{status}
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<Map<String, Object>> getPaymentsByStatus(@PathVariable PaymentStatus status) {
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getPaymentsByStatus(@PathVariable PaymentStatus status) {
         List<PaymentResponseDTO> payments = paymentService.getPaymentsByStatus(status);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
@@ -282,13 +239,9 @@ public class PaymentController {
      * GET /api/payments/method/{method}
      */
     @GetMapping("/method/{method}")
-    public ResponseEntity<Map<String, Object>> getPaymentsByMethod(@PathVariable String method) {
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getPaymentsByMethod(@PathVariable String method) {
         List<PaymentResponseDTO> payments = paymentService.getPaymentsByPaymentMethod(method);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
@@ -296,13 +249,9 @@ public class PaymentController {
      * GET /api/payments/successful
      */
     @GetMapping("/successful")
-    public ResponseEntity<Map<String, Object>> getSuccessfulPayments() {
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getSuccessfulPayments() {
         List<PaymentResponseDTO> payments = paymentService.getSuccessfulPayments();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
@@ -310,13 +259,9 @@ public class PaymentController {
      * GET /api/payments/failed
      */
     @GetMapping("/failed")
-    public ResponseEntity<Map<String, Object>> getFailedPayments() {
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getFailedPayments() {
         List<PaymentResponseDTO> payments = paymentService.getFailedPayments();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
@@ -324,55 +269,42 @@ public class PaymentController {
      * GET /api/payments/recent?days=7
      */
     @GetMapping("/recent")
-    public ResponseEntity<Map<String, Object>> getRecentPayments(
+    public ResponseEntity<ApiEnvelope<List<PaymentResponseDTO>>> getRecentPayments(
             @RequestParam(defaultValue = "7") int days) {
         List<PaymentResponseDTO> payments = paymentService.getRecentPayments(days);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", payments.size());
-        response.put("data", payments);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(payments));
     }
     
     /**
      * Get payment statistics (Admin only)
      * GET /api/payments/statistics
      */
-//    @GetMapping("/statistics")
-//    public ResponseEntity<Map<String, Object>> getPaymentStatistics() {
-//        PaymentStatisticsDTO statistics = paymentService.getPaymentStatistics();
-//        Map<String, Object> response = new HashMap<>();
-//        response.put("success", true);
-//        response.put("data", statistics);
-//        return ResponseEntity.ok(response);
-//    }
+    @GetMapping("/statistics")
+    public ResponseEntity<ApiEnvelope<PaymentStatisticsDTO>> getPaymentStatistics() {
+        PaymentStatisticsDTO statistics = paymentService.getPaymentStatistics();
+        return ResponseEntity.ok(ApiEnvelope.success(statistics));
+    }
     
     /**
      * Get revenue report (Admin only)
      * GET /api/payments/revenue-report?startDate=2024-01-01&endDate=2024-12-31
      */
-//    @GetMapping("/revenue-report")
-//    public ResponseEntity<Map<String, Object>> getRevenueReport(
-//            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-//            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
-//        RevenueReportDTO report = paymentService.getRevenueReport(startDate, endDate);
-//        Map<String, Object> response = new HashMap<>();
-//        response.put("success", true);
-//        response.put("data", report);
-//        return ResponseEntity.ok(response);
-//    }
+    @GetMapping("/revenue-report")
+    public ResponseEntity<ApiEnvelope<RevenueReportDTO>> getRevenueReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        RevenueReportDTO report = paymentService.getRevenueReport(startDate, endDate);
+        return ResponseEntity.ok(ApiEnvelope.success(report));
+    }
     
     /**
      * Get total revenue (Admin only)
      * GET /api/payments/total-revenue
      */
     @GetMapping("/total-revenue")
-    public ResponseEntity<Map<String, Object>> getTotalRevenue() {
-        Double totalRevenue = paymentService.calculateTotalRevenue();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("totalRevenue", totalRevenue);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<TotalRevenueDTO> getTotalRevenue() {
+        Money totalRevenue = paymentService.calculateTotalRevenue();
+        return ResponseEntity.ok(new TotalRevenueDTO(true, totalRevenue));
     }
     
     /**
@@ -380,18 +312,12 @@ public class PaymentController {
      * DELETE /api/payments/{id}
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deletePayment(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<Void>> deletePayment(@PathVariable Long id) {
         try {
             paymentService.deletePayment(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Payment deleted successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.message("Payment deleted successfully"));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -402,20 +328,22 @@ public class PaymentController {
      * POST /api/payments/razorpay/create-order/{bookingId}
      */
     @PostMapping("/razorpay/create-order/{bookingId}")
-    public ResponseEntity<Map<String, Object>> createRazorpayOrder(@PathVariable Long bookingId) {
-        try {
-            RazorpayOrderResponse orderResponse = paymentService.createRazorpayOrder(bookingId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Razorpay order created successfully");
-            response.put("data", orderResponse);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", "Failed to create order: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
-        }
+    public ResponseEntity<ApiEnvelope<RazorpayOrderResponse>> createRazorpayOrder(
+            @PathVariable Long bookingId,
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute(idempotencyKey, "POST /api/payments/razorpay/create-order", bookingId,
+                RazorpayOrderResponse.class, () -> {
+            try {
+                RazorpayOrderResponse orderResponse = paymentService.createRazorpayOrder(bookingId);
+                return ResponseEntity.status(HttpStatus.CREATED).body(ApiEnvelope.success("Razorpay order created successfully", orderResponse));
+            } catch (Exception e) {
+                if (!IdempotencyStore.isInfrastructureFailure(e)) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure("Failed to create order: " + e.getMessage()));
+                }
+                // 5xx releases the key so the order can be retried
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiEnvelope.failure("Failed to create order: " + e.getMessage()));
+            }
+        });
     }
     
     /**
@@ -423,20 +351,13 @@ public class PaymentController {
      * POST /api/payments/razorpay/verify
      */
     @PostMapping("/razorpay/verify")
-    public ResponseEntity<Map<String, Object>> verifyRazorpayPayment(
+    public ResponseEntity<ApiEnvelope<PaymentResponseDTO>> verifyRazorpayPayment(
             @Valid @RequestBody RazorpayVerificationDTO verificationDTO) {
         try {
             PaymentResponseDTO payment = paymentService.verifyAndCapturePayment(verificationDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Payment verified and completed successfully");
-            response.put("data", payment);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Payment verified and completed successfully", payment));
         } catch (Exception e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", "Payment verification failed: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure("Payment verification failed: " + e.getMessage()));
         }
     }
 }
\ No newline at end of file
@@ -1,9 +1,8 @@
 package com.stayinn.controller;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -16,12 +15,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.dto.Rating.RatingCheckDTO;
 import com.stayinn.dto.Rating.RatingCreateDTO;
 import com.stayinn.dto.Rating.RatingDetailDTO;
 import com.stayinn.dto.Rating.RatingResponseDTO;
 import com.stayinn.dto.Rating.RatingUpdateDTO;
 import com.stayinn.dto.Rating.SimpleRatingDTO;
+import com.stayinn.service.CatalogueVersionTracker;
 import com.stayinn.service.RatingService;
 
 import jakarta.validation.Valid;
@@ -33,6 +37,8 @@ import lombok.RequiredArgsConstructor;
 public class RatingController {
     
     private final RatingService ratingService;
+    private final CatalogueVersionTracker catalogueVersions;
+    private final ExportResponses exportResponses;
     
     // ========== USER ENDPOINTS ==========
     
@@ -41,19 +47,12 @@ public class RatingController {
      * POST /api/ratings
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createRating(@Valid @RequestBody RatingCreateDTO ratingCreateDTO) {
+    public ResponseEntity<ApiEnvelope<RatingResponseDTO>> createRating(@Valid @RequestBody RatingCreateDTO ratingCreateDTO) {
         try {
             RatingResponseDTO rating = ratingService.createRating(ratingCreateDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Rating submitted successfully");
-            response.put("data", rating);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiEnvelope.success("Rating submitted successfully", rating));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -62,18 +61,12 @@ public class RatingController {
      * GET /api/ratings/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getRatingById(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<RatingResponseDTO>> getRatingById(@PathVariable Long id) {
         try {
             RatingResponseDTO rating = ratingService.getRatingById(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", rating);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(rating));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -82,18 +75,12 @@ public class RatingController {
      * GET /api/ratings/{id}/details
      */
     @GetMapping("/{id}/details")
-    public ResponseEntity<Map<String, Object>> getRatingDetails(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<RatingDetailDTO>> getRatingDetails(@PathVariable Long id) {
         try {
             RatingDetailDTO ratingDetail = ratingService.getRatingDetailById(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", ratingDetail);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(ratingDetail));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -102,13 +89,9 @@ public class RatingController {
      * GET /api/ratings/user/{userId}
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getUserRatings(@PathVariable Long userId) {
+    public ResponseEntity<ApiEnvelope<List<RatingResponseDTO>>> getUserRatings(@PathVariable Long userId) {
         List<RatingResponseDTO> ratings = ratingService.getRatingsByUserId(userId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", ratings.size());
-        response.put("data", ratings);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(ratings));
     }
     
     /**
@@ -127,15 +110,15 @@ public class RatingController {
     /**
      * Get all ratings for a villa
      * GET /api/ratings/villa/{villaId}
+     * Supports If-None-Match / If-Modified-Since (304 from a one-row version query, no entities loaded)
      */
     @GetMapping("/villa/{villaId}")
-    public ResponseEntity<Map<String, Object>> getVillaRatings(@PathVariable Long villaId) {
+    public ResponseEntity<ApiEnvelope<List<RatingResponseDTO>>> getVillaRatings(@PathVariable Long villaId, WebRequest request) {
+        if (catalogueVersions.checkRatingsNotModified(request, villaId)) {
+            return null;
+        }
         List<RatingResponseDTO> ratings = ratingService.getRatingsByVillaId(villaId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", ratings.size());
-        response.put("data", ratings);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiEnvelope.list(ratings));
     }
     
     /**
@@ -143,13 +126,9 @@ public class RatingController {
      * GET /api/ratings/villa/{villaId}/simple
      */
     @GetMapping("/villa/{villaId}/simple")
-    public ResponseEntity<Map<String, Object>> getSimpleVillaRatings(@PathVariable Long villaId) {
+    public ResponseEntity<ApiEnvelope<List<SimpleRatingDTO>>> getSimpleVillaRatings(@PathVariable Long villaId) {
         List<SimpleRatingDTO> ratings = ratingService.getSimpleRatingsByVillaId(villaId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", ratings.size());
-        response.put("data", ratings);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(ratings));
     }
     
     /**
@@ -170,14 +149,12 @@ public class RatingController {
      * GET /api/ratings/check?userId=1&villaId=1
      */
     @GetMapping("/check")
-    public ResponseEntity<Map<String, Object>> checkUserRating(
+    public ResponseEntity<RatingCheckDTO> checkUserRating(
             @RequestParam Long userId,
             @RequestParam Long villaId) {
         boolean hasRated = ratingService.hasUserRatedVilla(userId, villaId);
-        Map<String, Object> response = new HashMap<>();
-        response.put("hasRated", hasRated);
-        response.put("message", hasRated ? "User has already rated this villa" : "User hasn't rated this villa yet");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new RatingCheckDTO(hasRated,
+                hasRated ? "User has already rated this villa" : "User hasn't rated this villa yet"));
     }
     
     /**
@@ -185,20 +162,14 @@ public class RatingController {
      * GET /api/ratings/user/{userId}/villa/{villaId}
      */
     @GetMapping("/user/{userId}/villa/{villaId}")
-    public ResponseEntity<Map<String, Object>> getUserRatingForVilla(
+    public ResponseEntity<ApiEnvelope<RatingResponseDTO>> getUserRatingForVilla(
             @PathVariable Long userId,
             @PathVariable Long villaId) {
         try {
             RatingResponseDTO rating = ratingService.getUserRatingForVilla(userId, villaId);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", rating);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(rating));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -207,21 +178,14 @@ public class RatingController {
      * PUT /api/ratings/{id}
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateRating(
+    public ResponseEntity<ApiEnvelope<RatingResponseDTO>> updateRating(
             @PathVariable Long id,
             @Valid @RequestBody RatingUpdateDTO ratingUpdateDTO) {
         try {
             RatingResponseDTO rating = ratingService.updateRating(id, ratingUpdateDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Rating updated successfully");
-            response.put("data", rating);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Rating updated successfully", rating));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -230,18 +194,12 @@ public class RatingController {
      * DELETE /api/ratings/{id}
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteRating(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<Void>> deleteRating(@PathVariable Long id) {
         try {
             ratingService.deleteRating(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Rating deleted successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.message("Rating deleted successfully"));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -252,13 +210,19 @@ public class RatingController {
      * GET /api/ratings
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllRatings() {
+    public ResponseEntity<ApiEnvelope<List<RatingResponseDTO>>> getAllRatings() {
         List<RatingResponseDTO> ratings = ratingService.getAllRatings();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", ratings.size());
-        response.put("data", ratings);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(ratings));
+    }
+    
+    /**
+     * Export all ratings (Admin only), streamed row by row
+     * GET /api/ratings/export?format=ndjson|csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportRatings(
+            @RequestParam(defaultValue = ExportResponses.NDJSON) String format) {
+        return exportResponses.export("ratings", format, RatingResponseDTO.class, ratingService::exportAllRatings);
     }
     
     /**
@@ -266,20 +230,13 @@ public class RatingController {
      * GET /api/ratings/score/{score}
      */
     @GetMapping("/score/{score}")
-    public ResponseEntity<Map<String, Object>> getRatingsByScore(@PathVariable Integer score) {
+    public ResponseEntity<ApiEnvelope<List<RatingResponseDTO>>> getRatingsByScore(@PathVariable Integer score) {
         if (score < 1 || score > 5) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", "Score must be between 1 and 5");
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure("Score must be between 1 and 5"));
         }
         
         List<RatingResponseDTO> ratings = ratingService.getRatingsByScore(score);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", ratings.size());
-        response.put("data", ratings);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(ratings));
     }
     
     /**
@@ -287,14 +244,10 @@ public class RatingController {
      * GET /api/ratings/recent?days=7
      */
     @GetMapping("/recent")
-    public ResponseEntity<Map<String, Object>> getRecentRatings(
+    public ResponseEntity<ApiEnvelope<List<RatingResponseDTO>>> getRecentRatings(
             @RequestParam(defaultValue = "7") int days) {
         List<RatingResponseDTO> ratings = ratingService.getRecentRatings(days);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", ratings.size());
-        response.put("data", ratings);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(ratings));
     }
     
     /**
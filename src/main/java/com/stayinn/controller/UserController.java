@@ -1,8 +1,6 @@
       package com.stayinn.controller;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -17,12 +15,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.stayinn.entities.Role;
 import com.stayinn.service.UserService;
 import com.stayinn.dto.*;
 import com.stayinn.dto.User.UserProfileDTO;
 import com.stayinn.dto.User.UserResponseDTO;
+import com.stayinn.dto.User.UserStatisticsDTO;
 import com.stayinn.dto.User.UserUpdateDTO;
 
 import jakarta.validation.Valid;
@@ -36,6 +36,7 @@ import lombok.extern.slf4j.Slf4j;
 public class UserController {
     
     private final UserService userService;
+    private final ExportResponses exportResponses;
     
     // ========== PUBLIC ENDPOINTS ==========
     
@@ -44,22 +45,15 @@ public class UserController {
      * POST /api/users/register
      */
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> registerUser(@Valid @RequestBody RegistrationDTO registrationDTO) {
+    public ResponseEntity<ApiEnvelope<UserResponseDTO>> registerUser(@Valid @RequestBody RegistrationDTO registrationDTO) {
         try {
         	log.info("in regsiyerrrrr");
         	
         	
             UserResponseDTO user = userService.registerUser(registrationDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User registered successfully");
-            response.put("data", user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiEnvelope.success("User registered successfully", user));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -68,53 +62,53 @@ public class UserController {
      * GET /api/users/check-email?email=test@example.com
      */
     @GetMapping("/check-email")
-    public ResponseEntity<Map<String, Object>> checkEmail(@RequestParam String email) {
+    public ResponseEntity<ExistsCheckDTO> checkEmail(@RequestParam String email) {
         boolean exists = userService.existsByEmail(email);
-        Map<String, Object> response = new HashMap<>();
-        response.put("exists", exists);
-        response.put("message", exists ? "Email already registered" : "Email available");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new ExistsCheckDTO(exists, exists ? "Email already registered" : "Email available"));
     }
     
     // ========== AUTHENTICATED USER ENDPOINTS ==========
     
+    /**
+     * Get several users in one call, in the order requested
+     * GET /api/users/batch?ids=3,1,7
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ApiEnvelope<BatchLookupDTO<UserResponseDTO>>> getUsersByIds(@RequestParam List<Long> ids) {
+        BatchLookupDTO<UserResponseDTO> users = userService.getUsersByIds(ids);
+        return ResponseEntity.ok(ApiEnvelope.success(users).withCount(users.found().size()));
+    }
+    
     /**
      * Get user by ID
      * GET /api/users/{id}
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getUserById(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<UserResponseDTO>> getUserById(@PathVariable Long id) {
         try {
             UserResponseDTO user = userService.getUserById(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", user);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(user));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
     /**
      * Get user profile with statistics
-     * GET /api/users/{id}/profile
+     * GET /api/users/{id}/profile?upcoming=3
+     * upcoming: also return up to that many upcoming bookings (0 to 10, default none)
      */
     @GetMapping("/{id}/profile")
-    public ResponseEntity<Map<String, Object>> getUserProfile(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<UserProfileDTO>> getUserProfile(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int upcoming) {
         try {
-            UserProfileDTO profile = userService.getUserProfile(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", profile);
-            return ResponseEntity.ok(response);
+            UserProfileDTO profile = userService.getUserProfile(id, upcoming);
+            return ResponseEntity.ok(ApiEnvelope.success(profile));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -123,21 +117,14 @@ public class UserController {
      * PUT /api/users/{id}
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateUser(
+    public ResponseEntity<ApiEnvelope<UserResponseDTO>> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UserUpdateDTO updateDTO) {
         try {
             UserResponseDTO updatedUser = userService.updateUser(id, updateDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User updated successfully");
-            response.put("data", updatedUser);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("User updated successfully", updatedUser));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -146,19 +133,13 @@ public class UserController {
      * POST /api/users/change_password
      */
     @PostMapping("/change_password")
-    public ResponseEntity<Map<String, Object>> changePassword(
+    public ResponseEntity<ApiEnvelope<Void>> changePassword(
             @Valid @RequestBody PasswordChangeDTO passwordChangeDTO) {
         try {
             userService.changePassword(passwordChangeDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Password changed successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.message("Password changed successfully"));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -167,18 +148,12 @@ public class UserController {
      * PATCH /api/users/{id}/deactivate
      */
     @PatchMapping("/{id}/deactivate")
-    public ResponseEntity<Map<String, Object>> deactivateUser(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<Void>> deactivateUser(@PathVariable Long id) {
         try {
             userService.deactivateUser(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User account deactivated successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.message("User account deactivated successfully"));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -187,18 +162,12 @@ public class UserController {
      * PATCH /api/users/{id}/activate
      */
     @PatchMapping("/{id}/activate")
-    public ResponseEntity<Map<String, Object>> activateUser(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<Void>> activateUser(@PathVariable Long id) {
         try {
             userService.activateUser(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User account activated successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.message("User account activated successfully"));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -209,13 +178,19 @@ public class UserController {
      * GET /api/users
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllUsers() {
+    public ResponseEntity<ApiEnvelope<List<UserResponseDTO>>> getAllUsers() {
         List<UserResponseDTO> users = userService.getAllUsers();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", users.size());
-        response.put("data", users);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(users));
+    }
+    
+    /**
+     * Export all users (Admin only), streamed row by row
+     * GET /api/users/export?format=ndjson|csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = ExportResponses.NDJSON) String format) {
+        return exportResponses.export("users", format, UserResponseDTO.class, userService::exportAllUsers);
     }
     
     /**
@@ -223,13 +198,9 @@ public class UserController {
      * GET /api/users/role/{role}
      */
     @GetMapping("/role/{role}")
-    public ResponseEntity<Map<String, Object>> getUsersByRole(@PathVariable Role role) {
+    public ResponseEntity<ApiEnvelope<List<UserResponseDTO>>> getUsersByRole(@PathVariable Role role) {
         List<UserResponseDTO> users = userService.getUsersByRole(role);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", users.size());
-        response.put("data", users);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(users));
     }
     
     /**
@@ -237,13 +208,9 @@ public class UserController {
      * GET /api/users/active
      */
     @GetMapping("/active")
-    public ResponseEntity<Map<String, Object>> getActiveUsers() {
+    public ResponseEntity<ApiEnvelope<List<UserResponseDTO>>> getActiveUsers() {
         List<UserResponseDTO> users = userService.getActiveUsers();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", users.size());
-        response.put("data", users);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(users));
     }
     
     /**
@@ -251,13 +218,9 @@ public class UserController {
      * GET /api/users/search?name=john
      */
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchUsers(@RequestParam String name) {
+    public ResponseEntity<ApiEnvelope<List<UserResponseDTO>>> searchUsers(@RequestParam String name) {
         List<UserResponseDTO> users = userService.searchUsersByName(name);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", users.size());
-        response.put("data", users);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(users));
     }
     
     /**
@@ -265,13 +228,11 @@ public class UserController {
      * GET /api/users/stats
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getUserStatistics() {
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("totalUsers", userService.getTotalUserCount());
-        response.put("totalAdmins", userService.getUserCountByRole(Role.ADMIN));
-        response.put("totalCustomers", userService.getUserCountByRole(Role.USER));
-        return ResponseEntity.ok(response);
+    public ResponseEntity<UserStatisticsDTO> getUserStatistics() {
+        return ResponseEntity.ok(new UserStatisticsDTO(true,
+                userService.getTotalUserCount(),
+                userService.getUserCountByRole(Role.ADMIN),
+                userService.getUserCountByRole(Role.USER)));
     }
     
     /**
@@ -279,18 +240,12 @@ public class UserController {
      * DELETE /api/users/{id}
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteUser(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<Void>> deleteUser(@PathVariable Long id) {
         try {
             userService.deleteUser(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "User deleted successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.message("User deleted successfully"));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
 }
\ No newline at end of file
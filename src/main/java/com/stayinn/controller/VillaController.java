@@ -1,9 +1,13 @@
 package com.stayinn.controller;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -16,12 +20,24 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.dto.BatchLookupDTO;
+import com.stayinn.dto.ExistsCheckDTO;
+import com.stayinn.dto.Villa.PriceCalendarDTO;
 import com.stayinn.dto.Villa.VillaCreateDTO;
 import com.stayinn.dto.Villa.VillaDetailDTO;
+import com.stayinn.dto.Villa.VillaImportReportDTO;
+import com.stayinn.dto.Villa.VillaPricingDTO;
 import com.stayinn.dto.Villa.VillaResponseDTO;
 import com.stayinn.dto.Villa.VillaSearchDTO;
+import com.stayinn.dto.Villa.VillaSummaryDTO;
 import com.stayinn.dto.Villa.VillaUpdateDTO;
+import com.stayinn.money.Money;
+import com.stayinn.service.CatalogueVersionTracker;
+import com.stayinn.service.PricingService;
+import com.stayinn.service.VillaImportService;
 import com.stayinn.service.VillaService;
 
 import jakarta.validation.Valid;
@@ -33,54 +49,63 @@ import lombok.RequiredArgsConstructor;
 public class VillaController {
     
     private final VillaService villaService;
+    private final VillaImportService villaImportService;
+    private final CatalogueVersionTracker catalogueVersions;
+    private final PricingService pricingService;
+    
+    private static final int DEFAULT_CALENDAR_NIGHTS = 90;
     
     // ========== PUBLIC ENDPOINTS ==========
     
     /**
      * Get all villas
      * GET /api/villas
+     * Supports If-None-Match / If-Modified-Since (304 from a one-row version query, no entities loaded)
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllVillas() {
+    public ResponseEntity<ApiEnvelope<List<VillaResponseDTO>>> getAllVillas(WebRequest request) {
+        if (catalogueVersions.checkCatalogueNotModified(request)) {
+            return null;
+        }
         List<VillaResponseDTO> villas = villaService.getAllVillas();
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", villas.size());
-        response.put("data", villas);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiEnvelope.list(villas));
     }
     
     /**
      * Get all villa summaries (for listing page)
      * GET /api/villas/summaries
      */
-//    @GetMapping("/summaries")
-//    public ResponseEntity<Map<String, Object>> getAllVillaSummaries() {
-//        List<VillaSummaryDTO> summaries = villaService.getAllVillaSummaries();
-//        Map<String, Object> response = new HashMap<>();
-//        response.put("success", true);
-//        response.put("count", summaries.size());
-//        response.put("data", summaries);
-//        return ResponseEntity.ok(response);
-//    }
+    @GetMapping("/summaries")
+    public ResponseEntity<ApiEnvelope<List<VillaSummaryDTO>>> getAllVillaSummaries() {
+        List<VillaSummaryDTO> summaries = villaService.getAllVillaSummaries();
+        return ResponseEntity.ok(ApiEnvelope.list(summaries));
+    }
+    
+    /**
+     * Get several villas in one call, in the order requested
+     * GET /api/villas/batch?ids=3,1,7
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ApiEnvelope<BatchLookupDTO<VillaResponseDTO>>> getVillasByIds(@RequestParam List<Long> ids) {
+        BatchLookupDTO<VillaResponseDTO> villas = villaService.getVillasByIds(ids);
+        return ResponseEntity.ok(ApiEnvelope.success(villas).withCount(villas.found().size()));
+    }
     
     /**
      * Get villa by ID
      * GET /api/villas/{id}
+     * Supports If-None-Match / If-Modified-Since (304 from a one-row version query, no entities loaded)
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getVillaById(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<VillaResponseDTO>> getVillaById(@PathVariable Long id, WebRequest request) {
+        if (catalogueVersions.checkVillaNotModified(request, id)) {
+            return null;
+        }
         try {
             VillaResponseDTO villa = villaService.getVillaById(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", villa);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(ApiEnvelope.success(villa));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -89,18 +114,47 @@ public class VillaController {
      * GET /api/villas/{id}/details
      */
     @GetMapping("/{id}/details")
-    public ResponseEntity<Map<String, Object>> getVillaDetails(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<VillaDetailDTO>> getVillaDetails(@PathVariable Long id) {
         try {
             VillaDetailDTO villaDetail = villaService.getVillaDetailById(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("data", villaDetail);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success(villaDetail));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Nightly prices for the booking calendar (defaults to the next 90 nights)
+     * GET /api/villas/{id}/price-calendar?startDate=2025-01-01&endDate=2025-03-31
+     */
+    @GetMapping("/{id}/price-calendar")
+    public ResponseEntity<ApiEnvelope<PriceCalendarDTO>> getPriceCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        LocalDate start = startDate != null ? startDate : LocalDate.now();
+        LocalDate end = endDate != null ? endDate : start.plusDays(DEFAULT_CALENDAR_NIGHTS - 1);
+        try {
+            PriceCalendarDTO calendar = pricingService.getPriceCalendar(id, start, end);
+            return ResponseEntity.ok(ApiEnvelope.success(calendar));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get villa pricing rules
+     * GET /api/villas/{id}/pricing
+     */
+    @GetMapping("/{id}/pricing")
+    public ResponseEntity<ApiEnvelope<VillaPricingDTO>> getVillaPricing(@PathVariable Long id) {
+        try {
+            VillaPricingDTO pricing = pricingService.getVillaPricing(id);
+            return ResponseEntity.ok(ApiEnvelope.success(pricing));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -109,13 +163,9 @@ public class VillaController {
      * GET /api/villas/search?keyword=beach
      */
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchVillas(@RequestParam String keyword) {
+    public ResponseEntity<ApiEnvelope<List<VillaResponseDTO>>> searchVillas(@RequestParam String keyword) {
         List<VillaResponseDTO> villas = villaService.searchVillas(keyword);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", villas.size());
-        response.put("data", villas);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(villas));
     }
     
     /**
@@ -123,13 +173,9 @@ public class VillaController {
      * POST /api/villas/filter
      */
     @PostMapping("/filter")
-    public ResponseEntity<Map<String, Object>> filterVillas(@Valid @RequestBody VillaSearchDTO searchDTO) {
+    public ResponseEntity<ApiEnvelope<List<VillaResponseDTO>>> filterVillas(@Valid @RequestBody VillaSearchDTO searchDTO) {
         List<VillaResponseDTO> villas = villaService.filterVillas(searchDTO);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", villas.size());
-        response.put("data", villas);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(villas));
     }
     
     /**
@@ -137,15 +183,11 @@ public class VillaController {
      * GET /api/villas/price-range?minPrice=1000&maxPrice=5000
      */
     @GetMapping("/price-range")
-    public ResponseEntity<Map<String, Object>> getVillasByPriceRange(
-            @RequestParam Double minPrice,
-            @RequestParam Double maxPrice) {
+    public ResponseEntity<ApiEnvelope<List<VillaResponseDTO>>> getVillasByPriceRange(
+            @RequestParam Money minPrice,
+            @RequestParam Money maxPrice) {
         List<VillaResponseDTO> villas = villaService.getVillasByPriceRange(minPrice, maxPrice);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", villas.size());
-        response.put("data", villas);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(villas));
     }
     
     /**
@@ -153,13 +195,9 @@ public class VillaController {
      * GET /api/villas/location?address=Goa
      */
     @GetMapping("/location")
-    public ResponseEntity<Map<String, Object>> getVillasByLocation(@RequestParam String address) {
+    public ResponseEntity<ApiEnvelope<List<VillaResponseDTO>>> getVillasByLocation(@RequestParam String address) {
         List<VillaResponseDTO> villas = villaService.getVillasByAddress(address);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", villas.size());
-        response.put("data", villas);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(villas));
     }
     
     /**
@@ -167,14 +205,10 @@ public class VillaController {
      * GET /api/villas/top-rated?limit=5
      */
     @GetMapping("/top-rated")
-    public ResponseEntity<Map<String, Object>> getTopRatedVillas(
+    public ResponseEntity<ApiEnvelope<List<VillaResponseDTO>>> getTopRatedVillas(
             @RequestParam(defaultValue = "10") int limit) {
         List<VillaResponseDTO> villas = villaService.getTopRatedVillas(limit);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", villas.size());
-        response.put("data", villas);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(villas));
     }
     
     /**
@@ -182,14 +216,10 @@ public class VillaController {
      * GET /api/villas/sort-by-price?ascending=true
      */
     @GetMapping("/sort-by-price")
-    public ResponseEntity<Map<String, Object>> getVillasSortedByPrice(
+    public ResponseEntity<ApiEnvelope<List<VillaResponseDTO>>> getVillasSortedByPrice(
             @RequestParam(defaultValue = "true") boolean ascending) {
         List<VillaResponseDTO> villas = villaService.getVillasSortedByPrice(ascending);
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("count", villas.size());
-        response.put("data", villas);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(ApiEnvelope.list(villas));
     }
     
     /**
@@ -210,12 +240,9 @@ public class VillaController {
      * GET /api/villas/check-name?name=Beach Paradise
      */
     @GetMapping("/check-name")
-    public ResponseEntity<Map<String, Object>> checkVillaName(@RequestParam String name) {
+    public ResponseEntity<ExistsCheckDTO> checkVillaName(@RequestParam String name) {
         boolean exists = villaService.existsByName(name);
-        Map<String, Object> response = new HashMap<>();
-        response.put("exists", exists);
-        response.put("message", exists ? "Villa name already exists" : "Villa name available");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(new ExistsCheckDTO(exists, exists ? "Villa name already exists" : "Villa name available"));
     }
     
     // ========== ADMIN ENDPOINTS ==========
@@ -225,42 +252,57 @@ public class VillaController {
      * POST /api/villas
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createVilla(@Valid @RequestBody VillaCreateDTO villaCreateDTO) {
+    public ResponseEntity<ApiEnvelope<VillaResponseDTO>> createVilla(@Valid @RequestBody VillaCreateDTO villaCreateDTO) {
         try {
             VillaResponseDTO villa = villaService.createVilla(villaCreateDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Villa created successfully");
-            response.put("data", villa);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            return ResponseEntity.status(HttpStatus.CREATED).body(ApiEnvelope.success("Villa created successfully", villa));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
+    /**
+     * Bulk import villas from an NDJSON or CSV body (Admin only)
+     * POST /api/villas/import?format=ndjson|csv
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ApiEnvelope<VillaImportReportDTO>> importVillas(
+            @RequestParam(defaultValue = ExportResponses.NDJSON) String format,
+            InputStream body) throws IOException {
+        VillaImportReportDTO report = villaImportService.importVillas(body, format);
+        String message = report.getImported() + " of " + report.getTotalRows() + " villas imported";
+        return ResponseEntity.ok(ApiEnvelope.success(message, report));
+    }
+    
     /**
      * Update villa (Admin only)
      * PUT /api/villas/{id}
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateVilla(
+    public ResponseEntity<ApiEnvelope<VillaResponseDTO>> updateVilla(
             @PathVariable Long id,
             @Valid @RequestBody VillaUpdateDTO villaUpdateDTO) {
         try {
             VillaResponseDTO villa = villaService.updateVilla(id, villaUpdateDTO);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Villa updated successfully");
-            response.put("data", villa);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Villa updated successfully", villa));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
+        }
+    }
+    
+    /**
+     * Replace villa pricing rules: weekend uplift, seasonal rates, stay discounts (Admin only)
+     * PUT /api/villas/{id}/pricing
+     */
+    @PutMapping("/{id}/pricing")
+    public ResponseEntity<ApiEnvelope<VillaPricingDTO>> updateVillaPricing(
+            @PathVariable Long id,
+            @Valid @RequestBody VillaPricingDTO pricingDTO) {
+        try {
+            VillaPricingDTO pricing = pricingService.updateVillaPricing(id, pricingDTO);
+            return ResponseEntity.ok(ApiEnvelope.success("Villa pricing updated successfully", pricing));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -269,18 +311,12 @@ public class VillaController {
      * DELETE /api/villas/{id}
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteVilla(@PathVariable Long id) {
+    public ResponseEntity<ApiEnvelope<Void>> deleteVilla(@PathVariable Long id) {
         try {
             villaService.deleteVilla(id);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Villa deleted successfully");
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.message("Villa deleted successfully"));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -289,7 +325,7 @@ public class VillaController {
      * POST /api/villas/{id}/images
      */
     @PostMapping("/{id}/images")
-    public ResponseEntity<Map<String, Object>> addImageToVilla(
+    public ResponseEntity<ApiEnvelope<VillaResponseDTO>> addImageToVilla(
             @PathVariable Long id,
             @RequestBody Map<String, String> request) {
         try {
@@ -299,16 +335,9 @@ public class VillaController {
             }
             
             VillaResponseDTO villa = villaService.addImageToVilla(id, imageUrl);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Image added successfully");
-            response.put("data", villa);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Image added successfully", villa));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
     
@@ -317,7 +346,7 @@ public class VillaController {
      * DELETE /api/villas/{id}/images
      */
     @DeleteMapping("/{id}/images")
-    public ResponseEntity<Map<String, Object>> removeImageFromVilla(
+    public ResponseEntity<ApiEnvelope<VillaResponseDTO>> removeImageFromVilla(
             @PathVariable Long id,
             @RequestBody Map<String, String> request) {
         try {
@@ -327,16 +356,9 @@ public class VillaController {
             }
             
             VillaResponseDTO villa = villaService.removeImageFromVilla(id, imageUrl);
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Image removed successfully");
-            response.put("data", villa);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(ApiEnvelope.success("Image removed successfully", villa));
         } catch (RuntimeException e) {
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", false);
-            response.put("message", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiEnvelope.failure(e.getMessage()));
         }
     }
 }
\ No newline at end of file
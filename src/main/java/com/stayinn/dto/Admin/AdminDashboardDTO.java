@@ -0,0 +1,27 @@
+package com.stayinn.dto.Admin;
+
+import java.time.LocalDateTime;
+
+import com.stayinn.dto.Booking.BookingSummaryDTO;
+import com.stayinn.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Everything the admin dashboard shows, in one payload
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminDashboardDTO {
+
+    private BookingSummaryDTO bookings;
+    private Money totalRevenue;
+    private Long totalPayments;
+    private Long totalUsers;
+    private Long totalAdmins;
+    private Long totalCustomers;
+    private Long totalVillas;
+    private Long totalRatings;
+    private LocalDateTime generatedAt;
+}
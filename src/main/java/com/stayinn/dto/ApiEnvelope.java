@@ -0,0 +1,44 @@
+package com.stayinn.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Typed body of every /api response: {"success", "message", "count", "data"}.
+ * Same JSON as the HashMap envelopes it replaces (absent keys are omitted),
+ * but serialized from a fixed set of properties instead of a map of
+ * heterogeneous values.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({ "success", "message", "count", "data" })
+public record ApiEnvelope<T>(boolean success, String message, Integer count, T data) {
+
+	public static <T> ApiEnvelope<T> success(T data) {
+		return new ApiEnvelope<>(true, null, null, data);
+	}
+
+	public static <T> ApiEnvelope<T> success(String message, T data) {
+		return new ApiEnvelope<>(true, message, null, data);
+	}
+
+	/**
+	 * Success envelope carrying a list and its size as "count"
+	 */
+	public static <E> ApiEnvelope<List<E>> list(List<E> data) {
+		return new ApiEnvelope<>(true, null, data.size(), data);
+	}
+
+	public static <T> ApiEnvelope<T> message(String message) {
+		return new ApiEnvelope<>(true, message, null, null);
+	}
+
+	public static <T> ApiEnvelope<T> failure(String message) {
+		return new ApiEnvelope<>(false, message, null, null);
+	}
+
+	public ApiEnvelope<T> withCount(int count) {
+		return new ApiEnvelope<>(success, message, count, data);
+	}
+}
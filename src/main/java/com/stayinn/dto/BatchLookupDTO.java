@@ -0,0 +1,10 @@
+package com.stayinn.dto;
+
+import java.util.List;
+
+/**
+ * Result of a by-ids lookup: found entries in the order the ids were requested
+ * (duplicates collapsed), plus the requested ids that do not exist
+ */
+public record BatchLookupDTO<T>(List<T> found, List<Long> missingIds) {
+}
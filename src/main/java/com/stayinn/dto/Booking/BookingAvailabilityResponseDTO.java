@@ -2,6 +2,8 @@ package com.stayinn.dto.Booking;
 
 import java.time.LocalDate;
 
+import com.stayinn.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,5 +16,7 @@ public class BookingAvailabilityResponseDTO {
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
     private Integer numberOfNights;
-    private Double estimatedPrice;
+    private Boolean available;
+    private Money estimatedPrice; // null when not available
+    private String message;
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 import com.stayinn.entities.BookingStatus;
 import com.stayinn.entities.PaymentStatus;
+import com.stayinn.money.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -27,14 +28,14 @@ public class BookingDetailDTO {
     private Long villaId;
     private String villaName;
     private String villaLocation;
-    private Double villaPrice;
+    private Money villaPrice;
     private String villaImage;
     
     // Booking Details
     private String checkInDate;
     private String checkOutDate;
     private Integer numberOfNights;
-    private Double totalPrice;
+    private Money totalPrice;
     private BookingStatus status;
     
     // Payment Details
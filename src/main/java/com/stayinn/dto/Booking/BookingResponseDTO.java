@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import com.stayinn.entities.BookingStatus;
+import com.stayinn.money.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -24,14 +25,14 @@ public class BookingResponseDTO {
     private String checkInDate;
     private String checkOutDate;
     private Integer numberOfNights;
-    private Double totalPrice;
+    private Money totalPrice;
     private BookingStatus status;
     private String createdAt;
     private String updatedAt;
     
     // Simple constructor without villa/user details
     public BookingResponseDTO(Long id, Long userId, Long villaId, String checkInDate, 
-                             String checkOutDate, Double totalPrice, BookingStatus status) {
+                             String checkOutDate, Money totalPrice, BookingStatus status) {
         this.id = id;
         this.userId = userId;
         this.villaId = villaId;
@@ -1,5 +1,7 @@
 package com.stayinn.dto.Booking;
 
+import com.stayinn.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,5 +16,5 @@ public class BookingSummaryDTO {
     private Long confirmedBookings;
     private Long completedBookings;
     private Long cancelledBookings;
-    private Double totalRevenue;
+    private Money totalRevenue;
 }
\ No newline at end of file
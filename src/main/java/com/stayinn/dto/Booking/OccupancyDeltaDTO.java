@@ -0,0 +1,29 @@
+package com.stayinn.dto.Booking;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// "delta" event of GET /api/bookings/villa/{villaId}/availability/stream: nights whose occupancy changed
+// since the previous event; apply in version order on top of the "snapshot" event
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyDeltaDTO {
+
+    private Long villaId;
+    private Long version;
+    private List<Change> changes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Change {
+        private LocalDate startDate;
+        private LocalDate endDate; // inclusive
+        private Boolean occupied;
+    }
+}
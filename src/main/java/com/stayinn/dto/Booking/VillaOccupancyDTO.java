@@ -0,0 +1,33 @@
+package com.stayinn.dto.Booking;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Occupied nights of a villa for GET /api/bookings/villa/{villaId}/availability, without booking details.
+// encoding "bitmap": Base64 bytes, bit i (least significant first) set when the night of startDate + i is taken.
+// encoding "runs": lengths of alternating free and taken runs of nights, starting with free (possibly 0).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VillaOccupancyDTO {
+
+    public static final String BITMAP = "bitmap";
+    public static final String RUNS = "runs";
+
+    private Long villaId;
+    private LocalDate startDate;
+    private LocalDate endDate; // inclusive
+    private Integer nights;
+    private Integer occupiedNights;
+    private String encoding;
+    private String bitmap;
+    private List<Integer> runs;
+    private Long version; // set on availability stream snapshots: the last delta it includes
+}
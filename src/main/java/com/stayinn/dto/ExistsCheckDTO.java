@@ -0,0 +1,7 @@
+package com.stayinn.dto;
+
+/**
+ * Body of the "is this email / villa name taken" checks
+ */
+public record ExistsCheckDTO(boolean exists, String message) {
+}
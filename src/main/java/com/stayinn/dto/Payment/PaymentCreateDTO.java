@@ -2,6 +2,8 @@ package com.stayinn.dto.Payment;
 
 
 
+import com.stayinn.money.Money;
+
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -21,7 +23,7 @@ public class PaymentCreateDTO {
     
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
-    private Double amount;
+    private Money amount;
     
     @NotBlank(message = "Payment method is required")
     @Pattern(regexp = "CREDIT_CARD|DEBIT_CARD|UPI|NET_BANKING|WALLET|PAYPAL", 
@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import com.stayinn.entities.PaymentStatus;
+import com.stayinn.money.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,7 +18,7 @@ public class PaymentDetailDTO {
     private Long id;
     
     // Payment details
-    private Double amount;
+    private Money amount;
     private LocalDate paymentDate;
     private String paymentMethod;
     private String paymentGateway;
@@ -4,6 +4,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 import com.stayinn.entities.PaymentStatus;
+import com.stayinn.money.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,7 +17,7 @@ public class PaymentResponseDTO {
     
     private Long id;
     private Long bookingId;
-    private Double amount;
+    private Money amount;
     private LocalDate paymentDate;
     private String paymentMethod;
     private String paymentGateway;
@@ -26,7 +27,7 @@ public class PaymentResponseDTO {
     private LocalDateTime updatedAt;
     
     // Simplified constructor
-    public PaymentResponseDTO(Long id, Long bookingId, Double amount, 
+    public PaymentResponseDTO(Long id, Long bookingId, Money amount, 
                              LocalDate paymentDate, String paymentMethod, 
                              PaymentStatus status, String transactionId) {
         this.id = id;
@@ -0,0 +1,24 @@
+package com.stayinn.dto.Payment;
+
+import java.util.Map;
+
+import com.stayinn.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentStatisticsDTO {
+    
+    private long totalPayments;
+    private long completedPayments;
+    private long pendingPayments;
+    private long failedPayments;
+    private long refundedPayments;
+    private Money totalRevenue;
+    private Money averagePaymentAmount;
+    private Map<String, Long> paymentMethodDistribution; // completed payments per method
+}
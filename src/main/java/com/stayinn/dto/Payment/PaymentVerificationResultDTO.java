@@ -0,0 +1,7 @@
+package com.stayinn.dto.Payment;
+
+/**
+ * Body of POST /api/payments/verify
+ */
+public record PaymentVerificationResultDTO(boolean success, boolean verified, String message) {
+}
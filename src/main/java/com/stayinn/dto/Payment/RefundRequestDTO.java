@@ -1,5 +1,7 @@
 package com.stayinn.dto.Payment;
 
+import com.stayinn.money.Money;
+
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,7 +20,7 @@ public class RefundRequestDTO {
     
     @NotNull(message = "Refund amount is required")
     @DecimalMin(value = "0.01", message = "Refund amount must be greater than 0")
-    private Double refundAmount;
+    private Money refundAmount;
     
     @NotBlank(message = "Refund reason is required")
     @Size(min = 10, max = 500, message = "Reason must be between 10 and 500 characters")
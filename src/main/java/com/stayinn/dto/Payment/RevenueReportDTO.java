@@ -0,0 +1,24 @@
+package com.stayinn.dto.Payment;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import com.stayinn.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenueReportDTO {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Money totalRevenue;
+    private long totalTransactions;
+    private Money averageTransactionValue;
+    private Map<String, Money> revenueByPaymentMethod;
+    private Map<LocalDate, Money> revenueByDay; // days without completed payments are left out
+}
@@ -3,6 +3,7 @@ package com.stayinn.dto.Payment;
 import java.time.LocalDate;
 
 import com.stayinn.entities.PaymentStatus;
+import com.stayinn.money.Money;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,7 +15,7 @@ import lombok.NoArgsConstructor;
 public class SimplePaymentDTO {
     
     private Long id;
-    private Double amount;
+    private Money amount;
     private LocalDate paymentDate;
     private String paymentMethod;
     private PaymentStatus status;
@@ -0,0 +1,9 @@
+package com.stayinn.dto.Payment;
+
+import com.stayinn.money.Money;
+
+/**
+ * Body of GET /api/payments/total-revenue
+ */
+public record TotalRevenueDTO(boolean success, Money totalRevenue) {
+}
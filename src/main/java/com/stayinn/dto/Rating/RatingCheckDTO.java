@@ -0,0 +1,7 @@
+package com.stayinn.dto.Rating;
+
+/**
+ * Body of GET /api/ratings/check
+ */
+public record RatingCheckDTO(boolean hasRated, String message) {
+}
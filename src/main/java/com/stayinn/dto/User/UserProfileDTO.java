@@ -1,10 +1,16 @@
 package com.stayinn.dto.User;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.stayinn.entities.BookingStatus;
 import com.stayinn.entities.Role;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
 
 @Data
@@ -20,4 +26,18 @@ public class UserProfileDTO {
 	private LocalDateTime createdAt;
 	private int totalBookings;
 	private int totalRatings;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private List<UpcomingBooking> upcomingBookings; // only when asked for, soonest first
+
+	@Data
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class UpcomingBooking {
+		private Long bookingId;
+		private Long villaId;
+		private String villaName;
+		private LocalDate checkInDate;
+		private LocalDate checkOutDate;
+		private BookingStatus status;
+	}
 }
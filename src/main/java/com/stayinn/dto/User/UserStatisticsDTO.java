@@ -0,0 +1,7 @@
+package com.stayinn.dto.User;
+
+/**
+ * Body of GET /api/users/stats
+ */
+public record UserStatisticsDTO(boolean success, long totalUsers, long totalAdmins, long totalCustomers) {
+}
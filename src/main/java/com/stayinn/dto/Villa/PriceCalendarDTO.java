@@ -0,0 +1,25 @@
+package com.stayinn.dto.Villa;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.stayinn.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Nightly prices for GET /api/villas/{id}/price-calendar; nights[i] is the night of startDate + i
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceCalendarDTO {
+
+    private Long villaId;
+    private LocalDate startDate;
+    private LocalDate endDate; // inclusive
+    private Money basePrice;
+    private Integer weekendUpliftPercent;
+    private List<Money> nights;
+    private List<VillaPricingDTO.StayDiscount> stayDiscounts;
+}
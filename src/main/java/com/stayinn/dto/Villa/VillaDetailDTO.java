@@ -3,6 +3,8 @@ package com.stayinn.dto.Villa;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.stayinn.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,7 +18,7 @@ public class VillaDetailDTO {
     private String name;
     private String description;
     private String address;
-    private Double pricePerNight;
+    private Money pricePerNight;
     private List<String> imageUrls;
     
     // Rating Information
@@ -0,0 +1,28 @@
+package com.stayinn.dto.Villa;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a bulk villa import; rows are numbered from 1 in file order (CSV header excluded)
+@Data
+@NoArgsConstructor
+public class VillaImportReportDTO {
+
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row;
+        private String name;
+        private String message;
+    }
+}
@@ -0,0 +1,70 @@
+package com.stayinn.dto.Villa;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.stayinn.money.Money;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pricing rules of a villa on top of its base pricePerNight; PUT replaces all of them
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VillaPricingDTO {
+
+    @NotNull(message = "Weekend uplift is required")
+    @Min(value = 0, message = "Weekend uplift must be 0 or greater")
+    @Max(value = 300, message = "Weekend uplift must be at most 300%")
+    private Integer weekendUpliftPercent;
+
+    @Valid
+    @Size(max = 100, message = "Maximum 100 seasonal rates allowed")
+    private List<SeasonalRate> seasonalRates = new ArrayList<>();
+
+    @Valid
+    @Size(max = 20, message = "Maximum 20 stay discounts allowed")
+    private List<StayDiscount> stayDiscounts = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SeasonalRate {
+
+        @NotNull(message = "Season start date is required")
+        private LocalDate startDate;
+
+        @NotNull(message = "Season end date is required")
+        private LocalDate endDate; // inclusive
+
+        @NotNull(message = "Seasonal rate is required")
+        @DecimalMin(value = "0.01", message = "Seasonal rate must be greater than 0")
+        @DecimalMax(value = "999999.99", message = "Seasonal rate must be less than 1,000,000")
+        private Money nightlyRate;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StayDiscount {
+
+        @NotNull(message = "Minimum nights is required")
+        @Min(value = 2, message = "Stay discounts start at 2 nights")
+        private Integer minNights;
+
+        @NotNull(message = "Discount percent is required")
+        @Min(value = 1, message = "Discount must be at least 1%")
+        @Max(value = 90, message = "Discount must be at most 90%")
+        private Integer percentOff;
+    }
+}
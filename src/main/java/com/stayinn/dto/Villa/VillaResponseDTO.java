@@ -3,6 +3,8 @@ package com.stayinn.dto.Villa;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import com.stayinn.money.Money;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -16,16 +18,17 @@ public class VillaResponseDTO {
     private String name;
     private String description;
     private String address;
-    private Double pricePerNight;
+    private Money pricePerNight;
     private List<String> imageUrls;
     private Double averageRating;
     private Integer totalRatings;
+    private Double weightedRating; // Bayesian score used for rating-based ordering
     private String createdAt;
     private String updatedAt;
     
     // Simplified constructor without timestamps
     public VillaResponseDTO(Long id, String name, String description, String address, 
-                           Double pricePerNight, List<String> imageUrls, 
+                           Money pricePerNight, List<String> imageUrls, 
                            Double averageRating, Integer totalRatings) {
         this.id = id;
         this.name = name;
@@ -1,5 +1,7 @@
 package com.stayinn.dto.Villa;
 
+import com.stayinn.money.Money;
+
 import jakarta.validation.constraints.DecimalMin;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,10 +16,10 @@ public class VillaSearchDTO {
     private String address;
     
     @DecimalMin(value = "0.0", message = "Minimum price must be 0 or greater")
-    private Double minPrice;
+    private Money minPrice;
     
     @DecimalMin(value = "0.0", message = "Maximum price must be 0 or greater")
-    private Double maxPrice;
+    private Money maxPrice;
     
     private String sortBy; // "price_asc", "price_desc", "rating", "name"
 }
@@ -0,0 +1,31 @@
+package com.stayinn.dto.Villa;
+
+import com.stayinn.money.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Listing card projection: only the primary image instead of the full gallery
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VillaSummaryDTO {
+    
+    private Long id;
+    private String name;
+    private String address;
+    private Money pricePerNight;
+    private String primaryImage;
+    private Double averageRating;
+    private Integer totalRatings;
+    private Double weightedRating;
+
+    // Used by the VillaRepository.findAllSummaries constructor expression
+    public VillaSummaryDTO(Long id, String name, String address, Money pricePerNight, String primaryImage,
+            Long ratingCount, Long ratingSum, Double weightedRating) {
+        this(id, name, address, pricePerNight, primaryImage,
+                ratingCount == null || ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount,
+                ratingCount != null ? ratingCount.intValue() : 0, weightedRating);
+    }
+}
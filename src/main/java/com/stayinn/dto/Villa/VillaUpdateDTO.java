@@ -2,6 +2,8 @@ package com.stayinn.dto.Villa;
 
 import java.util.List;
 
+import com.stayinn.money.Money;
+
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Size;
@@ -25,7 +27,7 @@ public class VillaUpdateDTO {
     
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
     @DecimalMax(value = "999999.99", message = "Price must be less than 1,000,000")
-    private Double pricePerNight;
+    private Money pricePerNight;
     
     @Size(max = 10, message = "Maximum 10 images allowed")
     private List<String> imageUrls;
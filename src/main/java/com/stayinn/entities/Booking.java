@@ -2,6 +2,8 @@ package com.stayinn.entities;
 
 import java.time.LocalDate;
 
+import com.stayinn.money.Money;
+
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -28,7 +30,7 @@ public class Booking extends BaseEntity{
     
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
-    private Double totalPrice;
+    private Money totalPrice; // BIGINT paise
     
     @Enumerated(EnumType.STRING)
     private BookingStatus status; // PENDING, CONFIRMED, CANCELLED
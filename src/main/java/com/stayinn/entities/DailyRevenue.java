@@ -0,0 +1,48 @@
+package com.stayinn.entities;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Revenue rollup: one row per payment date, gateway and method, maintained
+ * together with payment status changes (see DailyRevenueRecorder).
+ * Completed totals only cover payments whose status is currently COMPLETED.
+ */
+@Entity
+@RequiredArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "daily_revenue_id"))
+@Getter
+@Setter
+@Table(name = "daily_revenue", uniqueConstraints = @UniqueConstraint(name = "uk_daily_revenue_bucket",
+        columnNames = { "revenue_date", "payment_gateway", "payment_method" }))
+public class DailyRevenue extends BaseEntity {
+
+    @Column(name = "revenue_date", nullable = false)
+    private LocalDate revenueDate;
+
+    @Column(name = "payment_gateway", nullable = false)
+    private String paymentGateway;
+
+    @Column(name = "payment_method", nullable = false)
+    private String paymentMethod;
+
+    @Column(nullable = false)
+    private long completedCount;
+
+    @Column(nullable = false)
+    private long completedPaise;
+
+    @Column(nullable = false)
+    private long refundedCount;
+
+    @Column(nullable = false)
+    private long refundedPaise;
+}
@@ -0,0 +1,48 @@
+package com.stayinn.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * An Idempotency-Key seen on a create endpoint: claimed (completed = false)
+ * while the first request runs, then holding its response so retries get the
+ * same answer until expiresAt. Keys are scoped to the endpoint and caller.
+ */
+@Entity
+@RequiredArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "idempotency_record_id"))
+@Getter
+@Setter
+@Table(name = "idempotency_keys", uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_scope_key",
+        columnNames = { "scope", "idempotency_key" }))
+public class IdempotencyRecord extends BaseEntity {
+
+    @Column(nullable = false, length = 320)
+    private String scope; // e.g. "POST /api/bookings user@example.com"
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash; // SHA-256 (hex) of the request, to reject a key reused for another request
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    private Integer responseStatus;
+
+    @Lob
+    private String responseBody; // JSON
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
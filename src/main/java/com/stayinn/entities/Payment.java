@@ -2,6 +2,8 @@ package com.stayinn.entities;
 
 import java.time.LocalDate;
 
+import com.stayinn.money.Money;
+
 import jakarta.persistence.AttributeOverride;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -22,7 +24,7 @@ import lombok.Setter;
 @Table(name = "payments") // Explicit table name
 public class Payment extends BaseEntity {
 
-    private Double amount;
+    private Money amount; // BIGINT paise
     private LocalDate paymentDate;
     private String paymentMethod; // e.g., "CREDIT_CARD", "PAYPAL"
     @Enumerated(EnumType.STRING)
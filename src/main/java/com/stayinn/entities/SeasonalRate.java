@@ -0,0 +1,42 @@
+package com.stayinn.entities;
+
+import java.time.LocalDate;
+
+import com.stayinn.money.Money;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Nightly rate that replaces a villa's base price for the nights from
+ * startDate to endDate (both inclusive). Where seasons overlap, the one
+ * starting later wins.
+ */
+@Entity
+@RequiredArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "seasonal_rate_id"))
+@Getter
+@Setter
+@Table(name = "villa_seasonal_rates")
+public class SeasonalRate extends BaseEntity {
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    @Column(nullable = false)
+    private LocalDate endDate;
+
+    @Column(nullable = false)
+    private Money nightlyRate; // BIGINT paise
+
+    @ManyToOne
+    @JoinColumn(name = "villa_id", nullable = false)
+    private Villa villa;
+}
@@ -0,0 +1,34 @@
+package com.stayinn.entities;
+
+import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Length-of-stay discount: stays of at least minNights get percentOff off
+ * their nightly total. Only the largest qualifying discount applies.
+ */
+@Entity
+@RequiredArgsConstructor
+@AttributeOverride(name = "id", column = @Column(name = "stay_discount_id"))
+@Getter
+@Setter
+@Table(name = "villa_stay_discounts")
+public class StayDiscount extends BaseEntity {
+
+    @Column(nullable = false)
+    private Integer minNights;
+
+    @Column(nullable = false)
+    private Integer percentOff;
+
+    @ManyToOne
+    @JoinColumn(name = "villa_id", nullable = false)
+    private Villa villa;
+}
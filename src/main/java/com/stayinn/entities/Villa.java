@@ -2,18 +2,30 @@ package com.stayinn.entities;
 
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import com.stayinn.money.Money;
+
 import jakarta.persistence.AttributeOverride;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 
+// Second-level cached (read-write): villas are read by id on every booking, payment and rating write
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @RequiredArgsConstructor
 @AttributeOverride(name = "id",column = @Column(name = "villa_id"))
 @Getter
@@ -21,21 +33,49 @@ import lombok.Setter;
 @Table(name = "villas") // Explicit table name
 public class Villa extends BaseEntity{
 
-    
+
     private String name;
     private String description;
     private String address;
-    private Double pricePerNight;
-    
-    @ElementCollection(fetch = FetchType.EAGER)
+    private Money pricePerNight; // BIGINT paise
+
+    // Extra charge on Friday and Saturday nights, in percent of that night's rate.
+    // Seasonal rates and stay discounts live in their own tables (see PricingService)
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer weekendUpliftPercent = 0;
+
+    // Lazy: listing/detail finders load it through an entity graph, other lazy
+    // access is batched so a page of villas costs one extra query, not one per villa.
+    // Table and columns are spelled out (same as the defaults) because the bulk
+    // import in VillaImportServiceImpl writes them with plain JDBC
+    @ElementCollection
+    @CollectionTable(name = "villa_image_urls", joinColumns = @JoinColumn(name = "villa_villa_id"))
+    @Column(name = "image_urls")
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<String> imageUrls; // Store URLs, not actual images in DB
 
     @OneToMany(mappedBy = "villa")
     private List<Rating> ratings; // All ratings for this villa
 
+    // Running rating totals, maintained by RatingServiceImpl on create/update/delete
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long ratingCount = 0L;
+
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long ratingSum = 0L;
+
+    // Bayesian score derived from the totals above, used for "rating" ordering
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Double weightedRating = 0.0;
+
     // Helper method to calculate average rating
     public Double getAverageRating() {
-        if (ratings == null || ratings.isEmpty()) return 0.0;
-        return ratings.stream().mapToInt(Rating::getScore).average().orElse(0.0);
+        if (ratingCount == null || ratingCount == 0) return 0.0;
+        return (double) ratingSum / ratingCount;
     }
 }
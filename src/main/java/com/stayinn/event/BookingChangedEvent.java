@@ -0,0 +1,17 @@
+package com.stayinn.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Published whenever a booking is created, changes status or is deleted, i.e.
+ * whenever the nights it blocks on its villa may have changed.
+ * Listeners that cache occupancy react after the transaction commits.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingChangedEvent {
+
+	private final Long villaId;
+	private final Long bookingId;
+}
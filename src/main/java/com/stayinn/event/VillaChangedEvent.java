@@ -0,0 +1,29 @@
+package com.stayinn.event;
+
+import lombok.Getter;
+
+/**
+ * Published whenever a villa, its images or its ratings change.
+ * Listeners that cache catalogue data react after the transaction commits.
+ */
+@Getter
+public class VillaChangedEvent {
+
+	private final Long villaId;
+
+	/** Only the villa's ratings (and so its rating totals) changed */
+	private final boolean ratingsOnly;
+
+	public VillaChangedEvent(Long villaId) {
+		this(villaId, false);
+	}
+
+	public VillaChangedEvent(Long villaId, boolean ratingsOnly) {
+		this.villaId = villaId;
+		this.ratingsOnly = ratingsOnly;
+	}
+
+	public static VillaChangedEvent ratingsChanged(Long villaId) {
+		return new VillaChangedEvent(villaId, true);
+	}
+}
@@ -0,0 +1,42 @@
+package com.stayinn.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for the overlapping-booking query used by createBooking and
+ * checkAvailability.
+ */
+@Name("com.stayinn.BookingConflictCheck")
+@Label("Booking Conflict Check")
+@Category({ "StayInn", "Booking" })
+@Description("Overlapping booking lookup for a villa and date range")
+@StackTrace(false)
+public class BookingConflictCheckEvent extends LifecycleEvent {
+
+	@Label("Villa Id")
+	long villaId;
+
+	@Label("Conflicting Bookings")
+	int conflicts;
+
+	public static BookingConflictCheckEvent begin(String operation, Long villaId) {
+		BookingConflictCheckEvent event = new BookingConflictCheckEvent();
+		event.operation = operation;
+		event.villaId = villaId != null ? villaId : 0;
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * Commit with outcome "available" or "conflict"
+	 */
+	public void finish(int conflicts) {
+		this.conflicts = conflicts;
+		this.outcome = conflicts == 0 ? "available" : "conflict";
+		commit();
+	}
+}
@@ -0,0 +1,38 @@
+package com.stayinn.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around booking create / confirm / cancel. Duration is the time
+ * between begin() and commit(); committing is a no-op unless a recording is running.
+ */
+@Name("com.stayinn.BookingLifecycle")
+@Label("Booking Lifecycle")
+@Category({ "StayInn", "Booking" })
+@Description("Booking create, confirm and cancel operations")
+@StackTrace(false)
+public class BookingLifecycleEvent extends LifecycleEvent {
+
+	@Label("Booking Id")
+	long bookingId;
+
+	@Label("Villa Id")
+	long villaId;
+
+	public static BookingLifecycleEvent begin(String operation) {
+		BookingLifecycleEvent event = new BookingLifecycleEvent();
+		event.operation = operation;
+		event.begin();
+		return event;
+	}
+
+	public BookingLifecycleEvent booking(Long bookingId, Long villaId) {
+		this.bookingId = bookingId != null ? bookingId : 0;
+		this.villaId = villaId != null ? villaId : 0;
+		return this;
+	}
+}
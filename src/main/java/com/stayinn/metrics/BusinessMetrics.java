@@ -0,0 +1,109 @@
+package com.stayinn.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Timers and counters for the business hot paths. Every timer publishes a
+ * percentile histogram so latency quantiles can be aggregated in Prometheus
+ * (scraped from /actuator/prometheus).
+ */
+@Component
+@RequiredArgsConstructor
+public class BusinessMetrics {
+
+	public static final String OUTCOME_SUCCESS = "success";
+	public static final String OUTCOME_FAILURE = "failure";
+
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * A call to the payment gateway that may throw a checked exception
+	 */
+	@FunctionalInterface
+	public interface GatewayCall<T> {
+		T call() throws Exception;
+	}
+
+	public Timer.Sample start() {
+		return Timer.start(meterRegistry);
+	}
+
+	/**
+	 * createBooking phases: validation, conflict_check, insert
+	 */
+	public void recordBookingPhase(Timer.Sample sample, String phase) {
+		sample.stop(timer("stayinn.booking.create", "Booking creation latency by phase", "phase", phase));
+	}
+
+	public <T> T recordGatewayCall(String operation, GatewayCall<T> call) throws Exception {
+		Timer.Sample sample = start();
+		String outcome = OUTCOME_FAILURE;
+		try {
+			T result = call.call();
+			outcome = OUTCOME_SUCCESS;
+			return result;
+		} finally {
+			sample.stop(timer("stayinn.payment.gateway", "Payment gateway call latency", "operation", operation,
+					"outcome", outcome));
+		}
+	}
+
+	public boolean recordSignatureVerification(Supplier<Boolean> verification) {
+		Timer.Sample sample = start();
+		boolean valid = false;
+		try {
+			valid = verification.get();
+			return valid;
+		} finally {
+			sample.stop(timer("stayinn.payment.signature.verify", "Razorpay signature verification latency",
+					"outcome", valid ? "valid" : "invalid"));
+		}
+	}
+
+	/**
+	 * outcome: anonymous (no bearer token), authenticated, rejected, error (token handling threw)
+	 */
+	public void recordJwtFilter(Timer.Sample sample, String outcome) {
+		sample.stop(timer("stayinn.security.jwt.filter", "JWT authentication filter latency", "outcome", outcome));
+	}
+
+	/**
+	 * Hit/miss counter for a cache; the hit ratio is hit / (hit + miss)
+	 */
+	public void recordCacheLookup(String cache, boolean hit) {
+		Counter.builder("stayinn.cache.lookups").description("Cache lookups by result").tag("cache", cache)
+				.tag("result", hit ? "hit" : "miss").register(meterRegistry).increment();
+	}
+
+	/**
+	 * Requests checked against a rate limit rule, allowed or rejected with 429
+	 */
+	public void recordRateLimit(String rule, boolean allowed) {
+		Counter.builder("stayinn.ratelimit.requests").description("Rate limited requests by result").tag("rule", rule)
+				.tag("result", allowed ? "allowed" : "rejected").register(meterRegistry).increment();
+	}
+
+	/**
+	 * JDBC statements and JDBC time spent by one request, tagged by handler
+	 */
+	public void recordRequestSql(String endpoint, int statementCount, long jdbcNanos) {
+		DistributionSummary.builder("stayinn.sql.request.statements").description("SQL statements per request")
+				.tag("endpoint", endpoint).publishPercentileHistogram().register(meterRegistry).record(statementCount);
+		timer("stayinn.sql.request.time", "JDBC time per request", "endpoint", endpoint).record(jdbcNanos,
+				TimeUnit.NANOSECONDS);
+	}
+
+	private Timer timer(String name, String description, String... tags) {
+		return Timer.builder(name).description(description).tags(tags).publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,102 @@
+package com.stayinn.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-demand JFR recording for production diagnosis:
+ * POST /actuator/jfr/start (optional "settings": default|profile),
+ * POST /actuator/jfr/dump writes the recording to the temp directory,
+ * POST /actuator/jfr/stop. GET /actuator/jfr reports the current state.
+ */
+@Component
+@Endpoint(id = "jfr")
+@Slf4j
+public class JfrRecordingEndpoint {
+
+	private Recording recording;
+
+	@ReadOperation
+	public synchronized Map<String, Object> status() {
+		Map<String, Object> status = new HashMap<>();
+		status.put("recording", recording != null);
+		if (recording != null) {
+			status.put("name", recording.getName());
+			status.put("state", recording.getState().name());
+			status.put("startTime", recording.getStartTime());
+		}
+		return status;
+	}
+
+	@WriteOperation
+	public synchronized Map<String, Object> control(@Selector String action, @Nullable String settings) {
+		switch (action) {
+			case "start" -> start(settings != null ? settings : "default");
+			case "dump" -> {
+				Map<String, Object> status = status();
+				status.put("file", dump().toString());
+				return status;
+			}
+			case "stop" -> stop();
+			default -> throw new IllegalArgumentException("Unknown action: " + action);
+		}
+		return status();
+	}
+
+	private void start(String settings) {
+		if (recording != null) {
+			throw new IllegalStateException("A recording is already running");
+		}
+		try {
+			Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+			newRecording.setName("stayinn-" + Instant.now().toEpochMilli());
+			newRecording.setToDisk(true);
+			newRecording.start();
+			recording = newRecording;
+			log.info("Started JFR recording {} with settings {}", newRecording.getName(), settings);
+		} catch (IOException | ParseException e) {
+			throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+		}
+	}
+
+	private Path dump() {
+		if (recording == null) {
+			throw new IllegalStateException("No recording is running");
+		}
+		try {
+			Path file = Files.createTempFile(recording.getName() + "-", ".jfr");
+			recording.dump(file);
+			log.info("Dumped JFR recording {} to {}", recording.getName(), file);
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void stop() {
+		if (recording == null) {
+			return;
+		}
+		recording.stop();
+		recording.close();
+		log.info("Stopped JFR recording {}", recording.getName());
+		recording = null;
+	}
+}
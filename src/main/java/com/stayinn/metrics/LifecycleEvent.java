@@ -0,0 +1,25 @@
+package com.stayinn.metrics;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/**
+ * Common fields of the StayInn JFR events. The outcome stays "failure" unless
+ * succeeded() is called, so an exception path needs no extra handling.
+ */
+public abstract class LifecycleEvent extends Event {
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Outcome")
+	String outcome = BusinessMetrics.OUTCOME_FAILURE;
+
+	public void succeeded() {
+		outcome = BusinessMetrics.OUTCOME_SUCCESS;
+	}
+
+	public void finish() {
+		commit();
+	}
+}
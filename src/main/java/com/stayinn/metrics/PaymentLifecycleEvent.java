@@ -0,0 +1,38 @@
+package com.stayinn.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around payment order creation, verification and refunds,
+ * including the time spent waiting on the Razorpay gateway.
+ */
+@Name("com.stayinn.PaymentLifecycle")
+@Label("Payment Lifecycle")
+@Category({ "StayInn", "Payment" })
+@Description("Razorpay order, verify and refund operations")
+@StackTrace(false)
+public class PaymentLifecycleEvent extends LifecycleEvent {
+
+	@Label("Payment Id")
+	long paymentId;
+
+	@Label("Booking Id")
+	long bookingId;
+
+	public static PaymentLifecycleEvent begin(String operation) {
+		PaymentLifecycleEvent event = new PaymentLifecycleEvent();
+		event.operation = operation;
+		event.begin();
+		return event;
+	}
+
+	public PaymentLifecycleEvent payment(Long paymentId, Long bookingId) {
+		this.paymentId = paymentId != null ? paymentId : 0;
+		this.bookingId = bookingId != null ? bookingId : 0;
+		return this;
+	}
+}
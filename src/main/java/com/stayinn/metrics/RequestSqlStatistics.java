@@ -0,0 +1,73 @@
+package com.stayinn.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC statements issued while one HTTP request is handled: count, total time
+ * and the slowest few statements. Bound to the request thread between
+ * {@link #begin(int)} and {@link #end()}; statements run outside a request
+ * (startup jobs, schedulers) are not collected.
+ */
+public class RequestSqlStatistics {
+
+	private static final ThreadLocal<RequestSqlStatistics> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * One executed statement; parameterShape lists the bound types, never the values
+	 */
+	public record Statement(String sql, String parameterShape, long elapsedNanos) {
+	}
+
+	private final int slowestKept;
+	private final List<Statement> slowest = new ArrayList<>();
+	private int statementCount;
+	private long totalNanos;
+
+	private RequestSqlStatistics(int slowestKept) {
+		this.slowestKept = slowestKept;
+	}
+
+	public static void begin(int slowestKept) {
+		CURRENT.set(new RequestSqlStatistics(slowestKept));
+	}
+
+	public static RequestSqlStatistics current() {
+		return CURRENT.get();
+	}
+
+	public static RequestSqlStatistics end() {
+		RequestSqlStatistics statistics = CURRENT.get();
+		CURRENT.remove();
+		return statistics;
+	}
+
+	void record(String sql, String parameterShape, long elapsedNanos) {
+		statementCount++;
+		totalNanos += elapsedNanos;
+		if (slowest.size() < slowestKept) {
+			slowest.add(new Statement(sql, parameterShape, elapsedNanos));
+		} else if (slowestKept > 0 && elapsedNanos > slowest.get(slowest.size() - 1).elapsedNanos()) {
+			slowest.set(slowest.size() - 1, new Statement(sql, parameterShape, elapsedNanos));
+		} else {
+			return;
+		}
+		slowest.sort(Comparator.comparingLong(Statement::elapsedNanos).reversed());
+	}
+
+	public int getStatementCount() {
+		return statementCount;
+	}
+
+	public long getTotalNanos() {
+		return totalNanos;
+	}
+
+	/**
+	 * Slowest statements first
+	 */
+	public List<Statement> getSlowest() {
+		return slowest;
+	}
+}
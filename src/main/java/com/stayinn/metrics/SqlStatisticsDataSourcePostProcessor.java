@@ -0,0 +1,36 @@
+package com.stayinn.metrics;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy so every JDBC
+ * statement is timed by {@link SqlStatisticsListener}.
+ */
+@Component
+public class SqlStatisticsDataSourcePostProcessor implements BeanPostProcessor {
+
+	private final long slowStatementMillis;
+
+	public SqlStatisticsDataSourcePostProcessor(
+			@Value("${stayinn.sql.slow-statement-ms:200}") long slowStatementMillis) {
+		this.slowStatementMillis = slowStatementMillis;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+			return ProxyDataSourceBuilder.create(dataSource)
+					.name(beanName)
+					.listener(new SqlStatisticsListener(slowStatementMillis))
+					.build();
+		}
+		return bean;
+	}
+}
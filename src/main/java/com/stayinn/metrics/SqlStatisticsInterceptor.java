@@ -0,0 +1,82 @@
+package com.stayinn.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects {@link RequestSqlStatistics} for each controller call and reports
+ * them against the handler, e.g. VillaController.getAllVillas. Collection
+ * ends in afterCompletion, so lazy loads during JSON serialization count too.
+ * Requests over the statement-count or JDBC-time threshold are logged with
+ * their slowest statements, which is where N+1 loops show up.
+ */
+@Component
+@Slf4j
+public class SqlStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+	private final BusinessMetrics businessMetrics;
+	private final int maxStatements;
+	private final long maxJdbcNanos;
+	private final int slowestKept;
+
+	public SqlStatisticsInterceptor(BusinessMetrics businessMetrics,
+			@Value("${stayinn.sql.request.max-statements:20}") int maxStatements,
+			@Value("${stayinn.sql.request.max-jdbc-ms:500}") long maxJdbcMillis,
+			@Value("${stayinn.sql.request.slowest-kept:3}") int slowestKept) {
+		this.businessMetrics = businessMetrics;
+		this.maxStatements = maxStatements;
+		this.maxJdbcNanos = TimeUnit.MILLISECONDS.toNanos(maxJdbcMillis);
+		this.slowestKept = slowestKept;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			RequestSqlStatistics.begin(slowestKept);
+		}
+		return true;
+	}
+
+	/**
+	 * Streaming responses finish on another thread; release the request thread's
+	 * statistics here since afterCompletion is not called on it
+	 */
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		RequestSqlStatistics.end();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (!(handler instanceof HandlerMethod handlerMethod)) {
+			return;
+		}
+		RequestSqlStatistics statistics = RequestSqlStatistics.end();
+		if (statistics == null) {
+			return;
+		}
+		String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+		businessMetrics.recordRequestSql(endpoint, statistics.getStatementCount(), statistics.getTotalNanos());
+
+		if (statistics.getStatementCount() > maxStatements || statistics.getTotalNanos() > maxJdbcNanos) {
+			StringBuilder slowest = new StringBuilder();
+			for (RequestSqlStatistics.Statement statement : statistics.getSlowest()) {
+				slowest.append("\n  ").append(TimeUnit.NANOSECONDS.toMillis(statement.elapsedNanos())).append(" ms ")
+						.append(statement.sql()).append(' ').append(statement.parameterShape());
+			}
+			log.warn("{} {} issued {} SQL statements in {} ms, slowest:{}", request.getMethod(), endpoint,
+					statistics.getStatementCount(), TimeUnit.NANOSECONDS.toMillis(statistics.getTotalNanos()),
+					slowest);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.stayinn.metrics;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+/**
+ * datasource-proxy listener feeding {@link RequestSqlStatistics}. A single
+ * statement over the slow threshold is logged on its own, inside a request or
+ * not, with its SQL and parameter shape such as [Long, String(14)].
+ * <p>
+ * Statements are timed here with System.nanoTime(): datasource-proxy's own
+ * elapsed time is in whole milliseconds, so most statements would count as 0.
+ */
+@Slf4j
+public class SqlStatisticsListener implements QueryExecutionListener {
+
+	private static final int MAX_SQL_LENGTH = 500;
+	private static final String START_NANOS = SqlStatisticsListener.class.getName() + ".startNanos";
+
+	private final long slowStatementNanos;
+
+	public SqlStatisticsListener(long slowStatementMillis) {
+		this.slowStatementNanos = TimeUnit.MILLISECONDS.toNanos(slowStatementMillis);
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		execInfo.addCustomValue(START_NANOS, System.nanoTime());
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		Long startNanos = execInfo.getCustomValue(START_NANOS, Long.class);
+		long elapsedNanos = startNanos != null ? System.nanoTime() - startNanos
+				: TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+		String sql = sql(queryInfoList);
+		String parameterShape = parameterShape(queryInfoList);
+
+		RequestSqlStatistics statistics = RequestSqlStatistics.current();
+		if (statistics != null) {
+			statistics.record(sql, parameterShape, elapsedNanos);
+		}
+		if (elapsedNanos >= slowStatementNanos) {
+			log.warn("Slow SQL ({} ms) {} {}", TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql, parameterShape);
+		}
+	}
+
+	private static String sql(List<QueryInfo> queryInfoList) {
+		StringJoiner joiner = new StringJoiner("; ");
+		queryInfoList.forEach(queryInfo -> joiner.add(queryInfo.getQuery()));
+		String sql = joiner.toString();
+		return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+	}
+
+	private static String parameterShape(List<QueryInfo> queryInfoList) {
+		if (queryInfoList.isEmpty() || queryInfoList.get(0).getParametersList().isEmpty()) {
+			return "[]";
+		}
+		List<List<ParameterSetOperation>> parametersList = queryInfoList.get(0).getParametersList();
+		StringJoiner joiner = new StringJoiner(", ", "[", "]");
+		for (ParameterSetOperation operation : parametersList.get(0)) {
+			joiner.add(shape(operation));
+		}
+		// Batched statements: same shape for every row, report how many rows
+		return parametersList.size() > 1 ? joiner + " x " + parametersList.size() : joiner.toString();
+	}
+
+	private static String shape(ParameterSetOperation operation) {
+		String type = operation.getMethod().getName().replaceFirst("^set", "");
+		Object[] args = operation.getArgs();
+		if (args.length > 1 && args[1] instanceof String value) {
+			return type + "(" + value.length() + ")";
+		}
+		return type;
+	}
+}
@@ -0,0 +1,81 @@
+package com.stayinn.money;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * An amount of money in INR, held as a whole number of paise so sums and
+ * comparisons are exact. Stored as BIGINT paise (see {@link MoneyConverter})
+ * and written to JSON as a rupee decimal, e.g. 12500.50, so the API keeps
+ * its number format.
+ */
+public record Money(long paise) implements Comparable<Money>, Serializable {
+
+	public static final Money ZERO = new Money(0);
+
+	public static Money ofPaise(long paise) {
+		return paise == 0 ? ZERO : new Money(paise);
+	}
+
+	/**
+	 * Rupees to the nearest paisa (half up)
+	 */
+	@JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+	public static Money of(BigDecimal rupees) {
+		return ofPaise(rupees.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+	}
+
+	/**
+	 * Parses a rupee amount such as "12500" or "12500.50" (request parameters, CSV)
+	 */
+	public static Money valueOf(String rupees) {
+		return of(new BigDecimal(rupees.trim()));
+	}
+
+	public Money plus(Money other) {
+		return ofPaise(Math.addExact(paise, other.paise));
+	}
+
+	public Money minus(Money other) {
+		return ofPaise(Math.subtractExact(paise, other.paise));
+	}
+
+	public Money times(long factor) {
+		return ofPaise(Math.multiplyExact(paise, factor));
+	}
+
+	/**
+	 * Share of this amount, rounded half up to the paisa (e.g. an average)
+	 */
+	public Money dividedBy(long divisor) {
+		return ofPaise(BigDecimal.valueOf(paise).divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+				.longValueExact());
+	}
+
+	public boolean isPositive() {
+		return paise > 0;
+	}
+
+	public boolean isGreaterThan(Money other) {
+		return paise > other.paise;
+	}
+
+	@JsonValue
+	public BigDecimal toRupees() {
+		return BigDecimal.valueOf(paise, 2);
+	}
+
+	@Override
+	public int compareTo(Money other) {
+		return Long.compare(paise, other.paise);
+	}
+
+	@Override
+	public String toString() {
+		return toRupees().toPlainString();
+	}
+}
@@ -0,0 +1,21 @@
+package com.stayinn.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Maps every {@link Money} attribute to a BIGINT column of paise
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+	@Override
+	public Long convertToDatabaseColumn(Money money) {
+		return money != null ? money.paise() : null;
+	}
+
+	@Override
+	public Money convertToEntityAttribute(Long paise) {
+		return paise != null ? Money.ofPaise(paise) : null;
+	}
+}
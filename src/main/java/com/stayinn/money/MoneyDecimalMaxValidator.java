@@ -0,0 +1,32 @@
+package com.stayinn.money;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMax;
+
+/**
+ * Lets DTOs keep {@code @DecimalMax} on {@link Money} fields; registered with
+ * Hibernate Validator through META-INF/services
+ */
+public class MoneyDecimalMaxValidator implements ConstraintValidator<DecimalMax, Money> {
+
+	private BigDecimal max;
+	private boolean inclusive;
+
+	@Override
+	public void initialize(DecimalMax constraint) {
+		max = new BigDecimal(constraint.value());
+		inclusive = constraint.inclusive();
+	}
+
+	@Override
+	public boolean isValid(Money value, ConstraintValidatorContext context) {
+		if (value == null) {
+			return true;
+		}
+		int comparison = value.toRupees().compareTo(max);
+		return inclusive ? comparison <= 0 : comparison < 0;
+	}
+}
@@ -0,0 +1,32 @@
+package com.stayinn.money;
+
+import java.math.BigDecimal;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.DecimalMin;
+
+/**
+ * Lets DTOs keep {@code @DecimalMin} on {@link Money} fields; registered with
+ * Hibernate Validator through META-INF/services
+ */
+public class MoneyDecimalMinValidator implements ConstraintValidator<DecimalMin, Money> {
+
+	private BigDecimal min;
+	private boolean inclusive;
+
+	@Override
+	public void initialize(DecimalMin constraint) {
+		min = new BigDecimal(constraint.value());
+		inclusive = constraint.inclusive();
+	}
+
+	@Override
+	public boolean isValid(Money value, ConstraintValidatorContext context) {
+		if (value == null) {
+			return true;
+		}
+		int comparison = value.toRupees().compareTo(min);
+		return inclusive ? comparison >= 0 : comparison > 0;
+	}
+}
@@ -2,14 +2,22 @@ package com.stayinn.repository;
 
 import com.stayinn.entities.Booking;
 import com.stayinn.entities.BookingStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -62,6 +70,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "WHERE b.id = :bookingId")
     Optional<Booking> findByIdWithDetails(@Param("bookingId") Long bookingId);
     
+    /**
+     * Find bookings by ids with user, villa and payment in the same query
+     */
+    @EntityGraph(attributePaths = {"user", "villa", "payment"})
+    List<Booking> findAllWithDetailsByIdIn(Collection<Long> ids);
+    
     /**
      * Find upcoming bookings for a user (check-in date in future)
      */
@@ -74,6 +88,21 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("currentDate") LocalDate currentDate
     );
     
+    /**
+     * First upcoming bookings of a user as id, villa id, villa name, check-in, check-out, status;
+     * profile previews, read from the (user_id, check_in_date) index without loading entities
+     */
+    @Query("SELECT b.id, v.id, v.name, b.checkInDate, b.checkOutDate, b.status FROM Booking b JOIN b.villa v " +
+           "WHERE b.user.id = :userId " +
+           "AND b.checkInDate > :currentDate " +
+           "AND b.status = 'CONFIRMED' " +
+           "ORDER BY b.checkInDate ASC")
+    List<Object[]> findUpcomingBookingPreviews(
+            @Param("userId") Long userId,
+            @Param("currentDate") LocalDate currentDate,
+            Limit limit
+    );
+    
     /**
      * Find past bookings for a user (check-out date in past)
      */
@@ -98,11 +127,14 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     );
     
     /**
-     * Find all bookings for a villa in a date range
+     * Find all bookings for a villa with a night between startDate and endDate (inclusive),
+     * including stays that start before or end after the range
      */
-    @Query("SELECT b FROM Booking b WHERE b.villa.id = :villaId " +
-           "AND b.checkInDate >= :startDate " +
-           "AND b.checkOutDate <= :endDate " +
+    @Query("SELECT b FROM Booking b " +
+           "JOIN FETCH b.user " +
+           "WHERE b.villa.id = :villaId " +
+           "AND b.checkInDate <= :endDate " +
+           "AND b.checkOutDate > :startDate " +
            "ORDER BY b.checkInDate ASC")
     List<Booking> findVillaBookingsInDateRange(
             @Param("villaId") Long villaId,
@@ -110,6 +142,20 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("endDate") LocalDate endDate
     );
     
+    /**
+     * Check-in and check-out of every PENDING or CONFIRMED stay of a villa with a night
+     * between startDate and endDate (inclusive); the villa's occupied nights
+     */
+    @Query("SELECT b.checkInDate, b.checkOutDate FROM Booking b WHERE b.villa.id = :villaId " +
+           "AND b.status IN ('PENDING', 'CONFIRMED') " +
+           "AND b.checkInDate <= :endDate " +
+           "AND b.checkOutDate > :startDate")
+    List<Object[]> findOccupiedStays(
+            @Param("villaId") Long villaId,
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+    
     /**
      * Count total bookings by user
      */
@@ -125,6 +171,21 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
      */
     long countByStatus(BookingStatus status);
     
+    /**
+     * Count bookings of a villa grouped by status (one row per status present)
+     */
+    @Query("SELECT b.status, COUNT(b) FROM Booking b WHERE b.villa.id = :villaId " +
+           "GROUP BY b.status")
+    List<Object[]> countByVillaIdGroupByStatus(@Param("villaId") Long villaId);
+    
+    /**
+     * Booking count and total price in paise per status across all bookings (one row per status present).
+     * Native so the sum stays a plain number instead of going through the Money converter.
+     */
+    @Query(value = "SELECT b.status, COUNT(*), SUM(b.total_price) FROM bookings b GROUP BY b.status",
+           nativeQuery = true)
+    List<Object[]> summarizeByStatus();
+    
     /**
      * Check if user has already booked this villa (for rating validation)
      */
@@ -132,4 +193,20 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
            "AND b.villa.id = :villaId " +
            "AND b.status = 'CONFIRMED'")
     boolean hasUserBookedVilla(@Param("userId") Long userId, @Param("villaId") Long villaId);
-}
\ No newline at end of file
+    
+    /**
+     * All bookings with user, villa and payment for streaming exports
+     * (must be consumed inside a transaction and closed)
+     */
+    @Query("SELECT b FROM Booking b " +
+           "JOIN FETCH b.user " +
+           "JOIN FETCH b.villa " +
+           "LEFT JOIN FETCH b.payment " +
+           "ORDER BY b.id")
+    @QueryHints({
+            // MySQL Connector/J only streams rows (instead of buffering the whole result) for Integer.MIN_VALUE
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Booking> streamAllForExport();
+}
@@ -0,0 +1,89 @@
+package com.stayinn.repository;
+
+import com.stayinn.entities.DailyRevenue;
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+@Repository
+public interface DailyRevenueRepository extends JpaRepository<DailyRevenue, Long> {
+    
+    /**
+     * Add deltas to a rollup bucket, creating it on first use.
+     * A single statement, so concurrent payments on the same day cannot lose updates.
+     * Native statements declare the table they write, otherwise Hibernate would clear
+     * the whole second-level cache after each one.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_revenue"))
+    @Query(value = "INSERT INTO daily_revenue (revenue_date, payment_gateway, payment_method, " +
+           "completed_count, completed_paise, refunded_count, refunded_paise, creation_time, updation_time) " +
+           "VALUES (:revenueDate, :gateway, :method, :completedCount, :completedPaise, " +
+           ":refundedCount, :refundedPaise, NOW(), NOW()) " +
+           "ON DUPLICATE KEY UPDATE " +
+           "completed_count = completed_count + VALUES(completed_count), " +
+           "completed_paise = completed_paise + VALUES(completed_paise), " +
+           "refunded_count = refunded_count + VALUES(refunded_count), " +
+           "refunded_paise = refunded_paise + VALUES(refunded_paise), " +
+           "updation_time = NOW()",
+           nativeQuery = true)
+    int addToBucket(
+            @Param("revenueDate") LocalDate revenueDate,
+            @Param("gateway") String gateway,
+            @Param("method") String method,
+            @Param("completedCount") long completedCount,
+            @Param("completedPaise") long completedPaise,
+            @Param("refundedCount") long refundedCount,
+            @Param("refundedPaise") long refundedPaise
+    );
+    
+    /**
+     * Drop all rollup rows (before a rebuild)
+     */
+    @Modifying
+    @Query("DELETE FROM DailyRevenue")
+    int deleteAllBuckets();
+    
+    /**
+     * Rebuild every rollup row from the payments table
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "daily_revenue"))
+    @Query(value = "INSERT INTO daily_revenue (revenue_date, payment_gateway, payment_method, " +
+           "completed_count, completed_paise, refunded_count, refunded_paise, creation_time, updation_time) " +
+           "SELECT p.payment_date, COALESCE(p.payment_gateway, :unknown), COALESCE(p.payment_method, :unknown), " +
+           "SUM(CASE WHEN p.status = 'COMPLETED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.status = 'COMPLETED' THEN p.amount ELSE 0 END), " +
+           "SUM(CASE WHEN p.status = 'REFUNDED' THEN 1 ELSE 0 END), " +
+           "SUM(CASE WHEN p.status = 'REFUNDED' THEN p.amount ELSE 0 END), " +
+           "NOW(), NOW() " +
+           "FROM payments p " +
+           "WHERE p.status IN ('COMPLETED', 'REFUNDED') AND p.payment_date IS NOT NULL AND p.amount IS NOT NULL " +
+           "GROUP BY p.payment_date, COALESCE(p.payment_gateway, :unknown), COALESCE(p.payment_method, :unknown)",
+           nativeQuery = true)
+    int rebuildFromPayments(@Param("unknown") String unknown);
+    
+    /**
+     * Total revenue of completed payments, in paise
+     */
+    @Query("SELECT SUM(d.completedPaise) FROM DailyRevenue d")
+    Long sumCompletedPaise();
+    
+    /**
+     * Revenue of completed payments with a payment date in the range (inclusive), in paise
+     */
+    @Query("SELECT SUM(d.completedPaise) FROM DailyRevenue d " +
+           "WHERE d.revenueDate BETWEEN :startDate AND :endDate")
+    Long sumCompletedPaiseBetween(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
+    );
+}
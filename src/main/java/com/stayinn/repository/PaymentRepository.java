@@ -2,14 +2,20 @@ package com.stayinn.repository;
 
 import com.stayinn.entities.Payment;
 import com.stayinn.entities.PaymentStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
@@ -82,23 +88,6 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
            "ORDER BY p.paymentDate DESC")
     List<Payment> findFailedPayments();
     
-    /**
-     * Calculate total revenue (sum of completed payments)
-     */
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.status = 'COMPLETED'")
-    Double calculateTotalRevenue();
-    
-    /**
-     * Calculate revenue in date range
-     */
-    @Query("SELECT SUM(p.amount) FROM Payment p " +
-           "WHERE p.status = 'COMPLETED' " +
-           "AND p.paymentDate BETWEEN :startDate AND :endDate")
-    Double calculateRevenueInDateRange(
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate
-    );
-    
     /**
      * Count payments by status
      */
@@ -123,4 +112,38 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
            "WHERE p.status = 'COMPLETED' " +
            "GROUP BY p.paymentMethod")
     List<Object[]> getPaymentMethodDistribution();
-}
\ No newline at end of file
+    
+    /**
+     * All payments with their booking for streaming exports
+     * (must be consumed inside a transaction and closed)
+     */
+    @Query("SELECT p FROM Payment p " +
+           "JOIN FETCH p.booking b " +
+           "JOIN FETCH b.user " +
+           "JOIN FETCH b.villa " +
+           "ORDER BY p.id")
+    @QueryHints({
+            // MySQL Connector/J only streams rows (instead of buffering the whole result) for Integer.MIN_VALUE
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Payment> streamAllForExport();
+    
+    /**
+     * Analytics columns of every payment: id, amount, status, method, payment date, updated at
+     * (must be consumed inside a transaction and closed)
+     */
+    @Query("SELECT p.id, p.amount, p.status, p.paymentMethod, p.paymentDate, p.updatedAt FROM Payment p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Object[]> streamAnalyticsRows();
+    
+    /**
+     * Analytics columns (as in streamAnalyticsRows) of payments changed at or after the given time
+     */
+    @Query("SELECT p.id, p.amount, p.status, p.paymentMethod, p.paymentDate, p.updatedAt FROM Payment p " +
+           "WHERE p.updatedAt >= :since")
+    List<Object[]> findAnalyticsRowsUpdatedSince(@Param("since") LocalDateTime since);
+}
@@ -5,14 +5,21 @@ package com.stayinn.repository;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.stayinn.entities.Rating;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Long> {
     
@@ -57,6 +64,15 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
      */
     List<Rating> findByVillaIdAndScore(Long villaId, Integer score);
     
+    /**
+     * Number of ratings of a villa and the latest change to them or to the user
+     * and villa names they show: the villa ratings' conditional GET version
+     * (see CatalogueVersionTracker). One row.
+     */
+    @Query("SELECT COUNT(r), MAX(r.updatedAt), MAX(u.updatedAt), MAX(v.updatedAt) FROM Rating r " +
+           "JOIN r.user u JOIN r.villa v WHERE v.id = :villaId")
+    List<Object[]> findRatingsStamp(@Param("villaId") Long villaId);
+    
     /**
      * Find rating with user and villa details (eager loading)
      */
@@ -66,6 +82,14 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
            "WHERE r.id = :ratingId")
     Optional<Rating> findByIdWithDetails(@Param("ratingId") Long ratingId);
     
+    /**
+     * Find rating and lock its row until the transaction ends (SELECT ... FOR UPDATE),
+     * so concurrent updates of one rating read each other's score
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.id = :ratingId")
+    Optional<Rating> findByIdForUpdate(@Param("ratingId") Long ratingId);
+    
     /**
      * Find ratings in a date range
      */
@@ -125,4 +149,19 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     @Query("SELECT r FROM Rating r WHERE r.ratingDate >= :date " +
            "ORDER BY r.ratingDate DESC")
     List<Rating> findRecentRatings(@Param("date") LocalDate date);
+    
+    /**
+     * All ratings with user and villa for streaming exports
+     * (must be consumed inside a transaction and closed)
+     */
+    @Query("SELECT r FROM Rating r " +
+           "JOIN FETCH r.user " +
+           "JOIN FETCH r.villa " +
+           "ORDER BY r.id")
+    @QueryHints({
+            // MySQL Connector/J only streams rows (instead of buffering the whole result) for Integer.MIN_VALUE
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Rating> streamAllForExport();
 }
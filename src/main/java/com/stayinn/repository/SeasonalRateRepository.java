@@ -0,0 +1,26 @@
+package com.stayinn.repository;
+
+import com.stayinn.entities.SeasonalRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SeasonalRateRepository extends JpaRepository<SeasonalRate, Long> {
+    
+    /**
+     * Seasons of a villa, earliest first (later seasons win where they overlap)
+     */
+    List<SeasonalRate> findByVillaIdOrderByStartDateAscIdAsc(Long villaId);
+    
+    /**
+     * Remove all seasons of a villa
+     */
+    @Modifying
+    @Query("DELETE FROM SeasonalRate s WHERE s.villa.id = :villaId")
+    int deleteByVillaId(@Param("villaId") Long villaId);
+}
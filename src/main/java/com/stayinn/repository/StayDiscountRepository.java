@@ -0,0 +1,26 @@
+package com.stayinn.repository;
+
+import com.stayinn.entities.StayDiscount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface StayDiscountRepository extends JpaRepository<StayDiscount, Long> {
+    
+    /**
+     * Length-of-stay discounts of a villa, shortest stay first
+     */
+    List<StayDiscount> findByVillaIdOrderByMinNightsAsc(Long villaId);
+    
+    /**
+     * Remove all length-of-stay discounts of a villa
+     */
+    @Modifying
+    @Query("DELETE FROM StayDiscount d WHERE d.villa.id = :villaId")
+    int deleteByVillaId(@Param("villaId") Long villaId);
+}
@@ -2,20 +2,27 @@ package com.stayinn.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.stayinn.entities.Role;
 import com.stayinn.entities.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByEmail(String email);
     
+    // Registration and login checks; cached in the query cache until the users table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
     
     List<User> findByRole(Role role);
@@ -24,6 +31,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     List<User> findByNameContainingIgnoreCase(String name);
     
+    /**
+     * Profile of a user in one query, counts included instead of loading the collections:
+     * email, name, mobile, role, active, booking count, rating count (no row if the user does not exist)
+     */
+    @Query("SELECT u.email, u.name, u.mobile, u.role, u.active, " +
+           "(SELECT COUNT(b) FROM Booking b WHERE b.user = u), " +
+           "(SELECT COUNT(r) FROM Rating r WHERE r.user = u) " +
+           "FROM User u WHERE u.id = :userId")
+    List<Object[]> findProfileRow(@Param("userId") Long userId);
+    
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.bookings WHERE u.id = :userId")
     Optional<User> findByIdWithBookings(@Param("userId") Long userId);
     
@@ -31,4 +48,15 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByIdWithRatings(@Param("userId") Long userId);
     
     long countByRole(Role role);
-}
\ No newline at end of file
+    
+    /**
+     * All users for streaming exports (must be consumed inside a transaction and closed)
+     */
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    @QueryHints({
+            // MySQL Connector/J only streams rows (instead of buffering the whole result) for Integer.MIN_VALUE
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<User> streamAllForExport();
+}
@@ -1,31 +1,61 @@
 package com.stayinn.repository;
 
+import com.stayinn.dto.Villa.VillaSummaryDTO;
 import com.stayinn.entities.Villa;
+import com.stayinn.money.Money;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface VillaRepository extends JpaRepository<Villa, Long> {
 
+	// Listing/detail finders fetch imageUrls through an entity graph; everything
+	// else (booking, payment, rating flows) gets the villa row without images
+
 	@EntityGraph(attributePaths = { "imageUrls" })
 	List<Villa> findAll();
 
+	@EntityGraph(attributePaths = { "imageUrls" })
+	Optional<Villa> findWithImagesById(Long id);
+
+	/**
+	 * Listing cards in one query. The image table has no order column, so the
+	 * primary image is the smallest URL: stable across loads, no gallery fetched
+	 */
+	@Query("""
+			SELECT new com.stayinn.dto.Villa.VillaSummaryDTO(v.id, v.name, v.address, v.pricePerNight,
+				(SELECT MIN(i) FROM Villa iv JOIN iv.imageUrls i WHERE iv.id = v.id),
+				v.ratingCount, v.ratingSum, v.weightedRating)
+			FROM Villa v
+			ORDER BY v.id
+			""")
+	List<VillaSummaryDTO> findAllSummaries();
+
 	List<Villa> findByNameContainingIgnoreCase(String name);
 
+	@EntityGraph(attributePaths = { "imageUrls" })
 	List<Villa> findByAddressContainingIgnoreCase(String address);
 
-	List<Villa> findByPricePerNightBetween(Double minPrice, Double maxPrice);
+	@EntityGraph(attributePaths = { "imageUrls" })
+	List<Villa> findByPricePerNightBetween(Money minPrice, Money maxPrice);
 
-	List<Villa> findByPricePerNightLessThanEqual(Double maxPrice);
+	List<Villa> findByPricePerNightLessThanEqual(Money maxPrice);
 
-	List<Villa> findByPricePerNightGreaterThanEqual(Double minPrice);
+	List<Villa> findByPricePerNightGreaterThanEqual(Money minPrice);
 
 //    @Query("SELECT v FROM Villa v LEFT JOIN FETCH v.ratings WHERE v.id = :villaId")
 //    Optional<Villa> findByIdWithRatings(@Param("villaId") Long villaId);
@@ -38,25 +68,72 @@ public interface VillaRepository extends JpaRepository<Villa, Long> {
 			""")
 	Optional<Villa> findByIdWithRatings(@Param("villaId") Long villaId);
 
+	@EntityGraph(attributePaths = { "imageUrls" })
 	@Query("SELECT v FROM Villa v WHERE " + "LOWER(v.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR "
 			+ "LOWER(v.address) LIKE LOWER(CONCAT('%', :keyword, '%'))")
 	List<Villa> searchVillas(@Param("keyword") String keyword);
 
+	@EntityGraph(attributePaths = { "imageUrls" })
 	List<Villa> findAllByOrderByPricePerNightAsc();
 
+	@EntityGraph(attributePaths = { "imageUrls" })
 	List<Villa> findAllByOrderByPricePerNightDesc();
 
+	@EntityGraph(attributePaths = { "imageUrls" })
 	@Query("SELECT v FROM Villa v WHERE " + "(:name IS NULL OR LOWER(v.name) LIKE LOWER(CONCAT('%', :name, '%'))) AND "
 			+ "(:address IS NULL OR LOWER(v.address) LIKE LOWER(CONCAT('%', :address, '%'))) AND "
 			+ "(:minPrice IS NULL OR v.pricePerNight >= :minPrice) AND "
 			+ "(:maxPrice IS NULL OR v.pricePerNight <= :maxPrice)")
 	List<Villa> findVillasWithFilters(@Param("name") String name, @Param("address") String address,
-			@Param("minPrice") Double minPrice, @Param("maxPrice") Double maxPrice);
+			@Param("minPrice") Money minPrice, @Param("maxPrice") Money maxPrice);
 
-	long countByPricePerNightBetween(Double minPrice, Double maxPrice);
+	long countByPricePerNightBetween(Money minPrice, Money maxPrice);
 
+	// Cached in the query cache until the villas table changes
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	boolean existsByName(String name);
 
-	@Query("SELECT v FROM Villa v LEFT JOIN v.ratings r " + "GROUP BY v.id " + "ORDER BY AVG(r.score) DESC")
-	List<Villa> findTopRatedVillas();
+	@EntityGraph(attributePaths = { "imageUrls" })
+	List<Villa> findAllWithImagesByIdIn(Collection<Long> ids);
+
+	/**
+	 * Every villa name, loaded once per bulk import for in-memory duplicate checks
+	 */
+	@Query("SELECT v.name FROM Villa v")
+	List<String> findAllNames();
+
+	@EntityGraph(attributePaths = { "imageUrls" })
+	List<Villa> findAllByOrderByWeightedRatingDesc();
+
+	/**
+	 * Number of villas and latest villa change: the catalogue's conditional GET
+	 * version (see CatalogueVersionTracker). One row.
+	 */
+	@Query("SELECT COUNT(v), MAX(v.updatedAt) FROM Villa v")
+	List<Object[]> findCatalogueStamp();
+
+	@Query("SELECT v.updatedAt FROM Villa v WHERE v.id = :villaId")
+	Optional<LocalDateTime> findUpdatedAtById(@Param("villaId") Long villaId);
+
+	// Bulk updates bypass @UpdateTimestamp, so they set updatedAt themselves:
+	// it is what conditional GETs compare against
+
+	/**
+	 * Rebuild the running rating totals of every villa from the ratings table
+	 */
+	@Modifying
+	@Query("UPDATE Villa v SET "
+			+ "v.ratingCount = (SELECT COUNT(r) FROM Rating r WHERE r.villa.id = v.id), "
+			+ "v.ratingSum = (SELECT COALESCE(SUM(r.score), 0) FROM Rating r WHERE r.villa.id = v.id), "
+			+ "v.updatedAt = :now")
+	int recalculateRatingTotals(@Param("now") LocalDateTime now);
+
+	/**
+	 * Re-derive the weighted score of every villa from its running totals
+	 */
+	@Modifying
+	@Query("UPDATE Villa v SET v.weightedRating = (:priorTotal + v.ratingSum) / (:priorWeight + v.ratingCount), "
+			+ "v.updatedAt = :now")
+	int recalculateWeightedRatings(@Param("priorTotal") double priorTotal, @Param("priorWeight") double priorWeight,
+			@Param("now") LocalDateTime now);
 }
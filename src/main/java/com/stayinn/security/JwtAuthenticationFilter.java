@@ -11,42 +11,67 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.stayinn.metrics.BusinessMetrics;
+
+import io.micrometer.core.instrument.Timer;
+
 import java.io.IOException;
 import java.util.List;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+	// Browser EventSource cannot set headers, so SSE streams also take the token here
+	private static final String STREAM_TOKEN_PARAM = "access_token";
+	private static final String STREAM_PATH_SUFFIX = "/stream";
+
 	private final JwtUtil jwtUtil;
+	private final BusinessMetrics businessMetrics;
 
-	public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+	public JwtAuthenticationFilter(JwtUtil jwtUtil, BusinessMetrics businessMetrics) {
 		this.jwtUtil = jwtUtil;
+		this.businessMetrics = businessMetrics;
 	}
 
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
 
-		String authHeader = request.getHeader("Authorization");
-//		System.out.println("Authorization Header: " + authHeader);
-
-		if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-			filterChain.doFilter(request, response);
-			return;
-		}
-
-		String token = authHeader.substring(7);
+		Timer.Sample sample = businessMetrics.start();
+		String outcome = "error";
+		try {
+			String token = bearerToken(request);
+			if (token == null || token.isBlank()) {
+				outcome = "anonymous";
+			} else if (jwtUtil.isTokenValid(token)) {
+				String email = jwtUtil.extractEmail(token);
+				String role = jwtUtil.extractRole(token);
 
-		if (jwtUtil.isTokenValid(token)) {
-			String email = jwtUtil.extractEmail(token);
-			String role = jwtUtil.extractRole(token);
+				UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(email,
+						null, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
 
-			UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(email, null,
-					List.of(new SimpleGrantedAuthority("ROLE_" + role)));
-
-			SecurityContextHolder.getContext().setAuthentication(authentication);
+				SecurityContextHolder.getContext().setAuthentication(authentication);
+				outcome = "authenticated";
+			} else {
+				outcome = "rejected";
+			}
+		} finally {
+			// Only the token handling is timed, not the rest of the chain
+			businessMetrics.recordJwtFilter(sample, outcome);
 		}
 
 		filterChain.doFilter(request, response);
 	}
+
+	private static String bearerToken(HttpServletRequest request) {
+		String authHeader = request.getHeader("Authorization");
+//		System.out.println("Authorization Header: " + authHeader);
+		if (authHeader != null && authHeader.startsWith("Bearer ")) {
+			return authHeader.substring(7);
+		}
+		if ("GET".equals(request.getMethod()) && request.getRequestURI().endsWith(STREAM_PATH_SUFFIX)) {
+			return request.getParameter(STREAM_TOKEN_PARAM);
+		}
+		return null;
+	}
 }
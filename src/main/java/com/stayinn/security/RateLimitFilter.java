@@ -0,0 +1,265 @@
+package com.stayinn.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.metrics.BusinessMetrics;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client rate limits, applied after JwtAuthenticationFilter so an
+ * authenticated caller is limited by email and anyone else by client IP.
+ * Each request is checked against the first matching rule of
+ * stayinn.rate-limit.rules; over the limit it gets 429 with Retry-After.
+ * <p>
+ * Buckets are GCRA token buckets: one atomic "theoretical arrival time" per
+ * client and rule, updated with a CAS, so the hot path takes no locks. A
+ * bucket that has fully refilled holds no state worth keeping, so when the
+ * map grows past its bound those are dropped first, then the least recently
+ * active ones. That pass runs on rateLimitEvictionExecutor, not on the
+ * request that crossed the bound.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private final boolean enabled;
+	private final List<Rule> rules;
+	private final int maxBuckets;
+	private final BusinessMetrics businessMetrics;
+	private final ObjectMapper objectMapper;
+	private final Executor evictionExecutor;
+	private final LongSupplier nanoClock;
+
+	private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+	private final AtomicBoolean evicting = new AtomicBoolean();
+
+	public RateLimitFilter(BusinessMetrics businessMetrics, ObjectMapper objectMapper,
+			@Qualifier("rateLimitEvictionExecutor") Executor evictionExecutor,
+			@Value("${stayinn.rate-limit.enabled:true}") boolean enabled,
+			@Value("${stayinn.rate-limit.rules:}") List<String> rules,
+			@Value("${stayinn.rate-limit.max-buckets:100000}") int maxBuckets) {
+		this(businessMetrics, objectMapper, evictionExecutor, enabled, rules, maxBuckets, System::nanoTime);
+	}
+
+	RateLimitFilter(BusinessMetrics businessMetrics, ObjectMapper objectMapper, Executor evictionExecutor,
+			boolean enabled, List<String> rules, int maxBuckets, LongSupplier nanoClock) {
+		this.businessMetrics = businessMetrics;
+		this.objectMapper = objectMapper;
+		this.evictionExecutor = evictionExecutor;
+		this.nanoClock = nanoClock;
+		this.enabled = enabled;
+		this.rules = new ArrayList<>();
+		for (String rule : rules) {
+			if (!rule.isBlank()) {
+				this.rules.add(Rule.parse(rule.trim()));
+			}
+		}
+		this.maxBuckets = maxBuckets;
+		log.info("Rate limit rules: {}", this.rules.stream().map(Rule::describe).toList());
+	}
+
+	/**
+	 * "METHOD /path/pattern=CAPACITY/PERIOD", e.g. "GET /api/villas/search=60/1m";
+	 * METHOD may be * for any. CAPACITY requests are allowed as a burst, refilled
+	 * evenly over PERIOD.
+	 */
+	record Rule(String name, String method, PathPattern pattern, int capacity, long intervalNanos,
+			long toleranceNanos) {
+
+		static Rule parse(String spec) {
+			int equals = spec.lastIndexOf('=');
+			String[] route = spec.substring(0, Math.max(equals, 0)).trim().split("\\s+");
+			String[] limit = spec.substring(equals + 1).trim().split("/", 2);
+			if (equals < 0 || route.length != 2 || limit.length != 2) {
+				throw new IllegalArgumentException("Invalid rate limit rule '" + spec
+						+ "', expected METHOD /path=CAPACITY/PERIOD");
+			}
+			int capacity = Integer.parseInt(limit[0].trim());
+			Duration period = DurationStyle.detectAndParse(limit[1].trim());
+			if (capacity <= 0 || period.isNegative() || period.isZero()) {
+				throw new IllegalArgumentException("Invalid rate limit rule '" + spec
+						+ "', capacity and period must be positive");
+			}
+			long interval = period.toNanos() / capacity;
+			String method = route[0].equals("*") ? null : route[0].toUpperCase();
+			return new Rule(route[0] + " " + route[1], method, PathPatternParser.defaultInstance.parse(route[1]),
+					capacity, interval, interval * (capacity - 1));
+		}
+
+		boolean matches(String requestMethod, PathContainer path) {
+			return (method == null || method.equals(requestMethod)) && pattern.matches(path);
+		}
+
+		String describe() {
+			return name + "=" + capacity + "/" + Duration.ofNanos(intervalNanos * capacity);
+		}
+	}
+
+	private record BucketKey(int rule, String client) {
+	}
+
+	/**
+	 * Generic cell rate algorithm: a request is allowed while the theoretical
+	 * arrival time is at most the burst tolerance ahead of now, and pushes it one
+	 * interval further
+	 */
+	private static final class TokenBucket {
+
+		private final AtomicLong theoreticalArrival;
+
+		private TokenBucket(long now) {
+			this.theoreticalArrival = new AtomicLong(now);
+		}
+
+		/**
+		 * @return 0 if allowed, else nanoseconds until a request would be
+		 */
+		long tryAcquire(long now, Rule rule) {
+			while (true) {
+				long arrival = theoreticalArrival.get();
+				long allowedAt = arrival - rule.toleranceNanos();
+				if (now - allowedAt < 0) {
+					return allowedAt - now;
+				}
+				long next = (now - arrival > 0 ? now : arrival) + rule.intervalNanos();
+				if (theoreticalArrival.compareAndSet(arrival, next)) {
+					return 0;
+				}
+			}
+		}
+
+		boolean isFull(long now) {
+			return now - theoreticalArrival.get() >= 0;
+		}
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || rules.isEmpty();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+
+		PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+		int ruleIndex = -1;
+		for (int i = 0; i < rules.size(); i++) {
+			if (rules.get(i).matches(request.getMethod(), path)) {
+				ruleIndex = i;
+				break;
+			}
+		}
+		if (ruleIndex < 0) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		Rule rule = rules.get(ruleIndex);
+
+		long now = nanoClock.getAsLong();
+		BucketKey key = new BucketKey(ruleIndex, clientKey(request));
+		TokenBucket bucket = buckets.get(key);
+		boolean created = false;
+		if (bucket == null) {
+			TokenBucket fresh = new TokenBucket(now);
+			bucket = buckets.putIfAbsent(key, fresh);
+			if (bucket == null) {
+				bucket = fresh;
+				created = true;
+			}
+		}
+
+		long waitNanos = bucket.tryAcquire(now, rule);
+		// After the acquire: a new bucket is no longer "full", so the pass does not drop it
+		if (created && buckets.size() > maxBuckets) {
+			scheduleEviction();
+		}
+		businessMetrics.recordRateLimit(rule.name(), waitNanos == 0);
+		if (waitNanos == 0) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(),
+				ApiEnvelope.failure("Too many requests, retry in " + retryAfter + " s"));
+	}
+
+	private static String clientKey(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+
+	/**
+	 * At most one pass queued or running; requests never wait for it
+	 */
+	private void scheduleEviction() {
+		if (!evicting.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			evictionExecutor.execute(this::evict);
+		} catch (TaskRejectedException e) {
+			evicting.set(false);
+		}
+	}
+
+	private void evict() {
+		try {
+			long now = nanoClock.getAsLong();
+			buckets.values().removeIf(bucket -> bucket.isFull(now));
+			int excess = buckets.size() - maxBuckets * 9 / 10;
+			if (excess > 0) {
+				buckets.entrySet().stream()
+						.sorted(Comparator.comparingLong(entry -> entry.getValue().theoreticalArrival.get() - now))
+						.limit(excess)
+						.map(Map.Entry::getKey)
+						.toList()
+						.forEach(buckets::remove);
+			}
+		} finally {
+			evicting.set(false);
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package com.stayinn.service;
+
+import com.stayinn.dto.Admin.AdminDashboardDTO;
+
+public interface AdminDashboardService {
+
+    /**
+     * Get all admin dashboard figures in one call (Admin only).
+     * The result is cached for a few seconds, see generatedAt.
+     * @return dashboard aggregates
+     */
+    AdminDashboardDTO getDashboard();
+}
@@ -0,0 +1,101 @@
+package com.stayinn.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.stayinn.dto.Admin.AdminDashboardDTO;
+import com.stayinn.dto.Booking.BookingSummaryDTO;
+import com.stayinn.entities.Role;
+import com.stayinn.metrics.BusinessMetrics;
+import com.stayinn.money.Money;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the admin dashboard by running the per-area aggregates in parallel on
+ * the bounded dashboardExecutor (each in its own read-only transaction), then
+ * keeps the result for a short TTL so refreshing admins share one computation.
+ */
+@Service
+@Slf4j
+public class AdminDashboardServiceImpl implements AdminDashboardService {
+
+	private record Cached(AdminDashboardDTO dashboard, long expiresAtNanos) {
+	}
+
+	private final BookingService bookingService;
+	private final PaymentService paymentService;
+	private final UserService userService;
+	private final VillaService villaService;
+	private final RatingService ratingService;
+	private final Executor dashboardExecutor;
+	private final BusinessMetrics businessMetrics;
+	private final long ttlNanos;
+
+	private volatile Cached cached;
+
+	public AdminDashboardServiceImpl(BookingService bookingService, PaymentService paymentService,
+			UserService userService, VillaService villaService, RatingService ratingService,
+			@Qualifier("dashboardExecutor") Executor dashboardExecutor, BusinessMetrics businessMetrics,
+			@Value("${stayinn.admin.dashboard.ttl:15s}") Duration ttl) {
+		this.bookingService = bookingService;
+		this.paymentService = paymentService;
+		this.userService = userService;
+		this.villaService = villaService;
+		this.ratingService = ratingService;
+		this.dashboardExecutor = dashboardExecutor;
+		this.businessMetrics = businessMetrics;
+		this.ttlNanos = ttl.toNanos();
+	}
+
+	@Override
+	public AdminDashboardDTO getDashboard() {
+		Cached current = cached;
+		if (isFresh(current)) {
+			businessMetrics.recordCacheLookup("admin_dashboard", true);
+			return current.dashboard();
+		}
+		synchronized (this) {
+			current = cached;
+			if (isFresh(current)) {
+				businessMetrics.recordCacheLookup("admin_dashboard", true);
+				return current.dashboard();
+			}
+			businessMetrics.recordCacheLookup("admin_dashboard", false);
+			AdminDashboardDTO dashboard = load();
+			cached = new Cached(dashboard, System.nanoTime() + ttlNanos);
+			return dashboard;
+		}
+	}
+
+	private boolean isFresh(Cached current) {
+		return current != null && System.nanoTime() - current.expiresAtNanos() < 0;
+	}
+
+	private AdminDashboardDTO load() {
+		log.info("Computing admin dashboard");
+		CompletableFuture<BookingSummaryDTO> bookings = async(bookingService::getBookingSummary);
+		CompletableFuture<Money> revenue = async(paymentService::calculateTotalRevenue);
+		CompletableFuture<Long> payments = async(paymentService::getTotalPaymentCount);
+		CompletableFuture<Long> users = async(userService::getTotalUserCount);
+		CompletableFuture<Long> admins = async(() -> userService.getUserCountByRole(Role.ADMIN));
+		CompletableFuture<Long> customers = async(() -> userService.getUserCountByRole(Role.USER));
+		CompletableFuture<Long> villas = async(villaService::getTotalVillaCount);
+		CompletableFuture<Long> ratings = async(ratingService::getTotalRatingCount);
+
+		CompletableFuture.allOf(bookings, revenue, payments, users, admins, customers, villas, ratings).join();
+		return new AdminDashboardDTO(bookings.join(), revenue.join(), payments.join(), users.join(),
+				admins.join(), customers.join(), villas.join(), ratings.join(), LocalDateTime.now());
+	}
+
+	private <T> CompletableFuture<T> async(Supplier<T> aggregate) {
+		return CompletableFuture.supplyAsync(aggregate, dashboardExecutor);
+	}
+}
@@ -0,0 +1,286 @@
+package com.stayinn.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.stayinn.dto.Booking.OccupancyDeltaDTO;
+import com.stayinn.dto.Booking.VillaOccupancyDTO;
+import com.stayinn.event.BookingChangedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process publish/subscribe of villa occupancy over Server-Sent Events.
+ * A subscriber first gets a "snapshot" of the villa's horizon, then a "delta"
+ * with the changed nights each time a booking change of that villa commits.
+ * <p>
+ * Each villa with subscribers is a topic holding the occupancy last published
+ * and its version; publishing and snapshotting lock the topic, so every
+ * subscriber sees one ordered sequence. Events go through a bounded buffer per
+ * subscriber, drained on the stream executor: a subscriber whose buffer is
+ * full loses its pending deltas and gets a fresh snapshot instead, so a slow
+ * client never holds up the publisher or the others. Topics are per instance,
+ * like the occupancy cache.
+ */
+@Component
+@Slf4j
+public class AvailabilityStreamHub {
+
+	private static final String SNAPSHOT = "snapshot";
+	private static final String DELTA = "delta";
+
+	private final VillaOccupancyCache occupancyCache;
+	private final Executor executor;
+	private final int bufferSize;
+	private final long timeoutMillis;
+
+	private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+
+	public AvailabilityStreamHub(VillaOccupancyCache occupancyCache,
+			@Qualifier("availabilityStreamExecutor") Executor executor,
+			@Value("${stayinn.availability.stream.buffer:32}") int bufferSize,
+			@Value("${stayinn.availability.stream.timeout:30m}") Duration timeout) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("stayinn.availability.stream.buffer must be greater than 0");
+		}
+		this.occupancyCache = occupancyCache;
+		this.executor = executor;
+		this.bufferSize = bufferSize;
+		this.timeoutMillis = timeout.toMillis();
+	}
+
+	/**
+	 * Opens a stream of the villa's occupancy; throws if the villa does not exist
+	 */
+	public SseEmitter subscribe(Long villaId) {
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber;
+		while (true) {
+			Topic topic = topics.computeIfAbsent(villaId, Topic::new);
+			synchronized (topic) {
+				if (topic.closed) {
+					continue; // lost a race with the last unsubscribe, take the replacement
+				}
+				if (topic.occupied == null) {
+					try {
+						topic.reset(occupancyCache.horizon(villaId, false));
+					} catch (RuntimeException e) {
+						topic.close();
+						throw e;
+					}
+				}
+				subscriber = new Subscriber(topic, emitter);
+				topic.subscribers.add(subscriber);
+				break;
+			}
+		}
+		Subscriber subscribed = subscriber;
+		emitter.onCompletion(subscribed::unsubscribe);
+		emitter.onTimeout(subscribed::unsubscribe);
+		emitter.onError(error -> subscribed.unsubscribe());
+		subscribed.schedule();
+		log.debug("Availability stream opened for villa {}", villaId);
+		return emitter;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		Topic topic = topics.get(event.getVillaId());
+		if (topic == null) {
+			return;
+		}
+		synchronized (topic) {
+			if (topic.closed) {
+				return;
+			}
+			VillaOccupancyCache.Horizon horizon;
+			try {
+				horizon = occupancyCache.horizon(topic.villaId, true);
+			} catch (RuntimeException e) {
+				log.warn("Closing availability streams of villa {}: {}", topic.villaId, e.getMessage());
+				topic.subscribers.forEach(subscriber -> subscriber.emitter.complete());
+				topic.close();
+				return;
+			}
+			List<OccupancyDeltaDTO.Change> changes = topic.diff(horizon);
+			topic.reset(horizon);
+			if (changes.isEmpty()) {
+				return;
+			}
+			OccupancyDeltaDTO delta = new OccupancyDeltaDTO(topic.villaId, ++topic.version, changes);
+			topic.subscribers.forEach(subscriber -> subscriber.offer(delta));
+		}
+	}
+
+	/**
+	 * Subscribers of one villa and the occupancy they were last sent (guarded by the topic's monitor)
+	 */
+	private final class Topic {
+
+		private final Long villaId;
+		private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+		private LocalDate startDate;
+		private int days;
+		private BitSet occupied;
+		private long version;
+		private boolean closed;
+
+		private Topic(Long villaId) {
+			this.villaId = villaId;
+		}
+
+		void reset(VillaOccupancyCache.Horizon horizon) {
+			startDate = horizon.startDate();
+			days = horizon.days();
+			occupied = horizon.occupied();
+		}
+
+		void close() {
+			closed = true;
+			topics.remove(villaId, this);
+		}
+
+		/**
+		 * Nights of the new horizon that differ from what subscribers hold, as runs of the same new state.
+		 * Nights past the old horizon (after a day rollover) were implicitly free.
+		 */
+		List<OccupancyDeltaDTO.Change> diff(VillaOccupancyCache.Horizon horizon) {
+			long offset = horizon.startDate().toEpochDay() - startDate.toEpochDay();
+			List<OccupancyDeltaDTO.Change> changes = new ArrayList<>();
+			int runStart = -1;
+			boolean runOccupied = false;
+			for (int i = 0; i <= horizon.days(); i++) {
+				boolean changed = false;
+				boolean now = false;
+				if (i < horizon.days()) {
+					now = horizon.occupied().get(i);
+					long old = i + offset;
+					changed = now != (old < days && occupied.get((int) old));
+				}
+				if (runStart >= 0 && (!changed || now != runOccupied)) {
+					changes.add(new OccupancyDeltaDTO.Change(horizon.startDate().plusDays(runStart),
+							horizon.startDate().plusDays(i - 1), runOccupied));
+					runStart = -1;
+				}
+				if (changed && runStart < 0) {
+					runStart = i;
+					runOccupied = now;
+				}
+			}
+			return changes;
+		}
+
+		VillaOccupancyDTO snapshot() {
+			VillaOccupancyDTO dto = new VillaOccupancyDTO();
+			dto.setVillaId(villaId);
+			dto.setStartDate(startDate);
+			dto.setEndDate(startDate.plusDays(days - 1));
+			dto.setNights(days);
+			dto.setOccupiedNights(occupied.cardinality());
+			dto.setEncoding(VillaOccupancyDTO.RUNS);
+			dto.setRuns(VillaOccupancyCache.toRuns(occupied, days));
+			dto.setVersion(version);
+			return dto;
+		}
+	}
+
+	private final class Subscriber {
+
+		private final Topic topic;
+		private final SseEmitter emitter;
+		private final BlockingQueue<OccupancyDeltaDTO> buffer = new ArrayBlockingQueue<>(bufferSize);
+		private final AtomicBoolean draining = new AtomicBoolean();
+		private volatile boolean snapshotDue = true;
+		private volatile boolean done;
+
+		private Subscriber(Topic topic, SseEmitter emitter) {
+			this.topic = topic;
+			this.emitter = emitter;
+		}
+
+		/**
+		 * Called under the topic's monitor
+		 */
+		void offer(OccupancyDeltaDTO delta) {
+			if (!buffer.offer(delta)) {
+				// Too far behind: drop the backlog, the next event it gets is a full snapshot
+				buffer.clear();
+				snapshotDue = true;
+			}
+			schedule();
+		}
+
+		void schedule() {
+			if (!done && draining.compareAndSet(false, true)) {
+				executor.execute(this::drain);
+			}
+		}
+
+		private void drain() {
+			try {
+				while (!done) {
+					if (snapshotDue) {
+						VillaOccupancyDTO snapshot;
+						synchronized (topic) {
+							// Deltas already buffered are covered by the snapshot; later ones follow it
+							snapshotDue = false;
+							buffer.clear();
+							snapshot = topic.snapshot();
+						}
+						send(SNAPSHOT, snapshot.getVersion(), snapshot);
+						continue;
+					}
+					OccupancyDeltaDTO delta = buffer.poll();
+					if (delta == null) {
+						break;
+					}
+					send(DELTA, delta.getVersion(), delta);
+				}
+			} catch (IOException | IllegalStateException e) {
+				// Client went away; the emitter callbacks may not fire for a write failure
+				unsubscribe();
+			} finally {
+				draining.set(false);
+			}
+			if (!done && (snapshotDue || !buffer.isEmpty())) {
+				schedule();
+			}
+		}
+
+		private void send(String name, long version, Object data) throws IOException {
+			emitter.send(SseEmitter.event().name(name).id(Long.toString(version)).data(data, MediaType.APPLICATION_JSON));
+		}
+
+		void unsubscribe() {
+			if (done) {
+				return;
+			}
+			done = true;
+			synchronized (topic) {
+				topic.subscribers.remove(this);
+				if (topic.subscribers.isEmpty() && !topic.closed) {
+					topic.close();
+				}
+			}
+			log.debug("Availability stream closed for villa {}", topic.villaId);
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.stayinn.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.stayinn.dto.BatchLookupDTO;
+
+/**
+ * Resolves a list of ids with one repository call and puts the results back in
+ * request order, so batch endpoints cost one query however many ids are asked.
+ */
+final class BatchLookups {
+
+	static final int MAX_IDS = 100;
+
+	private BatchLookups() {
+	}
+
+	static <E, T> BatchLookupDTO<T> resolve(List<Long> ids, Function<Collection<Long>, List<E>> loader,
+			Function<E, Long> idOf, Function<E, T> mapper) {
+		Set<Long> requested = new LinkedHashSet<>(ids);
+		requested.remove(null);
+		if (requested.size() > MAX_IDS) {
+			throw new IllegalArgumentException("At most " + MAX_IDS + " ids can be requested at once");
+		}
+		if (requested.isEmpty()) {
+			return new BatchLookupDTO<>(List.of(), List.of());
+		}
+
+		Map<Long, E> byId = loader.apply(requested).stream()
+				.collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+		List<T> found = new ArrayList<>(byId.size());
+		List<Long> missingIds = new ArrayList<>();
+		for (Long id : requested) {
+			E entity = byId.get(id);
+			if (entity != null) {
+				found.add(mapper.apply(entity));
+			} else {
+				missingIds.add(id);
+			}
+		}
+		return new BatchLookupDTO<>(found, missingIds);
+	}
+}
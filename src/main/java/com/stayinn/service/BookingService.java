@@ -2,7 +2,9 @@ package com.stayinn.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.stayinn.dto.BatchLookupDTO;
 import com.stayinn.dto.Booking.BookingAvailabilityDTO;
 import com.stayinn.dto.Booking.BookingAvailabilityResponseDTO;
 import com.stayinn.dto.Booking.BookingCalendarDTO;
@@ -11,6 +13,7 @@ import com.stayinn.dto.Booking.BookingDetailDTO;
 import com.stayinn.dto.Booking.BookingResponseDTO;
 import com.stayinn.dto.Booking.BookingSummaryDTO;
 import com.stayinn.dto.Booking.BookingUpdateStatusDTO;
+import com.stayinn.dto.Booking.VillaOccupancyDTO;
 import com.stayinn.entities.BookingStatus;
 
 public interface BookingService {
@@ -22,6 +25,12 @@ public interface BookingService {
     BookingResponseDTO getBookingById(Long id);
     
     
+    /**
+     * Bookings for up to 100 ids in one query, in request order, plus the ids not found
+     */
+    BatchLookupDTO<BookingResponseDTO> getBookingsByIds(List<Long> ids);
+    
+    
     BookingDetailDTO getBookingDetailById(Long id);
     
     
@@ -58,6 +67,13 @@ public interface BookingService {
     List<BookingCalendarDTO> getVillaCalendar(Long villaId, LocalDate startDate, LocalDate endDate);
     
     
+    /**
+     * Occupied nights of a villa from startDate to endDate (inclusive), encoded as
+     * {@link VillaOccupancyDTO#BITMAP} or {@link VillaOccupancyDTO#RUNS}
+     */
+    VillaOccupancyDTO getVillaAvailability(Long villaId, LocalDate startDate, LocalDate endDate, String encoding);
+    
+    
     BookingSummaryDTO getBookingSummary();
     
     
@@ -67,6 +83,12 @@ public interface BookingService {
     List<BookingResponseDTO> getAllBookings();
     
     
+    /**
+     * Streams every booking to the sink without materializing the list (admin export)
+     */
+    void exportAllBookings(Consumer<BookingResponseDTO> sink);
+    
+    
     void deleteBooking(Long id);
     
     
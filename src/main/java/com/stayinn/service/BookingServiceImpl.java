@@ -2,12 +2,17 @@ package com.stayinn.service;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.stayinn.dto.BatchLookupDTO;
 import com.stayinn.dto.Booking.BookingAvailabilityDTO;
 import com.stayinn.dto.Booking.BookingAvailabilityResponseDTO;
 import com.stayinn.dto.Booking.BookingCalendarDTO;
@@ -16,14 +21,22 @@ import com.stayinn.dto.Booking.BookingDetailDTO;
 import com.stayinn.dto.Booking.BookingResponseDTO;
 import com.stayinn.dto.Booking.BookingSummaryDTO;
 import com.stayinn.dto.Booking.BookingUpdateStatusDTO;
+import com.stayinn.dto.Booking.VillaOccupancyDTO;
 import com.stayinn.entities.Booking;
 import com.stayinn.entities.BookingStatus;
 import com.stayinn.entities.User;
 import com.stayinn.entities.Villa;
+import com.stayinn.event.BookingChangedEvent;
+import com.stayinn.metrics.BookingConflictCheckEvent;
+import com.stayinn.metrics.BookingLifecycleEvent;
+import com.stayinn.metrics.BusinessMetrics;
+import com.stayinn.money.Money;
 import com.stayinn.repository.BookingRepository;
 import com.stayinn.repository.UserRepository;
 import com.stayinn.repository.VillaRepository;
 
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,50 +49,71 @@ public class BookingServiceImpl implements BookingService {
 	private final BookingRepository bookingRepository;
 	private final UserRepository userRepository;
 	private final VillaRepository villaRepository;
+	private final BusinessMetrics businessMetrics;
+	private final EntityManager entityManager;
+	private final PricingService pricingService;
+	private final VillaOccupancyCache occupancyCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final DailyRevenueRecorder dailyRevenueRecorder;
 
 	@Override
 	public BookingResponseDTO createBooking(BookingCreateDTO bookingCreateDTO) {
-		log.info("Creating booking for user {} and villa {}", bookingCreateDTO.getUserId(), bookingCreateDTO.getVillaId());
-		
-		// Parse dates
-		LocalDate checkIn = LocalDate.parse(bookingCreateDTO.getCheckInDate());
-		LocalDate checkOut = LocalDate.parse(bookingCreateDTO.getCheckOutDate());
-
-		// Validate dates
-		validateBookingDates(checkIn, checkOut);
-
-		// Fetch user
-        User user = userRepository.findById(bookingCreateDTO.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + bookingCreateDTO.getUserId()));
-
-		// Fetch villa
-		Villa villa = villaRepository.findById(bookingCreateDTO.getVillaId())
-				.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + bookingCreateDTO.getVillaId()));
-
-		// Check availability
-		List<Booking> conflictingBookings = bookingRepository.findConflictingBookings(villa.getId(), checkIn, checkOut);
-
-		if (!conflictingBookings.isEmpty()) {
-			throw new RuntimeException("Villa is not available for the selected dates");
+		BookingLifecycleEvent event = BookingLifecycleEvent.begin("create").booking(null,
+				bookingCreateDTO.getVillaId());
+		try {
+			log.info("Creating booking for user {} and villa {}", bookingCreateDTO.getUserId(), bookingCreateDTO.getVillaId());
+			Timer.Sample phase = businessMetrics.start();
+
+			// Parse dates
+			LocalDate checkIn = LocalDate.parse(bookingCreateDTO.getCheckInDate());
+			LocalDate checkOut = LocalDate.parse(bookingCreateDTO.getCheckOutDate());
+
+			// Validate dates
+			validateBookingDates(checkIn, checkOut);
+
+			// Fetch user
+			User user = userRepository.findById(bookingCreateDTO.getUserId())
+					.orElseThrow(() -> new RuntimeException("User not found with ID: " + bookingCreateDTO.getUserId()));
+
+			// Fetch villa
+			Villa villa = villaRepository.findById(bookingCreateDTO.getVillaId())
+					.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + bookingCreateDTO.getVillaId()));
+			businessMetrics.recordBookingPhase(phase, "validation");
+
+			// Check availability
+			phase = businessMetrics.start();
+			BookingConflictCheckEvent conflictCheck = BookingConflictCheckEvent.begin("create", villa.getId());
+			List<Booking> conflictingBookings = bookingRepository.findConflictingBookings(villa.getId(), checkIn, checkOut);
+			conflictCheck.finish(conflictingBookings.size());
+			businessMetrics.recordBookingPhase(phase, "conflict_check");
+
+			if (!conflictingBookings.isEmpty()) {
+				throw new RuntimeException("Villa is not available for the selected dates");
+			}
+
+			// Price the stay (seasonal rates, weekend uplift, length-of-stay discount)
+			Money totalPrice = pricingService.quoteStay(villa.getId(), checkIn, checkOut);
+
+			// Create booking
+			Booking booking = new Booking();
+			booking.setUser(user);
+			booking.setVilla(villa);
+			booking.setCheckInDate(checkIn);
+			booking.setCheckOutDate(checkOut);
+			booking.setTotalPrice(totalPrice);
+			booking.setStatus(BookingStatus.PENDING);
+
+			phase = businessMetrics.start();
+			Booking savedBooking = bookingRepository.save(booking);
+			businessMetrics.recordBookingPhase(phase, "insert");
+			log.info("Booking created successfully with ID: {}", savedBooking.getId());
+			eventPublisher.publishEvent(new BookingChangedEvent(villa.getId(), savedBooking.getId()));
+
+			event.booking(savedBooking.getId(), villa.getId()).succeeded();
+			return mapToResponseDTO(savedBooking);
+		} finally {
+			event.finish();
 		}
-
-		// Calculate number of nights and total price
-		long numberOfNights = ChronoUnit.DAYS.between(checkIn, checkOut);
-		Double totalPrice = numberOfNights * villa.getPricePerNight();
-
-		// Create booking
-		Booking booking = new Booking();
-		booking.setUser(user);
-		booking.setVilla(villa);
-		booking.setCheckInDate(checkIn);
-		booking.setCheckOutDate(checkOut);
-		booking.setTotalPrice(totalPrice);
-		booking.setStatus(BookingStatus.PENDING);
-
-		Booking savedBooking = bookingRepository.save(booking);
-		log.info("Booking created successfully with ID: {}", savedBooking.getId());
-
-		return mapToResponseDTO(savedBooking);
 	}
 
 	@Override
@@ -91,6 +125,14 @@ public class BookingServiceImpl implements BookingService {
 		return mapToResponseDTO(booking);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public BatchLookupDTO<BookingResponseDTO> getBookingsByIds(List<Long> ids) {
+		log.info("Fetching {} bookings by ID", ids.size());
+		return BatchLookups.resolve(ids, bookingRepository::findAllWithDetailsByIdIn, Booking::getId,
+				this::mapToResponseDTO);
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public BookingDetailDTO getBookingDetailById(Long id) {
@@ -158,6 +200,7 @@ public class BookingServiceImpl implements BookingService {
 
 		booking.setStatus(updateStatusDTO.getStatus());
 		Booking updatedBooking = bookingRepository.save(booking);
+		eventPublisher.publishEvent(new BookingChangedEvent(booking.getVilla().getId(), id));
 
 		log.info("Booking status updated successfully");
 		return mapToResponseDTO(updatedBooking);
@@ -165,44 +208,60 @@ public class BookingServiceImpl implements BookingService {
 
 	@Override
 	public BookingResponseDTO confirmBooking(Long id) {
-		log.info("Confirming booking with ID: {}", id);
-
-		Booking booking = bookingRepository.findById(id)
-				.orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
-
-		if (booking.getStatus() != BookingStatus.PENDING) {
-			throw new RuntimeException("Only PENDING bookings can be confirmed");
+		BookingLifecycleEvent event = BookingLifecycleEvent.begin("confirm");
+		try {
+			log.info("Confirming booking with ID: {}", id);
+
+			Booking booking = bookingRepository.findById(id)
+					.orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
+			event.booking(id, booking.getVilla().getId());
+
+			if (booking.getStatus() != BookingStatus.PENDING) {
+				throw new RuntimeException("Only PENDING bookings can be confirmed");
+			}
+
+			booking.setStatus(BookingStatus.CONFIRMED);
+			Booking confirmedBooking = bookingRepository.save(booking);
+			eventPublisher.publishEvent(new BookingChangedEvent(booking.getVilla().getId(), id));
+
+			log.info("Booking confirmed successfully");
+			event.succeeded();
+			return mapToResponseDTO(confirmedBooking);
+		} finally {
+			event.finish();
 		}
-
-		booking.setStatus(BookingStatus.CONFIRMED);
-		Booking confirmedBooking = bookingRepository.save(booking);
-
-		log.info("Booking confirmed successfully");
-		return mapToResponseDTO(confirmedBooking);
 	}
 
 	@Override
 	public BookingResponseDTO cancelBooking(Long id, String reason) {
-		log.info("Cancelling booking with ID: {}", id);
-
-		Booking booking = bookingRepository.findById(id)
-				.orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
-
-		// Check if booking can be cancelled
-		if (booking.getStatus() == BookingStatus.CANCELLED || booking.getStatus() == BookingStatus.CONFIRMED) {
-			throw new RuntimeException("Booking cannot be cancelled");
+		BookingLifecycleEvent event = BookingLifecycleEvent.begin("cancel");
+		try {
+			log.info("Cancelling booking with ID: {}", id);
+
+			Booking booking = bookingRepository.findById(id)
+					.orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
+			event.booking(id, booking.getVilla().getId());
+
+			// Check if booking can be cancelled
+			if (booking.getStatus() == BookingStatus.CANCELLED || booking.getStatus() == BookingStatus.CONFIRMED) {
+				throw new RuntimeException("Booking cannot be cancelled");
+			}
+
+			// Check if check-in date has passed
+			if (booking.getCheckInDate().isBefore(LocalDate.now())) {
+				throw new RuntimeException("Cannot cancel booking after check-in date");
+			}
+
+			booking.setStatus(BookingStatus.CANCELLED);
+			Booking cancelledBooking = bookingRepository.save(booking);
+			eventPublisher.publishEvent(new BookingChangedEvent(booking.getVilla().getId(), id));
+
+			log.info("Booking cancelled successfully. Reason: {}", reason);
+			event.succeeded();
+			return mapToResponseDTO(cancelledBooking);
+		} finally {
+			event.finish();
 		}
-
-		// Check if check-in date has passed
-		if (booking.getCheckInDate().isBefore(LocalDate.now())) {
-			throw new RuntimeException("Cannot cancel booking after check-in date");
-		}
-
-		booking.setStatus(BookingStatus.CANCELLED);
-		Booking cancelledBooking = bookingRepository.save(booking);
-
-		log.info("Booking cancelled successfully. Reason: {}", reason);
-		return mapToResponseDTO(cancelledBooking);
 	}
 
 	@Override
@@ -223,19 +282,23 @@ public class BookingServiceImpl implements BookingService {
 				.orElseThrow(() -> new RuntimeException("Villa not found"));
 
 		// Check for conflicts
+		BookingConflictCheckEvent conflictCheck = BookingConflictCheckEvent.begin("availability",
+				availabilityDTO.getVillaId());
 		List<Booking> conflictingBookings = bookingRepository.findConflictingBookings(availabilityDTO.getVillaId(),
 				checkIn, checkOut);
+		conflictCheck.finish(conflictingBookings.size());
 
 		boolean available = conflictingBookings.isEmpty();
 
 		// Calculate estimated price
 		long numberOfNights = ChronoUnit.DAYS.between(checkIn, checkOut);
-		Double estimatedPrice = available ? numberOfNights * villa.getPricePerNight() : null;
+		Money estimatedPrice = available ? pricingService.quoteStay(villa.getId(), checkIn, checkOut) : null;
 
 		String message = available ? "Villa is available for selected dates"
 				: "Villa is not available for selected dates";
 
-		return new BookingAvailabilityResponseDTO();
+		return new BookingAvailabilityResponseDTO(checkIn, checkOut, (int) numberOfNights, available, estimatedPrice,
+				message);
 	}
 
 	@Override
@@ -249,20 +312,59 @@ public class BookingServiceImpl implements BookingService {
 				.collect(Collectors.toList());
 	}
 
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // served from memory; a miss loads with plain repository reads
+	public VillaOccupancyDTO getVillaAvailability(Long villaId, LocalDate startDate, LocalDate endDate,
+			String encoding) {
+		boolean runs = VillaOccupancyDTO.RUNS.equalsIgnoreCase(encoding);
+		if (!runs && !VillaOccupancyDTO.BITMAP.equalsIgnoreCase(encoding)) {
+			throw new IllegalArgumentException("Unsupported availability encoding: " + encoding);
+		}
+		BitSet occupied = occupancyCache.occupied(villaId, startDate, endDate);
+		int nights = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+
+		VillaOccupancyDTO dto = new VillaOccupancyDTO();
+		dto.setVillaId(villaId);
+		dto.setStartDate(startDate);
+		dto.setEndDate(endDate);
+		dto.setNights(nights);
+		dto.setOccupiedNights(occupied.cardinality());
+		if (runs) {
+			dto.setEncoding(VillaOccupancyDTO.RUNS);
+			dto.setRuns(VillaOccupancyCache.toRuns(occupied, nights));
+		} else {
+			dto.setEncoding(VillaOccupancyDTO.BITMAP);
+			dto.setBitmap(VillaOccupancyCache.toBitmap(occupied, nights));
+		}
+		return dto;
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public BookingSummaryDTO getBookingSummary() {
 		log.info("Generating booking summary");
 
-		long totalBookings = bookingRepository.count();
-		long pendingBookings = bookingRepository.countByStatus(BookingStatus.PENDING);
-		long confirmedBookings = bookingRepository.countByStatus(BookingStatus.CONFIRMED);
-		long completedBookings = bookingRepository.countByStatus(BookingStatus.CONFIRMED);
-		long cancelledBookings = bookingRepository.countByStatus(BookingStatus.CANCELLED);
-
-		// Calculate total revenue from completed bookings
-		List<Booking> completedList = bookingRepository.findByStatus(BookingStatus.CONFIRMED);
-		Double totalRevenue = completedList.stream().mapToDouble(Booking::getTotalPrice).sum();
+		// One grouped query for all counts and the revenue sum
+		long totalBookings = 0;
+		long pendingBookings = 0;
+		long confirmedBookings = 0;
+		long cancelledBookings = 0;
+		Money totalRevenue = Money.ZERO;
+		for (Object[] row : bookingRepository.summarizeByStatus()) {
+			BookingStatus status = BookingStatus.valueOf((String) row[0]);
+			long count = ((Number) row[1]).longValue();
+			totalBookings += count;
+			switch (status) {
+				case PENDING -> pendingBookings = count;
+				case CONFIRMED -> {
+					confirmedBookings = count;
+					// Revenue from completed bookings
+					totalRevenue = row[2] != null ? Money.ofPaise(((Number) row[2]).longValue()) : Money.ZERO;
+				}
+				case CANCELLED -> cancelledBookings = count;
+			}
+		}
+		long completedBookings = confirmedBookings;
 
 		return new BookingSummaryDTO(totalBookings, pendingBookings, confirmedBookings, completedBookings,
 				cancelledBookings, totalRevenue);
@@ -281,8 +383,8 @@ public class BookingServiceImpl implements BookingService {
 		long completedBookings = userBookings.stream().filter(b -> b.getStatus() == BookingStatus.CONFIRMED).count();
 		long cancelledBookings = userBookings.stream().filter(b -> b.getStatus() == BookingStatus.CANCELLED).count();
 
-		Double totalSpent = userBookings.stream().filter(b -> b.getStatus() == BookingStatus.CONFIRMED)
-				.mapToDouble(Booking::getTotalPrice).sum();
+		Money totalSpent = Money.ofPaise(userBookings.stream().filter(b -> b.getStatus() == BookingStatus.CONFIRMED)
+				.mapToLong(b -> b.getTotalPrice().paise()).sum());
 
 		return new BookingSummaryDTO(totalBookings, pendingBookings, confirmedBookings, completedBookings,
 				cancelledBookings, totalSpent);
@@ -295,15 +397,26 @@ public class BookingServiceImpl implements BookingService {
 		return bookingRepository.findAll().stream().map(this::mapToResponseDTO).collect(Collectors.toList());
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public void exportAllBookings(Consumer<BookingResponseDTO> sink) {
+		log.info("Exporting all bookings");
+		ExportStreams.forEach(bookingRepository.streamAllForExport(), entityManager, this::mapToResponseDTO, sink);
+	}
+
 	@Override
 	public void deleteBooking(Long id) {
 		log.info("Deleting booking with ID: {}", id);
 
-		if (!bookingRepository.existsById(id)) {
-			throw new RuntimeException("Booking not found with ID: " + id);
-		}
+		Booking booking = bookingRepository.findById(id)
+				.orElseThrow(() -> new RuntimeException("Booking not found with ID: " + id));
 
-		bookingRepository.deleteById(id);
+		// The payment is deleted with the booking (cascade), so take it out of the revenue rollup
+		if (booking.getPayment() != null) {
+			dailyRevenueRecorder.removed(booking.getPayment());
+		}
+		bookingRepository.delete(booking);
+		eventPublisher.publishEvent(new BookingChangedEvent(booking.getVilla().getId(), id));
 		log.info("Booking deleted successfully");
 	}
 
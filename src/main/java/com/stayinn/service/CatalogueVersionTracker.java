@@ -0,0 +1,95 @@
+package com.stayinn.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.stayinn.metrics.BusinessMetrics;
+import com.stayinn.repository.RatingRepository;
+import com.stayinn.repository.VillaRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Versions of the villa catalogue for conditional GETs (ETag / Last-Modified),
+ * derived from persisted state: row counts and updation_time. A 304 costs one
+ * single-row query and no entity loading, and every instance agrees on the
+ * version, restarts included. Writes that bypass @UpdateTimestamp (bulk JPQL
+ * updates) set updatedAt themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogueVersionTracker {
+
+	private final VillaRepository villaRepository;
+	private final RatingRepository ratingRepository;
+	private final BusinessMetrics businessMetrics;
+
+	/**
+	 * Validate a catalogue-wide GET; true means a 304 has already been prepared
+	 */
+	public boolean checkCatalogueNotModified(WebRequest request) {
+		Object[] stamp = single(villaRepository.findCatalogueStamp());
+		LocalDateTime lastChange = (LocalDateTime) stamp[1];
+		return record(request.checkNotModified("\"c" + stamp[0] + "-" + micros(lastChange) + "\"",
+				lastModified(lastChange)));
+	}
+
+	/**
+	 * Validate a GET of one villa; true means a 304 has already been prepared.
+	 * An unknown villa is never "not modified"
+	 */
+	public boolean checkVillaNotModified(WebRequest request, Long villaId) {
+		return villaRepository.findUpdatedAtById(villaId)
+				.map(updatedAt -> record(request.checkNotModified("\"v" + villaId + "-" + micros(updatedAt) + "\"",
+						lastModified(updatedAt))))
+				.orElse(false);
+	}
+
+	/**
+	 * Validate a GET of one villa's ratings, which also show user and villa
+	 * names; true means a 304 has already been prepared
+	 */
+	public boolean checkRatingsNotModified(WebRequest request, Long villaId) {
+		Object[] stamp = single(ratingRepository.findRatingsStamp(villaId));
+		LocalDateTime lastChange = null;
+		StringBuilder etag = new StringBuilder("\"r").append(villaId).append('-').append(stamp[0]);
+		for (int i = 1; i < stamp.length; i++) {
+			LocalDateTime changed = (LocalDateTime) stamp[i];
+			etag.append('-').append(micros(changed));
+			if (changed != null && (lastChange == null || changed.isAfter(lastChange))) {
+				lastChange = changed;
+			}
+		}
+		return record(request.checkNotModified(etag.append('"').toString(), lastModified(lastChange)));
+	}
+
+	/**
+	 * Persisted version of one villa; reads keyed by it never mix data from before and after a change
+	 */
+	public long villaVersion(Long villaId) {
+		return villaRepository.findUpdatedAtById(villaId).map(CatalogueVersionTracker::micros).orElse(0L);
+	}
+
+	private boolean record(boolean notModified) {
+		businessMetrics.recordCacheLookup("catalogue_conditional_get", notModified);
+		return notModified;
+	}
+
+	private static Object[] single(List<Object[]> rows) {
+		return rows.get(0);
+	}
+
+	private static long micros(LocalDateTime time) {
+		return time != null ? time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000 : 0;
+	}
+
+	private static long lastModified(LocalDateTime time) {
+		// -1: no Last-Modified, the ETag alone decides
+		return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / 1000 * 1000 : -1;
+	}
+}
@@ -0,0 +1,83 @@
+package com.stayinn.service;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stayinn.entities.Payment;
+import com.stayinn.entities.PaymentStatus;
+import com.stayinn.repository.DailyRevenueRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the daily_revenue rollup in step with payment status changes. Callers
+ * run inside the payment's transaction, so the rollup and the payment commit
+ * or roll back together. A payment counts in the bucket of its payment date
+ * while it is COMPLETED and moves to the refunded totals once REFUNDED.
+ */
+@Component
+@Slf4j
+public class DailyRevenueRecorder {
+
+	/** Bucket key for payments without a gateway or method */
+	static final String UNKNOWN = "UNKNOWN";
+
+	private final DailyRevenueRepository dailyRevenueRepository;
+
+	public DailyRevenueRecorder(DailyRevenueRepository dailyRevenueRepository) {
+		this.dailyRevenueRepository = dailyRevenueRepository;
+	}
+
+	/**
+	 * Record a status change of a saved payment.
+	 *
+	 * @param previousStatus status before the change
+	 * @param previousDate   payment date before the change (the bucket it was counted in)
+	 */
+	public void statusChanged(Payment payment, PaymentStatus previousStatus, LocalDate previousDate) {
+		if (previousStatus == payment.getStatus() && Objects.equals(previousDate, payment.getPaymentDate())) {
+			return;
+		}
+		apply(payment, previousStatus, previousDate, -1);
+		apply(payment, payment.getStatus(), payment.getPaymentDate(), 1);
+	}
+
+	/**
+	 * Take a payment that is about to be deleted out of the rollup
+	 */
+	public void removed(Payment payment) {
+		apply(payment, payment.getStatus(), payment.getPaymentDate(), -1);
+	}
+
+	/**
+	 * Rebuild the whole rollup from the payments table, for payments changed
+	 * outside the application. Scans every payment, so it only runs on request.
+	 *
+	 * @return number of buckets written
+	 */
+	@Transactional
+	public int rebuildAll() {
+		dailyRevenueRepository.deleteAllBuckets();
+		int buckets = dailyRevenueRepository.rebuildFromPayments(UNKNOWN);
+		log.info("Rebuilt daily revenue rollup: {} buckets", buckets);
+		return buckets;
+	}
+
+	private void apply(Payment payment, PaymentStatus status, LocalDate date, int sign) {
+		boolean completed = status == PaymentStatus.COMPLETED;
+		boolean refunded = status == PaymentStatus.REFUNDED;
+		if ((!completed && !refunded) || date == null || payment.getAmount() == null) {
+			return;
+		}
+		long paise = sign * payment.getAmount().paise();
+		dailyRevenueRepository.addToBucket(date, keyOf(payment.getPaymentGateway()), keyOf(payment.getPaymentMethod()),
+				completed ? sign : 0, completed ? paise : 0, refunded ? sign : 0, refunded ? paise : 0);
+	}
+
+	private static String keyOf(String value) {
+		return value != null ? value : UNKNOWN;
+	}
+}
@@ -0,0 +1,33 @@
+package com.stayinn.service;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Drains a repository stream into an export sink. The persistence context is
+ * cleared every {@value #CLEAR_EVERY} rows so exported entities do not pile
+ * up in the session; heap stays flat however large the table is.
+ */
+final class ExportStreams {
+
+	private static final int CLEAR_EVERY = 500;
+
+	private ExportStreams() {
+	}
+
+	static <E, T> void forEach(Stream<E> rows, EntityManager entityManager, Function<E, T> mapper,
+			Consumer<T> sink) {
+		try (rows) {
+			int count = 0;
+			for (var iterator = rows.iterator(); iterator.hasNext();) {
+				sink.accept(mapper.apply(iterator.next()));
+				if (++count % CLEAR_EVERY == 0) {
+					entityManager.clear();
+				}
+			}
+		}
+	}
+}
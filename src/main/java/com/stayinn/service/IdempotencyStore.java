@@ -0,0 +1,282 @@
+package com.stayinn.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.entities.IdempotencyRecord;
+import com.stayinn.repository.IdempotencyRecordRepository;
+
+import jakarta.persistence.PersistenceException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Idempotency-Key handling for create endpoints. The first request with a key
+ * claims it by inserting a row (the unique key on scope and key settles
+ * races between instances), runs, and stores its response; repeats get that
+ * stored response back without running again. Completed responses are also
+ * kept in memory for a short TTL, so a burst of retries costs no queries.
+ * <p>
+ * 5xx responses and exceptions release the key so the request can be retried;
+ * actions should only turn business rule failures into 4xx responses and let
+ * infrastructure failures ({@link #isInfrastructureFailure}) propagate.
+ * A claim whose request never completed (instance died) can be taken over
+ * after the lease. Rows are kept for the TTL and purged from time to time by
+ * the requests themselves.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+	public static final String HEADER = "Idempotency-Key";
+	public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+	private static final int MAX_KEY_LENGTH = 100;
+
+	private final IdempotencyRecordRepository repository;
+	private final ObjectMapper objectMapper;
+	private final TransactionTemplate transaction;
+	private final Duration ttl;
+	private final Duration lease;
+	private final long cacheTtlNanos;
+	private final int cacheMaxEntries;
+	private final long purgeIntervalNanos;
+
+	private final Map<String, StoredResponse> cache = new ConcurrentHashMap<>();
+	private final AtomicLong nextPurge = new AtomicLong(System.nanoTime());
+
+	private record StoredResponse(String requestHash, int status, String body, long expiresAtNanos) {
+	}
+
+	private record Claim(IdempotencyRecord record, boolean owned) {
+	}
+
+	public IdempotencyStore(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+			PlatformTransactionManager transactionManager,
+			@Value("${stayinn.idempotency.ttl:24h}") Duration ttl,
+			@Value("${stayinn.idempotency.lease:2m}") Duration lease,
+			@Value("${stayinn.idempotency.cache-ttl:10m}") Duration cacheTtl,
+			@Value("${stayinn.idempotency.cache-max-entries:10000}") int cacheMaxEntries,
+			@Value("${stayinn.idempotency.purge-interval:15m}") Duration purgeInterval) {
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+		// Claims and results must be visible to other requests at once, whatever the caller's transaction
+		this.transaction = new TransactionTemplate(transactionManager);
+		this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.ttl = ttl;
+		this.lease = lease;
+		this.cacheTtlNanos = Math.min(cacheTtl.toNanos(), ttl.toNanos());
+		this.cacheMaxEntries = cacheMaxEntries;
+		this.purgeIntervalNanos = purgeInterval.toNanos();
+	}
+
+	/**
+	 * Runs the action once per key; repeats with the same key and request get the stored response.
+	 *
+	 * @param key       the Idempotency-Key header, or null to just run the action
+	 * @param operation the endpoint, e.g. "POST /api/bookings"; keys are scoped to it and to the caller
+	 * @param request   the request body (or path values), to detect a key reused for a different request
+	 * @param dataType  type of the envelope's data, for replaying the stored JSON
+	 */
+	public <T> ResponseEntity<ApiEnvelope<T>> execute(String key, String operation, Object request, Class<T> dataType,
+			Supplier<ResponseEntity<ApiEnvelope<T>>> action) {
+		if (key == null) {
+			return action.get();
+		}
+		if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+			return ResponseEntity.badRequest()
+					.body(ApiEnvelope.failure(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters"));
+		}
+		String scope = operation + " " + caller();
+		String requestHash = hash(request);
+		String cacheKey = scope + "\n" + key;
+
+		StoredResponse stored = cache.get(cacheKey);
+		if (stored != null && stored.expiresAtNanos() - System.nanoTime() > 0) {
+			return replay(stored, requestHash, dataType);
+		}
+
+		Claim claim = claim(scope, key, requestHash);
+		if (!claim.owned()) {
+			IdempotencyRecord existing = claim.record();
+			if (!existing.isCompleted()) {
+				return ResponseEntity.status(HttpStatus.CONFLICT)
+						.body(ApiEnvelope.failure("A request with this " + HEADER + " is still being processed"));
+			}
+			StoredResponse response = new StoredResponse(existing.getRequestHash(), existing.getResponseStatus(),
+					existing.getResponseBody(), System.nanoTime() + cacheTtlNanos);
+			remember(cacheKey, response);
+			return replay(response, requestHash, dataType);
+		}
+
+		ResponseEntity<ApiEnvelope<T>> response;
+		try {
+			response = action.get();
+		} catch (RuntimeException e) {
+			release(claim.record());
+			throw e;
+		}
+		if (response.getStatusCode().is5xxServerError()) {
+			release(claim.record());
+			return response;
+		}
+
+		String body = toJson(response.getBody());
+		try {
+			transaction.executeWithoutResult(status -> {
+				IdempotencyRecord record = claim.record();
+				record.setCompleted(true);
+				record.setResponseStatus(response.getStatusCode().value());
+				record.setResponseBody(body);
+				repository.save(record);
+			});
+		} catch (RuntimeException e) {
+			// The action did run; the claim stays until its lease runs out
+			log.warn("Could not store response for {} {} {}: {}", operation, HEADER, key, e.getMessage());
+			return response;
+		}
+		remember(cacheKey, new StoredResponse(requestHash, response.getStatusCode().value(), body,
+				System.nanoTime() + cacheTtlNanos));
+		return response;
+	}
+
+	/**
+	 * Whether a failure says nothing about the request itself: database and
+	 * transaction errors (lock timeouts, deadlocks, lost connections) and
+	 * checked exceptions such as payment gateway errors. Answering those with a
+	 * stored 4xx would replay the outage for the whole TTL.
+	 */
+	public static boolean isInfrastructureFailure(Exception e) {
+		return !(e instanceof RuntimeException) || e instanceof DataAccessException
+				|| e instanceof TransactionException || e instanceof PersistenceException;
+	}
+
+	private Claim claim(String scope, String key, String requestHash) {
+		purgeIfDue();
+		for (int attempt = 0; attempt < 3; attempt++) {
+			LocalDateTime now = LocalDateTime.now();
+			try {
+				IdempotencyRecord claimed = transaction.execute(status -> {
+					IdempotencyRecord record = new IdempotencyRecord();
+					record.setScope(scope);
+					record.setIdempotencyKey(key);
+					record.setRequestHash(requestHash);
+					record.setExpiresAt(now.plus(ttl));
+					return repository.saveAndFlush(record);
+				});
+				return new Claim(claimed, true);
+			} catch (DataIntegrityViolationException e) {
+				IdempotencyRecord existing = transaction
+						.execute(status -> repository.findByScopeAndIdempotencyKey(scope, key).orElse(null));
+				if (existing == null) {
+					continue; // released in the meantime
+				}
+				boolean expired = existing.getExpiresAt().isBefore(now);
+				boolean abandoned = !existing.isCompleted() && existing.getCreatedAt().isBefore(now.minus(lease));
+				if (!expired && !abandoned) {
+					return new Claim(existing, false);
+				}
+				transaction.executeWithoutResult(status -> repository.deleteById(existing.getId()));
+			}
+		}
+		throw new RuntimeException("Could not claim " + HEADER + " " + key);
+	}
+
+	private void release(IdempotencyRecord record) {
+		try {
+			transaction.executeWithoutResult(status -> repository.deleteById(record.getId()));
+		} catch (RuntimeException e) {
+			log.warn("Could not release {} {}: {}", HEADER, record.getIdempotencyKey(), e.getMessage());
+		}
+	}
+
+	private <T> ResponseEntity<ApiEnvelope<T>> replay(StoredResponse stored, String requestHash, Class<T> dataType) {
+		if (!stored.requestHash().equals(requestHash)) {
+			return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+					.body(ApiEnvelope.failure(HEADER + " was already used for a different request"));
+		}
+		JavaType type = objectMapper.getTypeFactory().constructParametricType(ApiEnvelope.class, dataType);
+		try {
+			ApiEnvelope<T> body = objectMapper.readValue(stored.body(), type);
+			return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+		} catch (JsonProcessingException e) {
+			throw new RuntimeException("Stored response for " + HEADER + " is unreadable", e);
+		}
+	}
+
+	private void remember(String cacheKey, StoredResponse response) {
+		cache.put(cacheKey, response);
+		if (cache.size() <= cacheMaxEntries) {
+			return;
+		}
+		long now = System.nanoTime();
+		cache.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+		// Still full of live entries: drop arbitrary ones, the database has them all
+		Iterator<String> keys = cache.keySet().iterator();
+		while (cache.size() > cacheMaxEntries && keys.hasNext()) {
+			keys.next();
+			keys.remove();
+		}
+	}
+
+	private void purgeIfDue() {
+		long now = System.nanoTime();
+		long due = nextPurge.get();
+		if (now - due < 0 || !nextPurge.compareAndSet(due, now + purgeIntervalNanos)) {
+			return;
+		}
+		try {
+			Integer purged = transaction.execute(status -> repository.deleteExpired(LocalDateTime.now()));
+			log.debug("Purged {} expired idempotency keys", purged);
+		} catch (RuntimeException e) {
+			log.warn("Could not purge expired idempotency keys: {}", e.getMessage());
+		}
+	}
+
+	private static String caller() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null ? authentication.getName() : "anonymous";
+	}
+
+	private String hash(Object request) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(digest);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private String toJson(Object value) {
+		try {
+			return objectMapper.writeValueAsString(value);
+		} catch (JsonProcessingException e) {
+			throw new RuntimeException("Could not serialize for " + HEADER, e);
+		}
+	}
+}
@@ -0,0 +1,411 @@
+package com.stayinn.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.stayinn.entities.PaymentStatus;
+import com.stayinn.money.Money;
+import com.stayinn.repository.PaymentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory columnar copy of the payments table for statistics and revenue
+ * reports: one primitive array per column (amount in paise, status ordinal,
+ * method id, epoch day), so a group-by is a single pass over a few arrays
+ * instead of loading entities.
+ * <p>
+ * Reads refresh incrementally from rows whose updation_time is at or after
+ * the newest one seen, minus an overlap for transactions that committed late;
+ * re-applying a row is harmless. Deleted payments, and changes that
+ * committed later than the overlap, are picked up by the periodic full
+ * rebuild. Only the first load runs on a request thread; later rebuilds run
+ * on paymentAnalyticsExecutor while reads keep using the current columns.
+ */
+@Component
+@Slf4j
+public class PaymentColumnSnapshot {
+
+	private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+	private static final byte COMPLETED = (byte) PaymentStatus.COMPLETED.ordinal();
+
+	private final PaymentRepository paymentRepository;
+	private final TransactionTemplate rebuildTransaction;
+	private final Executor rebuildExecutor;
+	private final long refreshIntervalNanos;
+	private final long rebuildIntervalNanos;
+	private final Duration overlap;
+
+	private final ReentrantReadWriteLock columnsLock = new ReentrantReadWriteLock();
+	private final ReentrantLock refreshLock = new ReentrantLock();
+	private final AtomicBoolean rebuildPending = new AtomicBoolean();
+	private volatile Columns columns;
+	private volatile long lastRefresh;
+	private volatile long lastRebuild;
+
+	public PaymentColumnSnapshot(PaymentRepository paymentRepository, PlatformTransactionManager transactionManager,
+			@Qualifier("paymentAnalyticsExecutor") Executor rebuildExecutor,
+			@Value("${stayinn.payment-analytics.refresh-interval:2s}") Duration refreshInterval,
+			@Value("${stayinn.payment-analytics.rebuild-interval:10m}") Duration rebuildInterval,
+			@Value("${stayinn.payment-analytics.overlap:1m}") Duration overlap) {
+		this.paymentRepository = paymentRepository;
+		this.rebuildTransaction = new TransactionTemplate(transactionManager);
+		this.rebuildTransaction.setReadOnly(true);
+		this.rebuildExecutor = rebuildExecutor;
+		this.refreshIntervalNanos = refreshInterval.toNanos();
+		this.rebuildIntervalNanos = rebuildInterval.toNanos();
+		this.overlap = overlap;
+	}
+
+	/**
+	 * Per status count and amount of every payment, plus completed payments per method
+	 */
+	public record Statistics(long[] countByStatus, long[] paiseByStatus, Map<String, Long> completedByMethod) {
+
+		public long count(PaymentStatus status) {
+			return countByStatus[status.ordinal()];
+		}
+
+		public long paise(PaymentStatus status) {
+			return paiseByStatus[status.ordinal()];
+		}
+	}
+
+	/**
+	 * Completed payments with a payment date in a range
+	 */
+	public record RangeReport(long count, long paise, Map<String, Long> paiseByMethod,
+			Map<LocalDate, Long> paiseByDay) {
+	}
+
+	@Transactional(readOnly = true)
+	public Statistics statistics() {
+		refreshIfDue();
+		columnsLock.readLock().lock();
+		try {
+			Columns c = columns;
+			long[] counts = new long[STATUSES.length];
+			long[] paise = new long[STATUSES.length];
+			long[] completedByMethod = new long[c.methods.size()];
+			for (int i = 0; i < c.size; i++) {
+				byte status = c.status[i];
+				if (status < 0) {
+					continue;
+				}
+				counts[status]++;
+				paise[status] += c.amountPaise[i];
+				if (status == COMPLETED) {
+					completedByMethod[c.methodId[i]]++;
+				}
+			}
+			return new Statistics(counts, paise, byMethod(c, completedByMethod));
+		} finally {
+			columnsLock.readLock().unlock();
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public RangeReport completedBetween(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException("End date must not be before start date");
+		}
+		refreshIfDue();
+		columnsLock.readLock().lock();
+		try {
+			Columns c = columns;
+			// Day buckets only need to cover days that have payments
+			long from = Math.max(startDate.toEpochDay(), c.minDay);
+			long to = Math.min(endDate.toEpochDay(), c.maxDay);
+			if (from > to) {
+				return new RangeReport(0, 0, Map.of(), Map.of());
+			}
+			long count = 0;
+			long total = 0;
+			long[] paiseByMethod = new long[c.methods.size()];
+			long[] paiseByDay = new long[(int) (to - from + 1)];
+			for (int i = 0; i < c.size; i++) {
+				int day = c.epochDay[i];
+				if (c.status[i] != COMPLETED || day < from || day > to) {
+					continue;
+				}
+				long amount = c.amountPaise[i];
+				count++;
+				total += amount;
+				paiseByMethod[c.methodId[i]] += amount;
+				paiseByDay[(int) (day - from)] += amount;
+			}
+			Map<LocalDate, Long> byDay = new TreeMap<>();
+			for (int d = 0; d < paiseByDay.length; d++) {
+				if (paiseByDay[d] != 0) {
+					byDay.put(LocalDate.ofEpochDay(from + d), paiseByDay[d]);
+				}
+			}
+			return new RangeReport(count, total, byMethod(c, paiseByMethod), byDay);
+		} finally {
+			columnsLock.readLock().unlock();
+		}
+	}
+
+	private static Map<String, Long> byMethod(Columns c, long[] values) {
+		Map<String, Long> result = new HashMap<>();
+		for (int m = 0; m < values.length; m++) {
+			if (values[m] != 0) {
+				result.put(c.methods.get(m), values[m]);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * One reader refreshes; the others keep reading the current columns
+	 * (or wait, before the first load)
+	 */
+	private void refreshIfDue() {
+		long now = System.nanoTime();
+		if (columns != null && now - lastRefresh < refreshIntervalNanos) {
+			return;
+		}
+		if (columns == null) {
+			refreshLock.lock();
+		} else if (!refreshLock.tryLock()) {
+			return;
+		}
+		try {
+			now = System.nanoTime();
+			if (columns == null) {
+				// Nothing to serve yet, so this caller has to wait for the first load
+				rebuild();
+				lastRebuild = now;
+			} else {
+				if (now - lastRebuild >= rebuildIntervalNanos) {
+					rebuildInBackground();
+				}
+				if (now - lastRefresh >= refreshIntervalNanos) {
+					applyChanges();
+				}
+			}
+			lastRefresh = now;
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	/**
+	 * Swapped in when done; changes applied meanwhile to the old columns are
+	 * re-read from the rebuilt watermark minus the overlap
+	 */
+	private void rebuildInBackground() {
+		if (!rebuildPending.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			rebuildExecutor.execute(() -> {
+				try {
+					long started = System.nanoTime();
+					rebuildTransaction.executeWithoutResult(status -> rebuild());
+					lastRebuild = started;
+				} catch (RuntimeException e) {
+					log.warn("Payment analytics snapshot rebuild failed: {}", e.getMessage());
+				} finally {
+					rebuildPending.set(false);
+				}
+			});
+		} catch (TaskRejectedException e) {
+			rebuildPending.set(false);
+		}
+	}
+
+	private void rebuild() {
+		long started = System.nanoTime();
+		Columns rebuilt = new Columns();
+		try (Stream<Object[]> rows = paymentRepository.streamAnalyticsRows()) {
+			rows.forEach(rebuilt::upsert);
+		}
+		columnsLock.writeLock().lock();
+		try {
+			columns = rebuilt;
+		} finally {
+			columnsLock.writeLock().unlock();
+		}
+		log.info("Rebuilt payment analytics snapshot: {} payments in {} ms", rebuilt.size,
+				(System.nanoTime() - started) / 1_000_000);
+	}
+
+	private void applyChanges() {
+		Columns current = columns;
+		if (current.watermark == null) {
+			rebuild();
+			return;
+		}
+		List<Object[]> changed = paymentRepository.findAnalyticsRowsUpdatedSince(current.watermark.minus(overlap));
+		if (changed.isEmpty()) {
+			return;
+		}
+		columnsLock.writeLock().lock();
+		try {
+			changed.forEach(current::upsert);
+		} finally {
+			columnsLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * The arrays themselves; row i of every array is the same payment
+	 */
+	private static final class Columns {
+
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private long[] ids = new long[INITIAL_CAPACITY];
+		private long[] amountPaise = new long[INITIAL_CAPACITY];
+		private byte[] status = new byte[INITIAL_CAPACITY];
+		private int[] methodId = new int[INITIAL_CAPACITY];
+		private int[] epochDay = new int[INITIAL_CAPACITY];
+		private int size;
+
+		private final RowIndex rowById = new RowIndex(INITIAL_CAPACITY * 2);
+		private final List<String> methods = new ArrayList<>();
+		private final Map<String, Integer> methodIds = new HashMap<>();
+		private int minDay = Integer.MAX_VALUE;
+		private int maxDay = Integer.MIN_VALUE;
+		private LocalDateTime watermark;
+
+		/**
+		 * Row layout as in PaymentRepository.streamAnalyticsRows
+		 */
+		void upsert(Object[] row) {
+			long id = (Long) row[0];
+			int i = rowById.get(id);
+			if (i == RowIndex.NO_ROW) {
+				if (size == ids.length) {
+					grow();
+				}
+				i = size++;
+				ids[i] = id;
+				rowById.put(id, i);
+			}
+			Money amount = (Money) row[1];
+			PaymentStatus paymentStatus = (PaymentStatus) row[2];
+			LocalDate paymentDate = (LocalDate) row[4];
+			LocalDateTime updatedAt = (LocalDateTime) row[5];
+
+			amountPaise[i] = amount != null ? amount.paise() : 0;
+			// Rows the reports cannot place are kept out of every group
+			status[i] = paymentStatus != null && amount != null ? (byte) paymentStatus.ordinal() : -1;
+			methodId[i] = methodId((String) row[3]);
+			if (paymentDate != null) {
+				int day = (int) paymentDate.toEpochDay();
+				epochDay[i] = day;
+				minDay = Math.min(minDay, day);
+				maxDay = Math.max(maxDay, day);
+			} else {
+				epochDay[i] = Integer.MIN_VALUE;
+			}
+			if (updatedAt != null && (watermark == null || updatedAt.isAfter(watermark))) {
+				watermark = updatedAt;
+			}
+		}
+
+		private int methodId(String method) {
+			return methodIds.computeIfAbsent(method != null ? method : DailyRevenueRecorder.UNKNOWN, name -> {
+				methods.add(name);
+				return methods.size() - 1;
+			});
+		}
+
+		private void grow() {
+			int capacity = ids.length * 2;
+			ids = Arrays.copyOf(ids, capacity);
+			amountPaise = Arrays.copyOf(amountPaise, capacity);
+			status = Arrays.copyOf(status, capacity);
+			methodId = Arrays.copyOf(methodId, capacity);
+			epochDay = Arrays.copyOf(epochDay, capacity);
+		}
+	}
+
+	/**
+	 * Payment id to row: open addressing over primitive arrays, so no boxed
+	 * key, value and entry object per payment. Only ever grows, like the columns.
+	 */
+	private static final class RowIndex {
+
+		private static final int NO_ROW = -1;
+
+		private long[] ids;
+		private int[] rows;
+		private int size;
+
+		/**
+		 * @param capacity power of two
+		 */
+		RowIndex(int capacity) {
+			ids = new long[capacity];
+			rows = new int[capacity];
+			Arrays.fill(rows, NO_ROW);
+		}
+
+		int get(long id) {
+			int mask = ids.length - 1;
+			for (int slot = slot(id, mask);; slot = (slot + 1) & mask) {
+				if (rows[slot] == NO_ROW || ids[slot] == id) {
+					return rows[slot];
+				}
+			}
+		}
+
+		/**
+		 * For an id not in the index yet
+		 */
+		void put(long id, int row) {
+			// Kept at most half full, so probe runs stay short
+			if (++size * 2 > ids.length) {
+				long[] oldIds = ids;
+				int[] oldRows = rows;
+				ids = new long[oldIds.length * 2];
+				rows = new int[oldIds.length * 2];
+				Arrays.fill(rows, NO_ROW);
+				for (int slot = 0; slot < oldIds.length; slot++) {
+					if (oldRows[slot] != NO_ROW) {
+						insert(oldIds[slot], oldRows[slot]);
+					}
+				}
+			}
+			insert(id, row);
+		}
+
+		private void insert(long id, int row) {
+			int mask = ids.length - 1;
+			int slot = slot(id, mask);
+			while (rows[slot] != NO_ROW) {
+				slot = (slot + 1) & mask;
+			}
+			ids[slot] = id;
+			rows[slot] = row;
+		}
+
+		private static int slot(long id, int mask) {
+			// Fibonacci hashing spreads sequential ids over the table
+			return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+		}
+	}
+}
@@ -2,17 +2,21 @@ package com.stayinn.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.stayinn.dto.Payment.PaymentCreateDTO;
 import com.stayinn.dto.Payment.PaymentDetailDTO;
 import com.stayinn.dto.Payment.PaymentResponseDTO;
+import com.stayinn.dto.Payment.PaymentStatisticsDTO;
 import com.stayinn.dto.Payment.PaymentUpdateStatusDTO;
 import com.stayinn.dto.Payment.PaymentVerificationDTO;
 import com.stayinn.dto.Payment.RazorpayOrderResponse;
 import com.stayinn.dto.Payment.RazorpayVerificationDTO;
 import com.stayinn.dto.Payment.RefundRequestDTO;
+import com.stayinn.dto.Payment.RevenueReportDTO;
 import com.stayinn.dto.Payment.SimplePaymentDTO;
 import com.stayinn.entities.PaymentStatus;
+import com.stayinn.money.Money;
 
 public interface PaymentService {
     
@@ -149,7 +153,7 @@ public interface PaymentService {
      * Get payment statistics
      * @return payment statistics
      */
-//    PaymentStatisticsDTO getPaymentStatistics();
+    PaymentStatisticsDTO getPaymentStatistics();
     
     /**
      * Get revenue report for date range
@@ -157,13 +161,21 @@ public interface PaymentService {
      * @param endDate end date
      * @return revenue report
      */
-//    RevenueReportDTO getRevenueReport(LocalDate startDate, LocalDate endDate);
+    RevenueReportDTO getRevenueReport(LocalDate startDate, LocalDate endDate);
     
     /**
      * Calculate total revenue
      * @return total revenue from completed payments
      */
-    Double calculateTotalRevenue();
+    Money calculateTotalRevenue();
+    
+    /**
+     * Calculate revenue for a payment date range
+     * @param startDate start date (inclusive)
+     * @param endDate end date (inclusive)
+     * @return revenue from completed payments in the range
+     */
+    Money calculateRevenueInDateRange(LocalDate startDate, LocalDate endDate);
     
     /**
      * Get all payments (Admin only)
@@ -171,6 +183,12 @@ public interface PaymentService {
      */
     List<PaymentResponseDTO> getAllPayments();
     
+    /**
+     * Stream all payments to the sink without building the list (Admin export)
+     * @param sink receives each payment in id order
+     */
+    void exportAllPayments(Consumer<PaymentResponseDTO> sink);
+    
     /**
      * Delete payment (Admin only)
      * @param id payment ID
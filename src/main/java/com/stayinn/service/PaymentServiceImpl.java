@@ -5,7 +5,9 @@ import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import javax.crypto.Mac;
@@ -23,17 +25,24 @@ import com.stayinn.config.RazorpayConfig;
 import com.stayinn.dto.Payment.PaymentCreateDTO;
 import com.stayinn.dto.Payment.PaymentDetailDTO;
 import com.stayinn.dto.Payment.PaymentResponseDTO;
+import com.stayinn.dto.Payment.PaymentStatisticsDTO;
 import com.stayinn.dto.Payment.PaymentUpdateStatusDTO;
 import com.stayinn.dto.Payment.PaymentVerificationDTO;
 import com.stayinn.dto.Payment.RazorpayOrderResponse;
 import com.stayinn.dto.Payment.RazorpayVerificationDTO;
 import com.stayinn.dto.Payment.RefundRequestDTO;
+import com.stayinn.dto.Payment.RevenueReportDTO;
 import com.stayinn.dto.Payment.SimplePaymentDTO;
 import com.stayinn.entities.Booking;
 import com.stayinn.entities.PaymentStatus;
+import com.stayinn.metrics.BusinessMetrics;
+import com.stayinn.metrics.PaymentLifecycleEvent;
+import com.stayinn.money.Money;
 import com.stayinn.repository.BookingRepository;
+import com.stayinn.repository.DailyRevenueRepository;
 import com.stayinn.repository.PaymentRepository;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -48,6 +57,11 @@ public class PaymentServiceImpl implements PaymentService {
     private final BookingService bookingService;
     private final RazorpayClient razorpayClient;
     private final RazorpayConfig razorpayConfig;
+    private final BusinessMetrics businessMetrics;
+    private final EntityManager entityManager;
+    private final DailyRevenueRecorder dailyRevenueRecorder;
+    private final DailyRevenueRepository dailyRevenueRepository;
+    private final PaymentColumnSnapshot paymentColumnSnapshot;
     
     @Override
     public PaymentResponseDTO createPayment(PaymentCreateDTO paymentCreateDTO) {
@@ -60,7 +74,7 @@ public class PaymentServiceImpl implements PaymentService {
             throw new RuntimeException("Payment already exists for this booking");
         }
         
-        if (!paymentCreateDTO.getAmount().equals(booking.getTotalPrice())) {
+        if (paymentCreateDTO.getAmount().compareTo(booking.getTotalPrice()) != 0) {
             throw new RuntimeException("Payment amount does not match booking total");
         }
         
@@ -82,104 +96,121 @@ public class PaymentServiceImpl implements PaymentService {
     // ========== RAZORPAY INTEGRATION ==========
     
     @Override
+    @Transactional(rollbackFor = Exception.class) // a gateway failure (checked) must not leave the PENDING payment behind
     public RazorpayOrderResponse createRazorpayOrder(Long bookingId) throws Exception {
-        log.info("Creating Razorpay order for booking ID: {}", bookingId);
-        
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found"));
-        
-        if (paymentRepository.existsByBookingId(bookingId)) {
-            throw new RuntimeException("Payment already exists for this booking");
+        PaymentLifecycleEvent event = PaymentLifecycleEvent.begin("order").payment(null, bookingId);
+        try {
+            log.info("Creating Razorpay order for booking ID: {}", bookingId);
+
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found"));
+
+            if (paymentRepository.existsByBookingId(bookingId)) {
+                throw new RuntimeException("Payment already exists for this booking");
+            }
+
+            // Create payment record first
+            com.stayinn.entities.Payment payment = new com.stayinn.entities.Payment();
+            payment.setBooking(booking);
+            payment.setAmount(booking.getTotalPrice());
+            payment.setPaymentMethod("ONLINE");
+            payment.setPaymentGateway("RAZORPAY");
+            payment.setPaymentDate(LocalDate.now());
+            payment.setStatus(PaymentStatus.PENDING);
+            payment.setTransactionId("PENDING_" + UUID.randomUUID().toString().substring(0, 8));
+
+            com.stayinn.entities.Payment savedPayment = paymentRepository.save(payment);
+            event.payment(savedPayment.getId(), bookingId);
+
+            // Create Razorpay order
+            String receipt = "receipt_" + bookingId + "_" + System.currentTimeMillis();
+
+            JSONObject orderRequest = new JSONObject();
+            orderRequest.put("amount", booking.getTotalPrice().paise()); // Razorpay takes paise
+            orderRequest.put("currency", razorpayConfig.getCurrency());
+            orderRequest.put("receipt", receipt);
+
+            JSONObject notes = new JSONObject();
+            notes.put("booking_id", bookingId);
+            notes.put("payment_id", savedPayment.getId());
+            notes.put("user_id", booking.getUser().getId());
+            notes.put("villa_id", booking.getVilla().getId());
+            orderRequest.put("notes", notes);
+
+            Order order = businessMetrics.recordGatewayCall("orders.create",
+                    () -> razorpayClient.orders.create(orderRequest));
+
+            // Update payment with Razorpay order ID
+            savedPayment.setTransactionId(order.get("id"));
+            paymentRepository.save(savedPayment);
+
+//            log.info("Razorpay order created: {}", order.get("id"));
+
+            // Prepare response
+            RazorpayOrderResponse response = new RazorpayOrderResponse();
+            response.setOrderId(order.get("id"));
+            response.setCurrency(order.get("currency"));
+            response.setAmount(order.get("amount"));
+            response.setKeyId(razorpayConfig.getKeyId());
+            response.setBookingId(bookingId);
+            response.setPaymentId(savedPayment.getId());
+            response.setUserName(booking.getUser().getName());
+            response.setUserEmail(booking.getUser().getEmail());
+//            response.setUserPhone(booking.getUser().getMobile());
+            response.setVillaName(booking.getVilla().getName());
+            response.setCompanyName(razorpayConfig.getCompanyName());
+
+            event.succeeded();
+            return response;
+        } finally {
+            event.finish();
         }
-        
-        // Convert to paise
-        Integer amountInPaise = (int) (booking.getTotalPrice() * 100);
-        
-        // Create payment record first
-        com.stayinn.entities.Payment payment = new com.stayinn.entities.Payment();
-        payment.setBooking(booking);
-        payment.setAmount(booking.getTotalPrice());
-        payment.setPaymentMethod("ONLINE");
-        payment.setPaymentGateway("RAZORPAY");
-        payment.setPaymentDate(LocalDate.now());
-        payment.setStatus(PaymentStatus.PENDING);
-        payment.setTransactionId("PENDING_" + UUID.randomUUID().toString().substring(0, 8));
-        
-        com.stayinn.entities.Payment savedPayment = paymentRepository.save(payment);
-        
-        // Create Razorpay order
-        String receipt = "receipt_" + bookingId + "_" + System.currentTimeMillis();
-        
-        JSONObject orderRequest = new JSONObject();
-        orderRequest.put("amount", amountInPaise);
-        orderRequest.put("currency", razorpayConfig.getCurrency());
-        orderRequest.put("receipt", receipt);
-        
-        JSONObject notes = new JSONObject();
-        notes.put("booking_id", bookingId);
-        notes.put("payment_id", savedPayment.getId());
-        notes.put("user_id", booking.getUser().getId());
-        notes.put("villa_id", booking.getVilla().getId());
-        orderRequest.put("notes", notes);
-        
-        Order order = razorpayClient.orders.create(orderRequest);
-        
-        // Update payment with Razorpay order ID
-        savedPayment.setTransactionId(order.get("id"));
-        paymentRepository.save(savedPayment);
-        
-//        log.info("Razorpay order created: {}", order.get("id"));
-        
-        // Prepare response
-        RazorpayOrderResponse response = new RazorpayOrderResponse();
-        response.setOrderId(order.get("id"));
-        response.setCurrency(order.get("currency"));
-        response.setAmount(order.get("amount"));
-        response.setKeyId(razorpayConfig.getKeyId());
-        response.setBookingId(bookingId);
-        response.setPaymentId(savedPayment.getId());
-        response.setUserName(booking.getUser().getName());
-        response.setUserEmail(booking.getUser().getEmail());
-//        response.setUserPhone(booking.getUser().getMobile());
-        response.setVillaName(booking.getVilla().getName());
-        response.setCompanyName(razorpayConfig.getCompanyName());
-        
-        return response;
     }
     
     @Override
     public PaymentResponseDTO verifyAndCapturePayment(RazorpayVerificationDTO verificationDTO) throws Exception {
-        log.info("Verifying Razorpay payment: {}", verificationDTO.getRazorpayPaymentId());
-        
-        // Verify signature
-        if (!verifySignature(verificationDTO)) {
-            throw new RuntimeException("Invalid payment signature");
-        }
-        
-        // Fetch payment details from Razorpay
-        Payment razorpayPayment = razorpayClient.payments.fetch(verificationDTO.getRazorpayPaymentId());
-        
-        String status = razorpayPayment.get("status");
-        if (!"captured".equals(status) && !"authorized".equals(status)) {
-            throw new RuntimeException("Payment not successful. Status: " + status);
+        PaymentLifecycleEvent event = PaymentLifecycleEvent.begin("verify");
+        try {
+            log.info("Verifying Razorpay payment: {}", verificationDTO.getRazorpayPaymentId());
+
+            // Verify signature
+            if (!businessMetrics.recordSignatureVerification(() -> verifySignature(verificationDTO))) {
+                throw new RuntimeException("Invalid payment signature");
+            }
+
+            // Fetch payment details from Razorpay
+            Payment razorpayPayment = businessMetrics.recordGatewayCall("payments.fetch",
+                    () -> razorpayClient.payments.fetch(verificationDTO.getRazorpayPaymentId()));
+
+            String status = razorpayPayment.get("status");
+            if (!"captured".equals(status) && !"authorized".equals(status)) {
+                throw new RuntimeException("Payment not successful. Status: " + status);
+            }
+
+            // Find payment by order ID
+            com.stayinn.entities.Payment payment = paymentRepository.findByTransactionId(verificationDTO.getRazorpayOrderId())
+                    .orElseThrow(() -> new RuntimeException("Payment not found"));
+            event.payment(payment.getId(), payment.getBooking().getId());
+
+            // Update payment
+            PaymentStatus previousStatus = payment.getStatus();
+            LocalDate previousDate = payment.getPaymentDate();
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setTransactionId(verificationDTO.getRazorpayPaymentId());
+            payment.setPaymentDate(LocalDate.now());
+
+            com.stayinn.entities.Payment completedPayment = paymentRepository.save(payment);
+            dailyRevenueRecorder.statusChanged(completedPayment, previousStatus, previousDate);
+
+            // Confirm booking
+            bookingService.confirmBooking(payment.getBooking().getId());
+
+            log.info("Payment verified and booking confirmed");
+            event.succeeded();
+            return mapToResponseDTO(completedPayment);
+        } finally {
+            event.finish();
         }
-        
-        // Find payment by order ID
-        com.stayinn.entities.Payment payment = paymentRepository.findByTransactionId(verificationDTO.getRazorpayOrderId())
-                .orElseThrow(() -> new RuntimeException("Payment not found"));
-        
-        // Update payment
-        payment.setStatus(PaymentStatus.COMPLETED);
-        payment.setTransactionId(verificationDTO.getRazorpayPaymentId());
-        payment.setPaymentDate(LocalDate.now());
-        
-        com.stayinn.entities.Payment completedPayment = paymentRepository.save(payment);
-        
-        // Confirm booking
-        bookingService.confirmBooking(payment.getBooking().getId());
-        
-        log.info("Payment verified and booking confirmed");
-        return mapToResponseDTO(completedPayment);
     }
     
     private boolean verifySignature(RazorpayVerificationDTO verification) {
@@ -269,12 +300,14 @@ public class PaymentServiceImpl implements PaymentService {
         com.stayinn.entities.Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
         
+        PaymentStatus previousStatus = payment.getStatus();
         payment.setStatus(updateStatusDTO.getStatus());
         if (updateStatusDTO.getTransactionId() != null) {
             payment.setTransactionId(updateStatusDTO.getTransactionId());
         }
         
         com.stayinn.entities.Payment updatedPayment = paymentRepository.save(payment);
+        dailyRevenueRecorder.statusChanged(updatedPayment, previousStatus, updatedPayment.getPaymentDate());
         return mapToResponseDTO(updatedPayment);
     }
     
@@ -287,11 +320,14 @@ public class PaymentServiceImpl implements PaymentService {
             throw new RuntimeException("Payment already completed");
         }
         
+        PaymentStatus previousStatus = payment.getStatus();
+        LocalDate previousDate = payment.getPaymentDate();
         payment.setStatus(PaymentStatus.COMPLETED);
         payment.setTransactionId(transactionId);
         payment.setPaymentDate(LocalDate.now());
         
         com.stayinn.entities.Payment completedPayment = paymentRepository.save(payment);
+        dailyRevenueRecorder.statusChanged(completedPayment, previousStatus, previousDate);
         bookingService.confirmBooking(payment.getBooking().getId());
         
         return mapToResponseDTO(completedPayment);
@@ -302,56 +338,65 @@ public class PaymentServiceImpl implements PaymentService {
         com.stayinn.entities.Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
         
+        PaymentStatus previousStatus = payment.getStatus();
         payment.setStatus(PaymentStatus.FAILED);
         com.stayinn.entities.Payment failedPayment = paymentRepository.save(payment);
+        dailyRevenueRecorder.statusChanged(failedPayment, previousStatus, failedPayment.getPaymentDate());
         
         return mapToResponseDTO(failedPayment);
     }
     
     @Override
     public PaymentResponseDTO processRefund(RefundRequestDTO refundRequestDTO) {
-        log.info("Processing refund for payment ID: {}", refundRequestDTO.getPaymentId());
-        
-        com.stayinn.entities.Payment payment = paymentRepository.findById(refundRequestDTO.getPaymentId())
-                .orElseThrow(() -> new RuntimeException("Payment not found"));
-        
-        if (payment.getStatus() != PaymentStatus.COMPLETED) {
-            throw new RuntimeException("Only completed payments can be refunded");
-        }
-        
-        if (refundRequestDTO.getRefundAmount() > payment.getAmount()) {
-            throw new RuntimeException("Refund amount exceeds payment amount");
-        }
-        
-        // Process refund through Razorpay
+        PaymentLifecycleEvent event = PaymentLifecycleEvent.begin("refund");
         try {
-            Integer amountInPaise = (int) (refundRequestDTO.getRefundAmount() * 100);
-            
-            JSONObject refundRequest = new JSONObject();
-            refundRequest.put("amount", amountInPaise);
-            refundRequest.put("speed", "normal");
-            
-            JSONObject notes = new JSONObject();
-            notes.put("reason", refundRequestDTO.getReason());
-            notes.put("booking_id", payment.getBooking().getId());
-            refundRequest.put("notes", notes);
-            
-            Refund refund = razorpayClient.payments.refund(payment.getTransactionId(), refundRequest);
-//            log.info("Razorpay refund processed: {}", refund.get("id"));
-            
-        } catch (Exception e) {
-            log.error("Razorpay refund failed: {}", e.getMessage());
-            throw new RuntimeException("Refund processing failed: " + e.getMessage());
+            log.info("Processing refund for payment ID: {}", refundRequestDTO.getPaymentId());
+
+            com.stayinn.entities.Payment payment = paymentRepository.findById(refundRequestDTO.getPaymentId())
+                    .orElseThrow(() -> new RuntimeException("Payment not found"));
+            event.payment(payment.getId(), payment.getBooking().getId());
+
+            if (payment.getStatus() != PaymentStatus.COMPLETED) {
+                throw new RuntimeException("Only completed payments can be refunded");
+            }
+
+            if (refundRequestDTO.getRefundAmount().isGreaterThan(payment.getAmount())) {
+                throw new RuntimeException("Refund amount exceeds payment amount");
+            }
+
+            // Process refund through Razorpay
+            try {
+                JSONObject refundRequest = new JSONObject();
+                refundRequest.put("amount", refundRequestDTO.getRefundAmount().paise());
+                refundRequest.put("speed", "normal");
+
+                JSONObject notes = new JSONObject();
+                notes.put("reason", refundRequestDTO.getReason());
+                notes.put("booking_id", payment.getBooking().getId());
+                refundRequest.put("notes", notes);
+
+                Refund refund = businessMetrics.recordGatewayCall("payments.refund",
+                        () -> razorpayClient.payments.refund(payment.getTransactionId(), refundRequest));
+//                log.info("Razorpay refund processed: {}", refund.get("id"));
+
+            } catch (Exception e) {
+                log.error("Razorpay refund failed: {}", e.getMessage());
+                throw new RuntimeException("Refund processing failed: " + e.getMessage());
+            }
+
+            // Update payment status
+            payment.setStatus(PaymentStatus.REFUNDED);
+            com.stayinn.entities.Payment refundedPayment = paymentRepository.save(payment);
+            dailyRevenueRecorder.statusChanged(refundedPayment, PaymentStatus.COMPLETED, refundedPayment.getPaymentDate());
+
+            // Cancel booking
+            bookingService.cancelBooking(payment.getBooking().getId(), refundRequestDTO.getReason());
+
+            event.succeeded();
+            return mapToResponseDTO(refundedPayment);
+        } finally {
+            event.finish();
         }
-        
-        // Update payment status
-        payment.setStatus(PaymentStatus.REFUNDED);
-        com.stayinn.entities.Payment refundedPayment = paymentRepository.save(payment);
-        
-        // Cancel booking
-        bookingService.cancelBooking(payment.getBooking().getId(), refundRequestDTO.getReason());
-        
-        return mapToResponseDTO(refundedPayment);
     }
     
     @Override
@@ -403,63 +448,57 @@ public class PaymentServiceImpl implements PaymentService {
                 .collect(Collectors.toList());
     }
     
-//    @Override
-//    @Transactional(readOnly = true)
-//    public PaymentStatisticsDTO getPaymentStatistics() {
-//        List<com.stayinn.entities.Payment> allPayments = paymentRepository.findAll();
-//        
-//        long totalPayments = allPayments.size();
-//        long completedPayments = paymentRepository.countByStatus(PaymentStatus.COMPLETED);
-//        long pendingPayments = paymentRepository.countByStatus(PaymentStatus.PENDING);
-//        long failedPayments = paymentRepository.countByStatus(PaymentStatus.FAILED);
-//        long refundedPayments = paymentRepository.countByStatus(PaymentStatus.REFUNDED);
-//        
-//        Double totalRevenue = paymentRepository.calculateTotalRevenue();
-//        if (totalRevenue == null) totalRevenue = 0.0;
-//        
-//        Double averagePaymentAmount = completedPayments > 0 ? totalRevenue / completedPayments : 0.0;
-//        
-//        List<Object[]> distributionData = paymentRepository.getPaymentMethodDistribution();
-//        Map<String, Long> paymentMethodDistribution = new HashMap<>();
-//        for (Object[] row : distributionData) {
-//            paymentMethodDistribution.put((String) row[0], (Long) row[1]);
-//        }
-//        
-//        return new PaymentStatisticsDTO(
-//                totalPayments, completedPayments, pendingPayments, failedPayments,
-//                refundedPayments, totalRevenue, averagePaymentAmount, paymentMethodDistribution
-//        );
-//    }
-    
-//    @Override
-//    @Transactional(readOnly = true)
-//    public RevenueReportDTO getRevenueReport(LocalDate startDate, LocalDate endDate) {
-//        Double totalRevenue = paymentRepository.calculateRevenueInDateRange(startDate, endDate);
-//        if (totalRevenue == null) totalRevenue = 0.0;
-//        
-//        List<com.stayinn.entities.Payment> paymentsInRange = paymentRepository
-//                .findByPaymentDateBetween(startDate, endDate).stream()
-//                .filter(p -> p.getStatus() == PaymentStatus.COMPLETED)
-//                .collect(Collectors.toList());
-//        
-//        long totalTransactions = paymentsInRange.size();
-//        Double averageTransactionValue = totalTransactions > 0 ? totalRevenue / totalTransactions : 0.0;
-//        
-//        Map<String, Double> revenueByPaymentMethod = paymentsInRange.stream()
-//                .collect(Collectors.groupingBy(
-//                        com.stayinn.entities.Payment::getPaymentMethod,
-//                        Collectors.summingDouble(com.stayinn.entities.Payment::getAmount)
-//                ));
-//        
-//        return new RevenueReportDTO(startDate, endDate, totalRevenue, totalTransactions,
-//                averageTransactionValue, revenueByPaymentMethod);
-//    }
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentStatisticsDTO getPaymentStatistics() {
+        PaymentColumnSnapshot.Statistics statistics = paymentColumnSnapshot.statistics();
+        
+        long completedPayments = statistics.count(PaymentStatus.COMPLETED);
+        long totalPayments = 0;
+        for (long count : statistics.countByStatus()) {
+            totalPayments += count;
+        }
+        
+        Money totalRevenue = Money.ofPaise(statistics.paise(PaymentStatus.COMPLETED));
+        Money averagePaymentAmount = completedPayments > 0 ? totalRevenue.dividedBy(completedPayments) : Money.ZERO;
+        
+        return new PaymentStatisticsDTO(
+                totalPayments, completedPayments, statistics.count(PaymentStatus.PENDING),
+                statistics.count(PaymentStatus.FAILED), statistics.count(PaymentStatus.REFUNDED),
+                totalRevenue, averagePaymentAmount, statistics.completedByMethod()
+        );
+    }
     
     @Override
     @Transactional(readOnly = true)
-    public Double calculateTotalRevenue() {
-        Double revenue = paymentRepository.calculateTotalRevenue();
-        return revenue != null ? revenue : 0.0;
+    public RevenueReportDTO getRevenueReport(LocalDate startDate, LocalDate endDate) {
+        PaymentColumnSnapshot.RangeReport range = paymentColumnSnapshot.completedBetween(startDate, endDate);
+        
+        Money totalRevenue = Money.ofPaise(range.paise());
+        long totalTransactions = range.count();
+        Money averageTransactionValue = totalTransactions > 0 ? totalRevenue.dividedBy(totalTransactions) : Money.ZERO;
+        
+        Map<String, Money> revenueByPaymentMethod = new HashMap<>();
+        range.paiseByMethod().forEach((method, paise) -> revenueByPaymentMethod.put(method, Money.ofPaise(paise)));
+        Map<LocalDate, Money> revenueByDay = new TreeMap<>();
+        range.paiseByDay().forEach((day, paise) -> revenueByDay.put(day, Money.ofPaise(paise)));
+        
+        return new RevenueReportDTO(startDate, endDate, totalRevenue, totalTransactions,
+                averageTransactionValue, revenueByPaymentMethod, revenueByDay);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Money calculateTotalRevenue() {
+        Long revenue = dailyRevenueRepository.sumCompletedPaise();
+        return revenue != null ? Money.ofPaise(revenue) : Money.ZERO;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Money calculateRevenueInDateRange(LocalDate startDate, LocalDate endDate) {
+        Long revenue = dailyRevenueRepository.sumCompletedPaiseBetween(startDate, endDate);
+        return revenue != null ? Money.ofPaise(revenue) : Money.ZERO;
     }
     
     @Override
@@ -470,12 +509,19 @@ public class PaymentServiceImpl implements PaymentService {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllPayments(Consumer<PaymentResponseDTO> sink) {
+        log.info("Exporting all payments");
+        ExportStreams.forEach(paymentRepository.streamAllForExport(), entityManager, this::mapToResponseDTO, sink);
+    }
+    
     @Override
     public void deletePayment(Long id) {
-        if (!paymentRepository.existsById(id)) {
-            throw new RuntimeException("Payment not found");
-        }
-        paymentRepository.deleteById(id);
+        com.stayinn.entities.Payment payment = paymentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Payment not found"));
+        dailyRevenueRecorder.removed(payment);
+        paymentRepository.delete(payment);
     }
     
     @Override
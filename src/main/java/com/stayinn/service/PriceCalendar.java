@@ -0,0 +1,115 @@
+package com.stayinn.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import com.stayinn.entities.SeasonalRate;
+import com.stayinn.entities.StayDiscount;
+import com.stayinn.entities.Villa;
+import com.stayinn.money.Money;
+
+/**
+ * Nightly prices of one villa over a run of days, materialized from its
+ * pricing rules into a paise array with prefix sums, so the nightly total of
+ * any stay inside it is one subtraction. Immutable once built.
+ */
+final class PriceCalendar {
+
+	private final long startDay;
+	private final long[] nightly;
+	private final long[] prefix;
+	private final int[] discountMinNights;
+	private final int[] discountPercent;
+
+	private PriceCalendar(long startDay, long[] nightly, int[] discountMinNights, int[] discountPercent) {
+		this.startDay = startDay;
+		this.nightly = nightly;
+		this.prefix = new long[nightly.length + 1];
+		for (int i = 0; i < nightly.length; i++) {
+			prefix[i + 1] = prefix[i] + nightly[i];
+		}
+		this.discountMinNights = discountMinNights;
+		this.discountPercent = discountPercent;
+	}
+
+	/**
+	 * @param rates     seasons, earliest start first (a later season overwrites an earlier one)
+	 * @param discounts stay discounts, fewest nights first
+	 */
+	static PriceCalendar build(Villa villa, List<SeasonalRate> rates, List<StayDiscount> discounts, LocalDate start,
+			int days) {
+		long first = start.toEpochDay();
+		long[] nightly = new long[days];
+		Arrays.fill(nightly, villa.getPricePerNight().paise());
+
+		for (SeasonalRate rate : rates) {
+			long from = Math.max(rate.getStartDate().toEpochDay(), first);
+			long to = Math.min(rate.getEndDate().toEpochDay(), first + days - 1);
+			for (long day = from; day <= to; day++) {
+				nightly[(int) (day - first)] = rate.getNightlyRate().paise();
+			}
+		}
+
+		int uplift = villa.getWeekendUpliftPercent() != null ? villa.getWeekendUpliftPercent() : 0;
+		if (uplift != 0) {
+			for (int i = 0; i < days; i++) {
+				if (isWeekendNight(LocalDate.ofEpochDay(first + i))) {
+					nightly[i] = percentOf(nightly[i], 100 + uplift);
+				}
+			}
+		}
+
+		int[] minNights = new int[discounts.size()];
+		int[] percent = new int[discounts.size()];
+		for (int i = 0; i < discounts.size(); i++) {
+			minNights[i] = discounts.get(i).getMinNights();
+			percent[i] = discounts.get(i).getPercentOff();
+		}
+		return new PriceCalendar(first, nightly, minNights, percent);
+	}
+
+	static boolean isWeekendNight(LocalDate night) {
+		DayOfWeek day = night.getDayOfWeek();
+		return day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY;
+	}
+
+	LocalDate startDate() {
+		return LocalDate.ofEpochDay(startDay);
+	}
+
+	/**
+	 * Whether every night from checkIn up to (not including) checkOut is in this calendar
+	 */
+	boolean covers(LocalDate checkIn, LocalDate checkOut) {
+		return checkIn.toEpochDay() >= startDay && checkOut.toEpochDay() <= startDay + nightly.length;
+	}
+
+	long nightPaise(LocalDate night) {
+		return nightly[(int) (night.toEpochDay() - startDay)];
+	}
+
+	/**
+	 * Price of the stay: nightly total less the largest length-of-stay discount it qualifies for
+	 */
+	Money quote(LocalDate checkIn, LocalDate checkOut) {
+		int from = (int) (checkIn.toEpochDay() - startDay);
+		int to = (int) (checkOut.toEpochDay() - startDay);
+		long total = prefix[to] - prefix[from];
+		int percentOff = discountPercent(to - from);
+		return Money.ofPaise(percentOff > 0 ? total - percentOf(total, percentOff) : total);
+	}
+
+	private int discountPercent(int nights) {
+		int best = 0;
+		for (int i = 0; i < discountMinNights.length && discountMinNights[i] <= nights; i++) {
+			best = Math.max(best, discountPercent[i]);
+		}
+		return best;
+	}
+
+	private static long percentOf(long paise, int percent) {
+		return Money.ofPaise(paise).times(percent).dividedBy(100).paise();
+	}
+}
@@ -0,0 +1,50 @@
+package com.stayinn.service;
+
+import java.time.LocalDate;
+
+import com.stayinn.dto.Villa.PriceCalendarDTO;
+import com.stayinn.dto.Villa.VillaPricingDTO;
+import com.stayinn.money.Money;
+
+public interface PricingService {
+
+    /**
+     * Price of a stay: seasonal rates, weekend uplift and the best length-of-stay discount applied
+     * @param villaId villa being booked
+     * @param checkIn first night
+     * @param checkOut departure day (not charged)
+     * @return total price of the stay
+     */
+    Money quoteStay(Long villaId, LocalDate checkIn, LocalDate checkOut);
+
+    /**
+     * Nightly prices for the booking calendar
+     * @param villaId villa ID
+     * @param startDate first night
+     * @param endDate last night (inclusive)
+     * @return nightly prices plus the rules behind them
+     * @throws IllegalArgumentException if the range is reversed or too long
+     */
+    PriceCalendarDTO getPriceCalendar(Long villaId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Get the pricing rules of a villa
+     * @param villaId villa ID
+     * @return weekend uplift, seasonal rates and stay discounts
+     */
+    VillaPricingDTO getVillaPricing(Long villaId);
+
+    /**
+     * Replace the pricing rules of a villa (Admin only)
+     * @param villaId villa ID
+     * @param pricingDTO new rules
+     * @return the stored rules
+     */
+    VillaPricingDTO updateVillaPricing(Long villaId, VillaPricingDTO pricingDTO);
+
+    /**
+     * Remove the seasonal rates and stay discounts of a villa that is being deleted
+     * @param villaId villa ID
+     */
+    void deleteVillaPricing(Long villaId);
+}
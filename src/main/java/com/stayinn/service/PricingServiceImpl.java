@@ -0,0 +1,219 @@
+package com.stayinn.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.stayinn.dto.Villa.PriceCalendarDTO;
+import com.stayinn.dto.Villa.VillaPricingDTO;
+import com.stayinn.entities.SeasonalRate;
+import com.stayinn.entities.StayDiscount;
+import com.stayinn.entities.Villa;
+import com.stayinn.event.VillaChangedEvent;
+import com.stayinn.money.Money;
+import com.stayinn.repository.SeasonalRateRepository;
+import com.stayinn.repository.StayDiscountRepository;
+import com.stayinn.repository.VillaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prices stays from a per-villa {@link PriceCalendar} covering today plus
+ * the configured horizon, kept in memory and rebuilt when the villa changes
+ * or the day rolls over. Stays beyond the horizon get a one-off calendar.
+ * <p>
+ * Calendars are built in the caller's transaction and tagged with the villa's
+ * change generation (see {@link VillaGenerations}); a calendar that raced with a
+ * pricing update is never served. Rating changes leave calendars alone.
+ */
+@Service
+@Slf4j
+@Transactional
+public class PricingServiceImpl implements PricingService {
+
+	private final VillaRepository villaRepository;
+	private final SeasonalRateRepository seasonalRateRepository;
+	private final StayDiscountRepository stayDiscountRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int horizonDays;
+	private final VillaGenerations generations;
+
+	private final Map<Long, CachedCalendar> calendars = new ConcurrentHashMap<>();
+
+	private record CachedCalendar(long generation, PriceCalendar calendar) {
+	}
+
+	public PricingServiceImpl(VillaRepository villaRepository, SeasonalRateRepository seasonalRateRepository,
+			StayDiscountRepository stayDiscountRepository, ApplicationEventPublisher eventPublisher,
+			@Value("${stayinn.pricing.horizon-days:365}") int horizonDays,
+			@Value("${stayinn.datasource.replica.url:}") String replicaUrl,
+			@Value("${stayinn.datasource.replica.max-lag:5s}") Duration replicaMaxLag) {
+		if (horizonDays <= 0) {
+			throw new IllegalArgumentException("stayinn.pricing.horizon-days must be greater than 0");
+		}
+		this.villaRepository = villaRepository;
+		this.seasonalRateRepository = seasonalRateRepository;
+		this.stayDiscountRepository = stayDiscountRepository;
+		this.eventPublisher = eventPublisher;
+		this.horizonDays = horizonDays;
+		this.generations = new VillaGenerations(VillaGenerations.replicaLag(replicaUrl, replicaMaxLag));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Money quoteStay(Long villaId, LocalDate checkIn, LocalDate checkOut) {
+		PriceCalendar calendar = calendarFor(villaId);
+		if (!calendar.covers(checkIn, checkOut)) {
+			calendar = build(villaId, checkIn, (int) ChronoUnit.DAYS.between(checkIn, checkOut));
+		}
+		return calendar.quote(checkIn, checkOut);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PriceCalendarDTO getPriceCalendar(Long villaId, LocalDate startDate, LocalDate endDate) {
+		log.info("Fetching price calendar for villa {} from {} to {}", villaId, startDate, endDate);
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException("End date must not be before start date");
+		}
+		long nights = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+		if (nights > horizonDays) {
+			throw new IllegalArgumentException("Price calendar covers at most " + horizonDays + " nights");
+		}
+
+		Villa villa = villaRepository.findById(villaId)
+				.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + villaId));
+		PriceCalendar cached = calendarFor(villaId);
+		PriceCalendar calendar = cached.covers(startDate, endDate.plusDays(1)) ? cached
+				: build(villaId, startDate, (int) nights);
+
+		List<Money> prices = startDate.datesUntil(endDate.plusDays(1))
+				.map(night -> Money.ofPaise(calendar.nightPaise(night)))
+				.toList();
+		return new PriceCalendarDTO(villaId, startDate, endDate, villa.getPricePerNight(),
+				villa.getWeekendUpliftPercent(), prices, stayDiscountRepository.findByVillaIdOrderByMinNightsAsc(villaId)
+						.stream().map(this::mapToDTO).toList());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public VillaPricingDTO getVillaPricing(Long villaId) {
+		Villa villa = villaRepository.findById(villaId)
+				.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + villaId));
+		return mapToDTO(villa, seasonalRateRepository.findByVillaIdOrderByStartDateAscIdAsc(villaId),
+				stayDiscountRepository.findByVillaIdOrderByMinNightsAsc(villaId));
+	}
+
+	@Override
+	public VillaPricingDTO updateVillaPricing(Long villaId, VillaPricingDTO pricingDTO) {
+		log.info("Updating pricing rules of villa {}", villaId);
+		Villa villa = villaRepository.findById(villaId)
+				.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + villaId));
+
+		for (VillaPricingDTO.SeasonalRate season : pricingDTO.getSeasonalRates()) {
+			if (season.getEndDate().isBefore(season.getStartDate())) {
+				throw new RuntimeException("Season ending " + season.getEndDate() + " starts after it ends");
+			}
+		}
+		Set<Integer> discountNights = new HashSet<>();
+		for (VillaPricingDTO.StayDiscount discount : pricingDTO.getStayDiscounts()) {
+			if (!discountNights.add(discount.getMinNights())) {
+				throw new RuntimeException("More than one stay discount for " + discount.getMinNights() + " nights");
+			}
+		}
+
+		villa.setWeekendUpliftPercent(pricingDTO.getWeekendUpliftPercent());
+		villaRepository.save(villa);
+
+		seasonalRateRepository.deleteByVillaId(villaId);
+		seasonalRateRepository.saveAll(pricingDTO.getSeasonalRates().stream().map(season -> {
+			SeasonalRate rate = new SeasonalRate();
+			rate.setVilla(villa);
+			rate.setStartDate(season.getStartDate());
+			rate.setEndDate(season.getEndDate());
+			rate.setNightlyRate(season.getNightlyRate());
+			return rate;
+		}).toList());
+
+		stayDiscountRepository.deleteByVillaId(villaId);
+		stayDiscountRepository.saveAll(pricingDTO.getStayDiscounts().stream().map(dto -> {
+			StayDiscount discount = new StayDiscount();
+			discount.setVilla(villa);
+			discount.setMinNights(dto.getMinNights());
+			discount.setPercentOff(dto.getPercentOff());
+			return discount;
+		}).toList());
+
+		eventPublisher.publishEvent(new VillaChangedEvent(villaId));
+		return mapToDTO(villa, seasonalRateRepository.findByVillaIdOrderByStartDateAscIdAsc(villaId),
+				stayDiscountRepository.findByVillaIdOrderByMinNightsAsc(villaId));
+	}
+
+	@Override
+	public void deleteVillaPricing(Long villaId) {
+		seasonalRateRepository.deleteByVillaId(villaId);
+		stayDiscountRepository.deleteByVillaId(villaId);
+	}
+
+	/**
+	 * Base price, uplift and rules are all villa data: any committed villa change
+	 * other than a rating invalidates its calendar
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	@Transactional(propagation = Propagation.NOT_SUPPORTED) // opts out of the class-level transaction
+	public void onVillaChanged(VillaChangedEvent event) {
+		if (event.isRatingsOnly()) {
+			return;
+		}
+		generations.changed(event.getVillaId());
+		calendars.remove(event.getVillaId());
+	}
+
+	private PriceCalendar calendarFor(Long villaId) {
+		LocalDate today = LocalDate.now();
+		long generation = generations.current(villaId);
+		CachedCalendar cached = calendars.get(villaId);
+		if (cached != null && cached.generation() == generation && cached.calendar().startDate().equals(today)) {
+			return cached.calendar();
+		}
+		PriceCalendar calendar = build(villaId, today, horizonDays);
+		if (generations.cacheable(villaId, generation)) {
+			calendars.put(villaId, new CachedCalendar(generation, calendar));
+		}
+		return calendar;
+	}
+
+	/**
+	 * Runs in the caller's transaction (on the primary within createBooking), so a
+	 * request never holds a second pool connection for it
+	 */
+	private PriceCalendar build(Long villaId, LocalDate start, int days) {
+		Villa villa = villaRepository.findById(villaId)
+				.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + villaId));
+		return PriceCalendar.build(villa, seasonalRateRepository.findByVillaIdOrderByStartDateAscIdAsc(villaId),
+				stayDiscountRepository.findByVillaIdOrderByMinNightsAsc(villaId), start, days);
+	}
+
+	private VillaPricingDTO mapToDTO(Villa villa, List<SeasonalRate> rates, List<StayDiscount> discounts) {
+		return new VillaPricingDTO(villa.getWeekendUpliftPercent(),
+				rates.stream().map(rate -> new VillaPricingDTO.SeasonalRate(rate.getStartDate(), rate.getEndDate(),
+						rate.getNightlyRate())).toList(),
+				discounts.stream().map(this::mapToDTO).toList());
+	}
+
+	private VillaPricingDTO.StayDiscount mapToDTO(StayDiscount discount) {
+		return new VillaPricingDTO.StayDiscount(discount.getMinNights(), discount.getPercentOff());
+	}
+}
@@ -1,6 +1,7 @@
 package com.stayinn.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.stayinn.dto.Rating.RatingCreateDTO;
 import com.stayinn.dto.Rating.RatingDetailDTO;
@@ -128,6 +129,12 @@ public interface RatingService {
      */
     List<RatingResponseDTO> getAllRatings();
     
+    /**
+     * Stream all ratings to the sink without building the list (Admin export)
+     * @param sink receives each rating in id order
+     */
+    void exportAllRatings(Consumer<RatingResponseDTO> sink);
+    
     /**
      * Calculate average rating for a villa
      * @param villaId villa ID
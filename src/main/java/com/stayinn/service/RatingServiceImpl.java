@@ -2,8 +2,10 @@ package com.stayinn.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,11 +17,13 @@ import com.stayinn.dto.Rating.SimpleRatingDTO;
 import com.stayinn.entities.Rating;
 import com.stayinn.entities.User;
 import com.stayinn.entities.Villa;
+import com.stayinn.event.VillaChangedEvent;
 import com.stayinn.repository.BookingRepository;
 import com.stayinn.repository.RatingRepository;
 import com.stayinn.repository.UserRepository;
 import com.stayinn.repository.VillaRepository;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -33,6 +37,9 @@ public class RatingServiceImpl implements RatingService {
     private final UserRepository userRepository;
     private final VillaRepository villaRepository;
     private final BookingRepository bookingRepository;
+    private final WeightedRatingCalculator weightedRatingCalculator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
     
     @Override
     public RatingResponseDTO createRating(RatingCreateDTO ratingCreateDTO) {
@@ -71,6 +78,8 @@ public class RatingServiceImpl implements RatingService {
         rating.setRatingDate(LocalDate.now());
         
         Rating savedRating = ratingRepository.save(rating);
+        weightedRatingCalculator.ratingAdded(villa.getId(), savedRating.getScore());
+        eventPublisher.publishEvent(VillaChangedEvent.ratingsChanged(villa.getId()));
         log.info("Rating created successfully with ID: {}", savedRating.getId());
         
         return mapToResponseDTO(savedRating);
@@ -125,9 +134,12 @@ public class RatingServiceImpl implements RatingService {
     public RatingResponseDTO updateRating(Long id, RatingUpdateDTO ratingUpdateDTO) {
         log.info("Updating rating with ID: {}", id);
         
-        Rating rating = ratingRepository.findById(id)
+        // Locked: a concurrent update of this rating waits, so previousScore is the score rating_sum holds
+        Rating rating = ratingRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Rating not found with ID: " + id));
         
+        int previousScore = rating.getScore();
+        
         // Update fields if provided
         if (ratingUpdateDTO.getScore() != null) {
             rating.setScore(ratingUpdateDTO.getScore());
@@ -141,6 +153,8 @@ public class RatingServiceImpl implements RatingService {
         rating.setRatingDate(LocalDate.now());
         
         Rating updatedRating = ratingRepository.save(rating);
+        weightedRatingCalculator.ratingChanged(rating.getVilla().getId(), previousScore, updatedRating.getScore());
+        eventPublisher.publishEvent(VillaChangedEvent.ratingsChanged(rating.getVilla().getId()));
         log.info("Rating updated successfully");
         
         return mapToResponseDTO(updatedRating);
@@ -150,11 +164,12 @@ public class RatingServiceImpl implements RatingService {
     public void deleteRating(Long id) {
         log.info("Deleting rating with ID: {}", id);
         
-        if (!ratingRepository.existsById(id)) {
-            throw new RuntimeException("Rating not found with ID: " + id);
-        }
+        Rating rating = ratingRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new RuntimeException("Rating not found with ID: " + id));
         
-        ratingRepository.deleteById(id);
+        ratingRepository.delete(rating);
+        weightedRatingCalculator.ratingRemoved(rating.getVilla().getId(), rating.getScore());
+        eventPublisher.publishEvent(VillaChangedEvent.ratingsChanged(rating.getVilla().getId()));
         log.info("Rating deleted successfully");
     }
     
@@ -315,6 +330,13 @@ public class RatingServiceImpl implements RatingService {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllRatings(Consumer<RatingResponseDTO> sink) {
+        log.info("Exporting all ratings");
+        ExportStreams.forEach(ratingRepository.streamAllForExport(), entityManager, this::mapToResponseDTO, sink);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Double calculateAverageRating(Long villaId) {
@@ -0,0 +1,55 @@
+package com.stayinn.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads: the first caller for a key runs the
+ * computation, callers arriving while it runs wait for and share its result
+ * (or exception) instead of running it again. Nothing is kept once the
+ * computation finishes, so this is not a cache; it only stops a burst of
+ * misses from turning into a burst of identical queries.
+ * <p>
+ * Results are shared between threads and must not be modified by callers.
+ */
+final class SingleFlight<K, V> {
+
+	private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+	/**
+	 * Result of a call, and whether it was shared from another caller's computation
+	 */
+	record Result<V>(V value, boolean shared) {
+	}
+
+	Result<V> execute(K key, Supplier<V> computation) {
+		CompletableFuture<V> own = new CompletableFuture<>();
+		CompletableFuture<V> flight = inFlight.putIfAbsent(key, own);
+		if (flight == null) {
+			try {
+				V value = computation.get();
+				own.complete(value);
+				return new Result<>(value, false);
+			} catch (RuntimeException | Error e) {
+				own.completeExceptionally(e);
+				throw e;
+			} finally {
+				inFlight.remove(key, own);
+			}
+		}
+		try {
+			return new Result<>(flight.join(), true);
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			if (e.getCause() instanceof Error cause) {
+				throw cause;
+			}
+			throw e;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package com.stayinn.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.stayinn.entities.Role;
 import com.stayinn.dto.*;
@@ -16,10 +17,19 @@ public interface UserService {
     
     UserResponseDTO getUserById(Long id);
     
+    /**
+     * Users for up to 100 ids in one query, in request order, plus the ids not found
+     */
+    BatchLookupDTO<UserResponseDTO> getUsersByIds(List<Long> ids);
+    
     
     UserResponseDTO getUserByEmail(String email);
     
-    UserProfileDTO getUserProfile(Long id);
+    /**
+     * Profile with booking and rating counts, plus the first upcomingBookings confirmed
+     * upcoming bookings when greater than 0 (at most 10)
+     */
+    UserProfileDTO getUserProfile(Long id, int upcomingBookings);
     
     
     UserResponseDTO updateUser(Long id, UserUpdateDTO updateDTO);
@@ -39,6 +49,11 @@ public interface UserService {
 
     List<UserResponseDTO> getAllUsers();
     
+    /**
+     * Streams every user to the sink without materializing the list (admin export)
+     */
+    void exportAllUsers(Consumer<UserResponseDTO> sink);
+    
     
     List<UserResponseDTO> getUsersByRole(Role role);
     
@@ -1,21 +1,28 @@
 package com.stayinn.service;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.stayinn.dto.BatchLookupDTO;
 import com.stayinn.dto.PasswordChangeDTO;
 import com.stayinn.dto.RegistrationDTO;
 import com.stayinn.dto.User.UserProfileDTO;
 import com.stayinn.dto.User.UserResponseDTO;
 import com.stayinn.dto.User.UserUpdateDTO;
+import com.stayinn.entities.BookingStatus;
 import com.stayinn.entities.Role;
 import com.stayinn.entities.User;
+import com.stayinn.repository.BookingRepository;
 import com.stayinn.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -25,8 +32,12 @@ import lombok.extern.slf4j.Slf4j;
 @Transactional
 public class UserServiceImpl implements UserService {
     
+    private static final int MAX_UPCOMING_PREVIEWS = 10;
+    
     private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
     
     @Override
     public UserResponseDTO registerUser(RegistrationDTO registrationDTO) {
@@ -62,6 +73,13 @@ public class UserServiceImpl implements UserService {
         return mapToResponseDTO(user);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public BatchLookupDTO<UserResponseDTO> getUsersByIds(List<Long> ids) {
+        log.info("Fetching {} users by ID", ids.size());
+        return BatchLookups.resolve(ids, userRepository::findAllById, User::getId, this::mapToResponseDTO);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public UserResponseDTO getUserByEmail(String email) {
@@ -73,22 +91,34 @@ public class UserServiceImpl implements UserService {
     
     @Override
     @Transactional(readOnly = true)
-    public UserProfileDTO getUserProfile(Long id) {
+    public UserProfileDTO getUserProfile(Long id, int upcomingBookings) {
         log.info("Fetching profile for user ID: {}", id);
-        User user = userRepository.findById(id)
+        if (upcomingBookings < 0 || upcomingBookings > MAX_UPCOMING_PREVIEWS) {
+            throw new IllegalArgumentException("Upcoming bookings must be between 0 and " + MAX_UPCOMING_PREVIEWS);
+        }
+        // Counts come from the same query, so a frequent traveller's profile costs no more than anyone's
+        Object[] row = userRepository.findProfileRow(id).stream().findFirst()
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + id));
         
         UserProfileDTO profileDTO = new UserProfileDTO();
 //        profileDTO.setId(user.getId());
-        profileDTO.setEmail(user.getEmail());
-        profileDTO.setName(user.getName());
-        profileDTO.setPhoneNumber(user.getMobile());
-        profileDTO.setRole(user.getRole());
-        profileDTO.setActive(user.getActive());
+        profileDTO.setEmail((String) row[0]);
+        profileDTO.setName((String) row[1]);
+        profileDTO.setPhoneNumber((String) row[2]);
+        profileDTO.setRole((Role) row[3]);
+        profileDTO.setActive((Boolean) row[4]);
 //        profileDTO.setCreatedAt(user.getCreatedAt());
-        profileDTO.setTotalBookings(user.getBookings() != null ? user.getBookings().size() : 0);
-        profileDTO.setTotalRatings(user.getRatings() != null ? user.getRatings().size() : 0);
+        profileDTO.setTotalBookings(((Number) row[5]).intValue());
+        profileDTO.setTotalRatings(((Number) row[6]).intValue());
         
+        if (upcomingBookings > 0) {
+            profileDTO.setUpcomingBookings(bookingRepository
+                    .findUpcomingBookingPreviews(id, LocalDate.now(), Limit.of(upcomingBookings)).stream()
+                    .map(booking -> new UserProfileDTO.UpcomingBooking((Long) booking[0], (Long) booking[1],
+                            (String) booking[2], (LocalDate) booking[3], (LocalDate) booking[4],
+                            (BookingStatus) booking[5]))
+                    .toList());
+        }
         return profileDTO;
     }
     
@@ -187,6 +217,13 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAllUsers(Consumer<UserResponseDTO> sink) {
+        log.info("Exporting all users");
+        ExportStreams.forEach(userRepository.streamAllForExport(), entityManager, this::mapToResponseDTO, sink);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public List<UserResponseDTO> getUsersByRole(Role role) {
@@ -0,0 +1,75 @@
+package com.stayinn.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Change generation per villa for the in-memory villa caches. A cache reads the
+ * generation before loading, tags what it loaded with it and only serves entries
+ * whose generation is still current, so a load that raced with a change is never
+ * served.
+ * <p>
+ * Loads run in the caller's transaction. With a read replica, a read-only one
+ * (or a load outside any transaction) may still see the villa as it was before
+ * the last change; within the replica's allowed lag after a change such a load
+ * is used for that request only, not cached.
+ */
+final class VillaGenerations {
+
+	private record Generation(long number, long changedAtNanos) {
+	}
+
+	private final Map<Long, Generation> generations = new ConcurrentHashMap<>();
+	private final long replicaLagNanos;
+
+	/**
+	 * @param replicaLag how far behind the primary a healthy replica may be; zero without a replica
+	 */
+	VillaGenerations(Duration replicaLag) {
+		this.replicaLagNanos = replicaLag.toNanos();
+	}
+
+	/**
+	 * Lag window for the replica settings: the allowed lag when a replica is configured, else zero
+	 */
+	static Duration replicaLag(String replicaUrl, Duration maxLag) {
+		return replicaUrl == null || replicaUrl.isBlank() ? Duration.ZERO : maxLag;
+	}
+
+	long current(Long villaId) {
+		Generation generation = generations.get(villaId);
+		return generation != null ? generation.number() : 0;
+	}
+
+	void changed(Long villaId) {
+		long now = System.nanoTime();
+		generations.merge(villaId, new Generation(1, now),
+				(previous, next) -> new Generation(previous.number() + 1, now));
+	}
+
+	/**
+	 * Whether data just loaded for the given generation, in the current transaction, may be cached
+	 */
+	boolean cacheable(Long villaId, long generation) {
+		Generation current = generations.get(villaId);
+		if (current == null) {
+			return generation == 0;
+		}
+		if (current.number() != generation) {
+			return false;
+		}
+		return replicaLagNanos == 0 || onPrimary() || System.nanoTime() - current.changedAtNanos() >= replicaLagNanos;
+	}
+
+	/**
+	 * Read-write transactions run on the primary; read-only ones, and repository
+	 * calls outside a transaction (read-only by default), may run on the replica
+	 */
+	private static boolean onPrimary() {
+		return TransactionSynchronizationManager.isActualTransactionActive()
+				&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+	}
+}
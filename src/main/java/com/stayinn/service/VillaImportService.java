@@ -0,0 +1,22 @@
+package com.stayinn.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.stayinn.dto.Villa.VillaImportReportDTO;
+
+public interface VillaImportService {
+
+    /**
+     * Bulk-create villas from an NDJSON or CSV stream (Admin only).
+     * Rows are validated like POST /api/villas; invalid or duplicate rows are
+     * reported and skipped, the rest are inserted in chunks.
+     * CSV needs a header row (name,description,address,pricePerNight,imageUrls)
+     * with image URLs separated by '|'.
+     * @param input request body
+     * @param format "ndjson" or "csv"
+     * @return per-row import report
+     * @throws IllegalArgumentException if the format is not supported
+     */
+    VillaImportReportDTO importVillas(InputStream input, String format) throws IOException;
+}
@@ -0,0 +1,277 @@
+package com.stayinn.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.stayinn.dto.Villa.VillaCreateDTO;
+import com.stayinn.dto.Villa.VillaImportReportDTO;
+import com.stayinn.dto.Villa.VillaImportReportDTO.RowError;
+import com.stayinn.event.VillaChangedEvent;
+import com.stayinn.repository.VillaRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bulk villa import. Names already in the database are loaded once into a set,
+ * so duplicate checks cost no queries per row. Valid rows are inserted with
+ * JDBC batches, one transaction per chunk: a failing chunk is reported and the
+ * rest of the file still goes in. Images go to the same tables as
+ * Villa.imageUrls (see the mapping there).
+ */
+@Service
+@Slf4j
+public class VillaImportServiceImpl implements VillaImportService {
+
+	private static final String INSERT_VILLA = "INSERT INTO villas (name, description, address, price_per_night, "
+			+ "rating_count, rating_sum, weighted_rating, creation_time, updation_time) "
+			+ "VALUES (?, ?, ?, ?, 0, 0, ?, ?, ?)";
+	private static final String INSERT_IMAGE = "INSERT INTO villa_image_urls (villa_villa_id, image_urls) VALUES (?, ?)";
+	private static final String CSV_IMAGE_SEPARATOR = "|";
+
+	private final VillaRepository villaRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final Validator validator;
+	private final ObjectMapper objectMapper;
+	private final CsvMapper csvMapper = new CsvMapper();
+	private final WeightedRatingCalculator weightedRatingCalculator;
+	private final ApplicationEventPublisher eventPublisher;
+	private final EntityManagerFactory entityManagerFactory;
+	private final int chunkSize;
+
+	public VillaImportServiceImpl(VillaRepository villaRepository, JdbcTemplate jdbcTemplate,
+			TransactionTemplate transactionTemplate, Validator validator, ObjectMapper objectMapper,
+			WeightedRatingCalculator weightedRatingCalculator, ApplicationEventPublisher eventPublisher,
+			EntityManagerFactory entityManagerFactory, @Value("${stayinn.villa-import.chunk-size:500}") int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("stayinn.villa-import.chunk-size must be greater than 0");
+		}
+		this.villaRepository = villaRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.validator = validator;
+		this.objectMapper = objectMapper;
+		this.weightedRatingCalculator = weightedRatingCalculator;
+		this.eventPublisher = eventPublisher;
+		this.entityManagerFactory = entityManagerFactory;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public VillaImportReportDTO importVillas(InputStream input, String format) throws IOException {
+		boolean csv = "csv".equalsIgnoreCase(format);
+		if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+			throw new IllegalArgumentException("Unsupported import format: " + format);
+		}
+		Import villaImport = new Import();
+		int rows = csv ? readCsv(input, villaImport) : readNdjson(input, villaImport);
+		villaImport.flush();
+
+		if (villaImport.report.getImported() > 0) {
+			// Plain JDBC inserts bypass Hibernate, so cached existsByName results would miss the new names
+			entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+		}
+
+		VillaImportReportDTO report = villaImport.report;
+		report.setTotalRows(rows);
+		report.setFailed(report.getErrors().size());
+		log.info("Villa import finished: {} rows, {} imported, {} failed", report.getTotalRows(),
+				report.getImported(), report.getFailed());
+		return report;
+	}
+
+	private int readNdjson(InputStream input, Import villaImport) throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+		String line;
+		int row = 0;
+		while ((line = reader.readLine()) != null) {
+			if (line.isBlank()) {
+				continue;
+			}
+			row++;
+			try {
+				villaImport.add(row, objectMapper.readValue(line, VillaCreateDTO.class));
+			} catch (IOException e) {
+				villaImport.fail(row, null, "Unreadable row: " + e.getMessage());
+			}
+		}
+		return row;
+	}
+
+	private int readCsv(InputStream input, Import villaImport) throws IOException {
+		// Rows are read as plain maps and converted one by one, so a bad value only fails its own row
+		try (MappingIterator<Map<String, String>> rows = csvMapper.readerFor(Map.class)
+				.with(CsvSchema.emptySchema().withHeader())
+				.readValues(input)) {
+			int row = 0;
+			long failedAt = -1;
+			while (true) {
+				Map<String, Object> values;
+				try {
+					if (!rows.hasNextValue()) {
+						break;
+					}
+					values = new HashMap<>(rows.nextValue());
+				} catch (JsonProcessingException e) {
+					// A malformed line fails its own row; the iterator resyncs to the next one.
+					// Stop only if it cannot get past the bad line (e.g. an unclosed quote).
+					long at = rows.getCurrentLocation().getCharOffset();
+					if (at == failedAt) {
+						break;
+					}
+					failedAt = at;
+					row++;
+					villaImport.fail(row, null, "Unreadable row: " + e.getOriginalMessage());
+					continue;
+				}
+				row++;
+				String images = (String) values.get("imageUrls");
+				values.put("imageUrls", images == null || images.isBlank() ? List.of()
+						: Arrays.stream(images.split(Pattern.quote(CSV_IMAGE_SEPARATOR)))
+								.map(String::trim).filter(url -> !url.isEmpty()).toList());
+				try {
+					villaImport.add(row, objectMapper.convertValue(values, VillaCreateDTO.class));
+				} catch (IllegalArgumentException e) {
+					villaImport.fail(row, (String) values.get("name"), "Unreadable row: " + e.getMessage());
+				}
+			}
+			return row;
+		}
+	}
+
+	/**
+	 * State of one import run: report, names taken so far and the pending chunk
+	 */
+	private final class Import {
+
+		private final VillaImportReportDTO report = new VillaImportReportDTO();
+		private final Set<String> takenNames = villaRepository.findAllNames().stream()
+				.filter(Objects::nonNull)
+				.map(VillaImportServiceImpl::nameKey)
+				.collect(Collectors.toCollection(HashSet::new));
+		private final List<Integer> chunkRows = new ArrayList<>();
+		private final List<VillaCreateDTO> chunk = new ArrayList<>();
+
+		void add(int row, VillaCreateDTO villa) {
+			Set<ConstraintViolation<VillaCreateDTO>> violations = validator.validate(villa);
+			if (!violations.isEmpty()) {
+				fail(row, villa.getName(), violations.stream().map(ConstraintViolation::getMessage).sorted()
+						.collect(Collectors.joining("; ")));
+				return;
+			}
+			if (!takenNames.add(nameKey(villa.getName()))) {
+				fail(row, villa.getName(), "Villa with name '" + villa.getName() + "' already exists");
+				return;
+			}
+			chunkRows.add(row);
+			chunk.add(villa);
+			if (chunk.size() >= chunkSize) {
+				flush();
+			}
+		}
+
+		void fail(int row, String name, String message) {
+			report.getErrors().add(new RowError(row, name, message));
+		}
+
+		void flush() {
+			if (chunk.isEmpty()) {
+				return;
+			}
+			try {
+				transactionTemplate.executeWithoutResult(status -> insert(chunk));
+				report.setImported(report.getImported() + chunk.size());
+			} catch (DataAccessException e) {
+				log.warn("Villa import chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+				for (int i = 0; i < chunk.size(); i++) {
+					report.getErrors().add(new RowError(chunkRows.get(i), chunk.get(i).getName(),
+							"Insert failed: " + e.getMostSpecificCause().getMessage()));
+				}
+			}
+			chunkRows.clear();
+			chunk.clear();
+		}
+	}
+
+	private void insert(List<VillaCreateDTO> villas) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		double initialRating = weightedRatingCalculator.weightedRating(0, 0);
+		KeyHolder keys = new GeneratedKeyHolder();
+		jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_VILLA, Statement.RETURN_GENERATED_KEYS),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						VillaCreateDTO villa = villas.get(i);
+						ps.setString(1, villa.getName());
+						ps.setString(2, villa.getDescription());
+						ps.setString(3, villa.getAddress());
+						ps.setLong(4, villa.getPricePerNight().paise());
+						ps.setDouble(5, initialRating);
+						ps.setTimestamp(6, now);
+						ps.setTimestamp(7, now);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return villas.size();
+					}
+				}, keys);
+
+		List<Map<String, Object>> keyList = keys.getKeyList();
+		List<Object[]> images = new ArrayList<>();
+		for (int i = 0; i < villas.size(); i++) {
+			long villaId = ((Number) keyList.get(i).values().iterator().next()).longValue();
+			List<String> imageUrls = villas.get(i).getImageUrls();
+			if (imageUrls != null) {
+				imageUrls.forEach(url -> images.add(new Object[] { villaId, url }));
+			}
+			eventPublisher.publishEvent(new VillaChangedEvent(villaId));
+		}
+		if (!images.isEmpty()) {
+			jdbcTemplate.batchUpdate(INSERT_IMAGE, images);
+		}
+	}
+
+	// existsByName compares with the column's case-insensitive collation, match that here
+	private static String nameKey(String name) {
+		return name.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,181 @@
+package com.stayinn.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.stayinn.event.BookingChangedEvent;
+import com.stayinn.event.VillaChangedEvent;
+import com.stayinn.repository.BookingRepository;
+import com.stayinn.repository.VillaRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Occupied nights per villa as a day bitmap (bit i is the night of today + i,
+ * set while a PENDING or CONFIRMED booking holds it), covering the configured
+ * horizon. A villa's bitmap is loaded with one query on first use, dropped
+ * when one of its bookings commits a change and rebuilt when the day rolls
+ * over; windows outside the horizon are loaded one-off.
+ * <p>
+ * As with the price calendar, bitmaps are loaded in the caller's transaction
+ * and tagged with the villa's change generation (see {@link VillaGenerations}),
+ * so a load that raced with a booking change is never served. After a booking
+ * commits, the availability stream reloads in that transaction's afterCommit
+ * phase, still on the primary connection, so the reload includes the booking.
+ */
+@Component
+@Slf4j
+public class VillaOccupancyCache {
+
+	private final BookingRepository bookingRepository;
+	private final VillaRepository villaRepository;
+	private final int horizonDays;
+	private final int maxWindowDays;
+	private final VillaGenerations generations;
+
+	private final Map<Long, CachedNights> nights = new ConcurrentHashMap<>();
+
+	private record CachedNights(long generation, long startDay, BitSet occupied) {
+	}
+
+	/**
+	 * A villa's whole cached window; bit i of occupied is the night of startDate + i.
+	 * Shared with the cache: read it, never modify it.
+	 */
+	public record Horizon(LocalDate startDate, int days, BitSet occupied) {
+	}
+
+	public VillaOccupancyCache(BookingRepository bookingRepository, VillaRepository villaRepository,
+			@Value("${stayinn.availability.horizon-days:540}") int horizonDays,
+			@Value("${stayinn.availability.max-window-days:366}") int maxWindowDays,
+			@Value("${stayinn.datasource.replica.url:}") String replicaUrl,
+			@Value("${stayinn.datasource.replica.max-lag:5s}") Duration replicaMaxLag) {
+		if (horizonDays <= 0 || maxWindowDays <= 0) {
+			throw new IllegalArgumentException("stayinn.availability.horizon-days and max-window-days must be greater than 0");
+		}
+		this.bookingRepository = bookingRepository;
+		this.villaRepository = villaRepository;
+		this.horizonDays = horizonDays;
+		this.maxWindowDays = maxWindowDays;
+		this.generations = new VillaGenerations(VillaGenerations.replicaLag(replicaUrl, replicaMaxLag));
+	}
+
+	/**
+	 * Occupied nights from startDate to endDate (inclusive); bit i is the night of startDate + i
+	 */
+	public BitSet occupied(Long villaId, LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException("End date must not be before start date");
+		}
+		long from = startDate.toEpochDay();
+		if (endDate.toEpochDay() - from + 1 > maxWindowDays) {
+			throw new IllegalArgumentException("Availability covers at most " + maxWindowDays + " nights per request");
+		}
+		int length = (int) (endDate.toEpochDay() - from + 1);
+		CachedNights cached = current(villaId);
+		long offset = from - cached.startDay();
+		if (offset >= 0 && offset + length <= horizonDays) {
+			return cached.occupied().get((int) offset, (int) offset + length);
+		}
+		return load(villaId, startDate, length);
+	}
+
+	/**
+	 * Occupied nights over the whole horizon from today
+	 *
+	 * @param reload drop the cached bitmap first, e.g. right after a booking change committed
+	 */
+	public Horizon horizon(Long villaId, boolean reload) {
+		if (reload) {
+			invalidate(villaId);
+		}
+		CachedNights cached = current(villaId);
+		return new Horizon(LocalDate.ofEpochDay(cached.startDay()), horizonDays, cached.occupied());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onBookingChanged(BookingChangedEvent event) {
+		invalidate(event.getVillaId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onVillaChanged(VillaChangedEvent event) {
+		if (!event.isRatingsOnly()) {
+			invalidate(event.getVillaId());
+		}
+	}
+
+	private void invalidate(Long villaId) {
+		generations.changed(villaId);
+		nights.remove(villaId);
+	}
+
+	private CachedNights current(Long villaId) {
+		LocalDate today = LocalDate.now();
+		long generation = generations.current(villaId);
+		CachedNights cached = nights.get(villaId);
+		if (cached != null && cached.generation() == generation && cached.startDay() == today.toEpochDay()) {
+			return cached;
+		}
+		CachedNights loaded = new CachedNights(generation, today.toEpochDay(), load(villaId, today, horizonDays));
+		if (generations.cacheable(villaId, generation)) {
+			nights.put(villaId, loaded);
+		}
+		return loaded;
+	}
+
+	private BitSet load(Long villaId, LocalDate start, int days) {
+		long first = start.toEpochDay();
+		long last = first + days - 1;
+		if (!villaRepository.existsById(villaId)) {
+			throw new RuntimeException("Villa not found with ID: " + villaId);
+		}
+		BitSet occupied = new BitSet(days);
+		for (Object[] stay : bookingRepository.findOccupiedStays(villaId, start, LocalDate.ofEpochDay(last))) {
+			// A stay occupies its check-in night up to, not including, the check-out night
+			long checkIn = Math.max(((LocalDate) stay[0]).toEpochDay(), first);
+			long checkOut = Math.min(((LocalDate) stay[1]).toEpochDay(), last + 1);
+			if (checkIn < checkOut) {
+				occupied.set((int) (checkIn - first), (int) (checkOut - first));
+			}
+		}
+		return occupied;
+	}
+
+	/**
+	 * Bit i of byte i / 8, least significant bit first, Base64 encoded
+	 */
+	public static String toBitmap(BitSet occupied, int length) {
+		return Base64.getEncoder().encodeToString(Arrays.copyOf(occupied.toByteArray(), (length + 7) / 8));
+	}
+
+	/**
+	 * Lengths of alternating free and occupied runs, starting with free (possibly 0)
+	 */
+	public static List<Integer> toRuns(BitSet occupied, int length) {
+		List<Integer> runs = new ArrayList<>();
+		int position = 0;
+		boolean free = true;
+		while (position < length) {
+			int next = free ? occupied.nextSetBit(position) : occupied.nextClearBit(position);
+			if (next < 0 || next > length) {
+				next = length;
+			}
+			runs.add(next - position);
+			position = next;
+			free = !free;
+		}
+		return runs;
+	}
+}
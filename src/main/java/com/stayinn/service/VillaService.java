@@ -2,11 +2,14 @@ package com.stayinn.service;
 
 import java.util.List;
 
+import com.stayinn.dto.BatchLookupDTO;
 import com.stayinn.dto.Villa.VillaCreateDTO;
 import com.stayinn.dto.Villa.VillaDetailDTO;
 import com.stayinn.dto.Villa.VillaResponseDTO;
 import com.stayinn.dto.Villa.VillaSearchDTO;
+import com.stayinn.dto.Villa.VillaSummaryDTO;
 import com.stayinn.dto.Villa.VillaUpdateDTO;
+import com.stayinn.money.Money;
 
 public interface VillaService {
     
@@ -34,6 +37,13 @@ public interface VillaService {
      */
     VillaDetailDTO getVillaDetailById(Long id);
     
+    /**
+     * Get several villas in one query
+     * @param ids villa IDs (at most 100)
+     * @return villas in request order plus the IDs that were not found
+     */
+    BatchLookupDTO<VillaResponseDTO> getVillasByIds(List<Long> ids);
+    
     /**
      * Get all villas
      * @return list of all villas
@@ -44,7 +54,7 @@ public interface VillaService {
      * Get villa summaries for listing page
      * @return list of villa summaries
      */
-//    List<VillaSummaryDTO> getAllVillaSummaries();
+    List<VillaSummaryDTO> getAllVillaSummaries();
     
     /**
      * Update villa details (Admin only)
@@ -82,7 +92,7 @@ public interface VillaService {
      * @param maxPrice maximum price
      * @return list of villas within price range
      */
-    List<VillaResponseDTO> getVillasByPriceRange(Double minPrice, Double maxPrice);
+    List<VillaResponseDTO> getVillasByPriceRange(Money minPrice, Money maxPrice);
     
     /**
      * Get villas by location/address
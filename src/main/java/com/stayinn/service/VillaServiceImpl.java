@@ -1,25 +1,37 @@
 package com.stayinn.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.stayinn.dto.BatchLookupDTO;
 import com.stayinn.dto.Villa.VillaCreateDTO;
 import com.stayinn.dto.Villa.VillaDetailDTO;
 import com.stayinn.dto.Villa.VillaResponseDTO;
 import com.stayinn.dto.Villa.VillaSearchDTO;
+import com.stayinn.dto.Villa.VillaSummaryDTO;
 import com.stayinn.dto.Villa.VillaUpdateDTO;
 //import com.stayinn.dto.Villa.VillaDetailDTO;
 //import com.stayinn.dto.Villa.VillaResponseDTO;
 //import com.stayinn.dto.Villa.VillaSearchDTO;
 //import com.stayinn.dto.Villa.VillaUpdateDTO;
+import com.stayinn.entities.BookingStatus;
+import com.stayinn.event.VillaChangedEvent;
 import com.stayinn.entities.Villa;
+import com.stayinn.metrics.BusinessMetrics;
 //import com.stayinn.repository.VillaRepository;
+import com.stayinn.money.Money;
 import com.stayinn.repository.BookingRepository;
+import com.stayinn.repository.RatingRepository;
 import com.stayinn.repository.VillaRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -33,6 +45,18 @@ public class VillaServiceImpl implements VillaService {
 
 	private final VillaRepository villaRepository;
 	private final BookingRepository bookingRepository;
+	private final RatingRepository ratingRepository;
+	private final WeightedRatingCalculator weightedRatingCalculator;
+	private final ApplicationEventPublisher eventPublisher;
+	private final PricingService pricingService;
+	private final CatalogueVersionTracker catalogueVersions;
+	private final BusinessMetrics businessMetrics;
+	private final PlatformTransactionManager transactionManager;
+
+	private final SingleFlight<VillaDetailKey, VillaDetailDTO> villaDetailLoads = new SingleFlight<>();
+
+	private record VillaDetailKey(Long villaId, long version) {
+	}
 
 	@Override
 	public VillaResponseDTO createVilla(VillaCreateDTO villaCreateDTO) {
@@ -51,8 +75,10 @@ public class VillaServiceImpl implements VillaService {
 		villa.setPricePerNight(villaCreateDTO.getPricePerNight());
 		villa.setImageUrls(villaCreateDTO.getImageUrls() != null ? new ArrayList<>(villaCreateDTO.getImageUrls())
 				: new ArrayList<>());
+		villa.setWeightedRating(weightedRatingCalculator.weightedRating(0, 0));
 
 		Villa savedVilla = villaRepository.save(villa);
+		eventPublisher.publishEvent(new VillaChangedEvent(savedVilla.getId()));
 		log.info("Villa created successfully with ID: {}", savedVilla.getId());
 
 		return mapToResponseDTO(savedVilla);
@@ -62,26 +88,47 @@ public class VillaServiceImpl implements VillaService {
 	@Transactional(readOnly = true)
 	public VillaResponseDTO getVillaById(Long id) {
 		log.info("Fetching villa with ID: {}", id);
-		Villa villa = villaRepository.findById(id)
+		Villa villa = villaRepository.findWithImagesById(id)
 				.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + id));
 		return mapToResponseDTO(villa);
 	}
 
+	@Override
+	@Transactional(readOnly = true)
+	public BatchLookupDTO<VillaResponseDTO> getVillasByIds(List<Long> ids) {
+		log.info("Fetching {} villas by ID", ids.size());
+		return BatchLookups.resolve(ids, villaRepository::findAllWithImagesByIdIn, Villa::getId,
+				this::mapToResponseDTO);
+	}
+
 //    @Override
 //    @Transactional(readOnly = true)
 //    public VillaDetailDTO getVillaDetailById(Long id) {
 //        return villaRepository.findVillaDetailDTO(id);
 //    }
 
+	/**
+	 * Concurrent calls for the same villa share one load. Callers wait outside any
+	 * transaction, so a burst of them holds one pool connection, not one each.
+	 */
 	@Override
-	@Transactional(readOnly = true)
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public VillaDetailDTO getVillaDetailById(Long id) {
 		log.info("Fetching detailed villa information for ID: {}", id);
 
-		Villa villa = villaRepository.findByIdWithRatings(id)
-				.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + id));
-
-		return mapToDetailDTO(villa);
+		// Keyed by the persisted version too: a call made after a villa change never joins a load started before it
+		SingleFlight.Result<VillaDetailDTO> result = villaDetailLoads.execute(
+				new VillaDetailKey(id, catalogueVersions.villaVersion(id)), () -> {
+					TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+					transaction.setReadOnly(true);
+					return transaction.execute(status -> {
+						Villa villa = villaRepository.findWithImagesById(id)
+								.orElseThrow(() -> new RuntimeException("Villa not found with ID: " + id));
+						return mapToDetailDTO(villa);
+					});
+				});
+		businessMetrics.recordCacheLookup("villa_detail_single_flight", result.shared());
+		return result.value();
 	}
 
 	@Override
@@ -91,15 +138,13 @@ public class VillaServiceImpl implements VillaService {
 		return villaRepository.findAll().stream().map(this::mapToResponseDTO).collect(Collectors.toList());
 	}
 
-//    @Override
-//    @Transactional(readOnly = true)
-//    public List<VillaSummaryDTO> getAllVillaSummaries() {
-//        log.info("Fetching all villa summaries");
-//        return villaRepository.findAll().stream()
-//                .map(this::mapToSummaryDTO)
-//                .collect(Collectors.toList());
-//    }
-//    
+	@Override
+	@Transactional(readOnly = true)
+	public List<VillaSummaryDTO> getAllVillaSummaries() {
+		log.info("Fetching all villa summaries");
+		return villaRepository.findAllSummaries();
+	}
+
 	@Override
 	public VillaResponseDTO updateVilla(Long id, VillaUpdateDTO villaUpdateDTO) {
 		log.info("Updating villa with ID: {}", id);
@@ -131,9 +176,12 @@ public class VillaServiceImpl implements VillaService {
 
 		if (villaUpdateDTO.getImageUrls() != null) {
 			villa.setImageUrls(new ArrayList<>(villaUpdateDTO.getImageUrls()));
+			// An image-only change leaves the villa row clean; touch it so updation_time (the ETag source) moves
+			villa.setUpdatedAt(LocalDateTime.now());
 		}
 
 		Villa updatedVilla = villaRepository.save(villa);
+		eventPublisher.publishEvent(new VillaChangedEvent(id));
 		log.info("Villa updated successfully");
 
 		return mapToResponseDTO(updatedVilla);
@@ -153,7 +201,9 @@ public class VillaServiceImpl implements VillaService {
 			throw new RuntimeException("Cannot delete villa with existing bookings. Please cancel all bookings first.");
 		}
 
+		pricingService.deleteVillaPricing(id);
 		villaRepository.deleteById(id);
+		eventPublisher.publishEvent(new VillaChangedEvent(id));
 		log.info("Villa deleted successfully");
 	}
 
@@ -184,7 +234,7 @@ public class VillaServiceImpl implements VillaService {
 				results.sort(Comparator.comparing(VillaResponseDTO::getPricePerNight).reversed());
 				break;
 			case "rating":
-				results.sort(Comparator.comparing(VillaResponseDTO::getAverageRating).reversed());
+				results.sort(Comparator.comparing(VillaResponseDTO::getWeightedRating).reversed());
 				break;
 			case "name":
 				results.sort(Comparator.comparing(VillaResponseDTO::getName));
@@ -197,7 +247,7 @@ public class VillaServiceImpl implements VillaService {
 
 	@Override
 	@Transactional(readOnly = true)
-	public List<VillaResponseDTO> getVillasByPriceRange(Double minPrice, Double maxPrice) {
+	public List<VillaResponseDTO> getVillasByPriceRange(Money minPrice, Money maxPrice) {
 		log.info("Fetching villas in price range: {} - {}", minPrice, maxPrice);
 		return villaRepository.findByPricePerNightBetween(minPrice, maxPrice).stream().map(this::mapToResponseDTO)
 				.collect(Collectors.toList());
@@ -215,7 +265,7 @@ public class VillaServiceImpl implements VillaService {
 	@Transactional(readOnly = true)
 	public List<VillaResponseDTO> getTopRatedVillas(int limit) {
 		log.info("Fetching top {} rated villas", limit);
-		return villaRepository.findTopRatedVillas().stream().limit(limit).map(this::mapToResponseDTO)
+		return villaRepository.findAllByOrderByWeightedRatingDesc().stream().limit(limit).map(this::mapToResponseDTO)
 				.collect(Collectors.toList());
 	}
 
@@ -246,7 +296,10 @@ public class VillaServiceImpl implements VillaService {
 
 		if (!villa.getImageUrls().contains(imageUrl)) {
 			villa.getImageUrls().add(imageUrl);
+			// The image collection is its own table; touch the villa row so the ETag moves too
+			villa.setUpdatedAt(LocalDateTime.now());
 			Villa updatedVilla = villaRepository.save(villa);
+			eventPublisher.publishEvent(new VillaChangedEvent(villaId));
 			log.info("Image added successfully");
 			return mapToResponseDTO(updatedVilla);
 		}
@@ -264,7 +317,9 @@ public class VillaServiceImpl implements VillaService {
 
 		if (villa.getImageUrls() != null && villa.getImageUrls().contains(imageUrl)) {
 			villa.getImageUrls().remove(imageUrl);
+			villa.setUpdatedAt(LocalDateTime.now());
 			Villa updatedVilla = villaRepository.save(villa);
+			eventPublisher.publishEvent(new VillaChangedEvent(villaId));
 			log.info("Image removed successfully");
 			return mapToResponseDTO(updatedVilla);
 		}
@@ -340,30 +395,16 @@ public class VillaServiceImpl implements VillaService {
 	// ========== HELPER METHODS ==========
 
 	private VillaResponseDTO mapToResponseDTO(Villa villa) {
+		// Served from the running totals on the villa row, so no ratings are loaded here
 		Double averageRating = villa.getAverageRating();
-		Integer totalRatings = villa.getRatings() != null ? villa.getRatings().size() : 0;
+		Integer totalRatings = villa.getRatingCount() != null ? villa.getRatingCount().intValue() : 0;
 
 		return new VillaResponseDTO(villa.getId(), villa.getName(), villa.getDescription(), villa.getAddress(),
-				villa.getPricePerNight(), villa.getImageUrls(), averageRating, totalRatings,
+				villa.getPricePerNight(), villa.getImageUrls(), averageRating, totalRatings, villa.getWeightedRating(),
 				villa.getCreatedAt() != null ? villa.getCreatedAt().toString() : null,
 				villa.getUpdatedAt() != null ? villa.getUpdatedAt().toString() : null);
 	}
 
-//    private VillaSummaryDTO mapToSummaryDTO(Villa villa) {
-//        String primaryImage = (villa.getImageUrls() != null && !villa.getImageUrls().isEmpty()) ? 
-//                villa.getImageUrls().get(0) : null;
-//        
-//        return new VillaSummaryDTO(
-//                villa.getId(),
-//                villa.getName(),
-//                villa.getAddress(),
-//                villa.getPricePerNight(),
-//                primaryImage,
-//                villa.getAverageRating(),
-//                villa.getRatings() != null ? villa.getRatings().size() : 0
-//        );
-//    }
-
 	private VillaDetailDTO mapToDetailDTO(Villa villa) {
 		VillaDetailDTO dto = new VillaDetailDTO();
 		dto.setId(villa.getId());
@@ -373,22 +414,35 @@ public class VillaServiceImpl implements VillaService {
 		dto.setPricePerNight(villa.getPricePerNight());
 		dto.setImageUrls(villa.getImageUrls());
 
-		// Rating statistics
+		// Rating statistics (running totals + one GROUP BY score query)
 		dto.setAverageRating(villa.getAverageRating());
-		dto.setTotalRatings(villa.getRatings() != null ? villa.getRatings().size() : 0);
-
-		if (villa.getRatings() != null) {
-			dto.setFiveStarCount((int) villa.getRatings().stream().filter(r -> r.getScore() == 5).count());
-			dto.setFourStarCount((int) villa.getRatings().stream().filter(r -> r.getScore() == 4).count());
-			dto.setThreeStarCount((int) villa.getRatings().stream().filter(r -> r.getScore() == 3).count());
-			dto.setTwoStarCount((int) villa.getRatings().stream().filter(r -> r.getScore() == 2).count());
-			dto.setOneStarCount((int) villa.getRatings().stream().filter(r -> r.getScore() == 1).count());
-		}
+		dto.setTotalRatings(villa.getRatingCount() != null ? villa.getRatingCount().intValue() : 0);
 
-		// Booking statistics
-		dto.setTotalBookings(bookingRepository.countByVillaId(villa.getId()));
-		dto.setConfirmedBookings(bookingRepository
-				.findByVillaIdAndStatus(villa.getId(), com.stayinn.entities.BookingStatus.CONFIRMED).size() + 0L);
+		int[] starCounts = new int[6];
+		for (Object[] row : ratingRepository.getRatingDistribution(villa.getId())) {
+			int score = ((Number) row[0]).intValue();
+			if (score >= 1 && score <= 5) {
+				starCounts[score] = ((Number) row[1]).intValue();
+			}
+		}
+		dto.setFiveStarCount(starCounts[5]);
+		dto.setFourStarCount(starCounts[4]);
+		dto.setThreeStarCount(starCounts[3]);
+		dto.setTwoStarCount(starCounts[2]);
+		dto.setOneStarCount(starCounts[1]);
+
+		// Booking statistics (one GROUP BY status query)
+		long totalBookings = 0;
+		long confirmedBookings = 0;
+		for (Object[] row : bookingRepository.countByVillaIdGroupByStatus(villa.getId())) {
+			long count = ((Number) row[1]).longValue();
+			totalBookings += count;
+			if (row[0] == BookingStatus.CONFIRMED) {
+				confirmedBookings = count;
+			}
+		}
+		dto.setTotalBookings(totalBookings);
+		dto.setConfirmedBookings(confirmedBookings);
 
 		dto.setIsAvailable(true); // Can be enhanced with real-time availability check
 
@@ -0,0 +1,98 @@
+package com.stayinn.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.stayinn.entities.Villa;
+import com.stayinn.repository.VillaRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the per-villa rating totals and the Bayesian weighted rating:
+ * (priorMean * priorWeight + sum of scores) / (priorWeight + number of ratings).
+ * A villa with a handful of reviews is pulled towards the prior mean, so it no
+ * longer outranks a villa with hundreds of slightly lower reviews.
+ */
+@Component
+@Slf4j
+public class WeightedRatingCalculator {
+
+	private final VillaRepository villaRepository;
+	private final EntityManager entityManager;
+	private final double priorMean;
+	private final double priorWeight;
+
+	public WeightedRatingCalculator(VillaRepository villaRepository, EntityManager entityManager,
+			@Value("${stayinn.rating.prior-mean:3.5}") double priorMean,
+			@Value("${stayinn.rating.prior-weight:10}") double priorWeight) {
+		if (priorWeight <= 0) {
+			throw new IllegalArgumentException("stayinn.rating.prior-weight must be greater than 0");
+		}
+		this.villaRepository = villaRepository;
+		this.entityManager = entityManager;
+		this.priorMean = priorMean;
+		this.priorWeight = priorWeight;
+	}
+
+	/**
+	 * Weighted rating for the given totals (prior mean when there are no ratings)
+	 */
+	public double weightedRating(long ratingCount, long ratingSum) {
+		return (priorMean * priorWeight + ratingSum) / (priorWeight + ratingCount);
+	}
+
+	public void ratingAdded(Long villaId, int score) {
+		adjust(villaId, 1, score);
+	}
+
+	public void ratingRemoved(Long villaId, int score) {
+		adjust(villaId, -1, -score);
+	}
+
+	public void ratingChanged(Long villaId, int oldScore, int newScore) {
+		if (oldScore != newScore) {
+			adjust(villaId, 0, newScore - oldScore);
+		}
+	}
+
+	/**
+	 * Rebuild the totals of every villa from the ratings table and re-derive the
+	 * weighted rating with the current prior (e.g. after the prior was changed).
+	 * Bulk updates over all villas that also empty the Villa cache region, so this
+	 * only runs on request.
+	 *
+	 * @return number of villas updated
+	 */
+	@Transactional
+	public int recalculateAll() {
+		LocalDateTime now = LocalDateTime.now();
+		villaRepository.recalculateRatingTotals(now);
+		int updated = villaRepository.recalculateWeightedRatings(priorMean * priorWeight, priorWeight, now);
+		log.info("Recalculated weighted ratings for {} villas (prior mean {}, weight {})", updated, priorMean,
+				priorWeight);
+		return updated;
+	}
+
+	/**
+	 * Re-reads the villa under a row lock, so concurrent ratings serialize on it,
+	 * and updates it as an entity: unlike a bulk UPDATE, that refreshes this villa
+	 * in the second-level cache instead of evicting every villa from it.
+	 * Runs in the caller's transaction.
+	 */
+	private void adjust(Long villaId, long countDelta, long scoreDelta) {
+		Villa villa = entityManager.find(Villa.class, villaId);
+		if (villa == null) {
+			return;
+		}
+		entityManager.refresh(villa, LockModeType.PESSIMISTIC_WRITE);
+		villa.setRatingCount(villa.getRatingCount() + countDelta);
+		villa.setRatingSum(villa.getRatingSum() + scoreDelta);
+		villa.setWeightedRating(weightedRating(villa.getRatingCount(), villa.getRatingSum()));
+	}
+}
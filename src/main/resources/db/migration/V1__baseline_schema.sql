@@ -0,0 +1,79 @@
+-- Schema as Hibernate generated it from the entities (MySQL 8) before Flyway took over.
+-- Databases created that way are baselined at version 1 and start from V2; every
+-- schema change since then is a migration of its own.
+
+create table users (
+    user_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    email varchar(255),
+    password varchar(255),
+    name varchar(255),
+    mobile varchar(255),
+    active bit,
+    role enum ('ADMIN','USER'),
+    primary key (user_id)
+) engine=InnoDB;
+
+create table villas (
+    villa_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    name varchar(255),
+    description varchar(255),
+    address varchar(255),
+    price_per_night float(53),
+    primary key (villa_id)
+) engine=InnoDB;
+
+create table villa_image_urls (
+    villa_villa_id bigint not null,
+    image_urls varchar(255),
+    constraint fk_villa_image_urls_villa foreign key (villa_villa_id) references villas (villa_id)
+) engine=InnoDB;
+
+create table bookings (
+    booking_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    check_in_date date,
+    check_out_date date,
+    total_price float(53),
+    status enum ('PENDING','CONFIRMED','CANCELLED'),
+    user_id bigint,
+    villa_id bigint,
+    primary key (booking_id),
+    constraint fk_bookings_user foreign key (user_id) references users (user_id),
+    constraint fk_bookings_villa foreign key (villa_id) references villas (villa_id)
+) engine=InnoDB;
+
+-- Payment maps its id to user_id (an @AttributeOverride); kept as is, the entity depends on it
+create table payments (
+    user_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    amount float(53),
+    payment_date date,
+    payment_method varchar(255),
+    status enum ('PENDING','COMPLETED','FAILED','REFUNDED','PROCESSING') not null,
+    transaction_id varchar(255),
+    payment_gateway varchar(255),
+    booking_id bigint,
+    primary key (user_id),
+    constraint uk_payments_booking unique (booking_id),
+    constraint fk_payments_booking foreign key (booking_id) references bookings (booking_id)
+) engine=InnoDB;
+
+create table ratings (
+    rating_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    score integer,
+    feedback varchar(255),
+    rating_date date,
+    user_id bigint,
+    villa_id bigint,
+    primary key (rating_id),
+    constraint fk_ratings_user foreign key (user_id) references users (user_id),
+    constraint fk_ratings_villa foreign key (villa_id) references villas (villa_id)
+) engine=InnoDB;
@@ -0,0 +1,19 @@
+-- Running rating totals and the Bayesian weighted rating of each villa (Villa.ratingCount,
+-- ratingSum, weightedRating). WeightedRatingCalculator keeps them up to date on every rating
+-- write; the existing ratings are counted once here.
+alter table villas
+    add column rating_count bigint default 0 not null,
+    add column rating_sum bigint default 0 not null,
+    add column weighted_rating float(53) default 0 not null;
+
+update villas v
+    join (select villa_id, count(*) as rating_count, coalesce(sum(score), 0) as rating_sum
+          from ratings
+          where villa_id is not null
+          group by villa_id) r on r.villa_id = v.villa_id
+set v.rating_count = r.rating_count,
+    v.rating_sum = r.rating_sum;
+
+-- Default prior: stayinn.rating.prior-mean=3.5, stayinn.rating.prior-weight=10. With a different
+-- prior, POST /api/admin/ratings/recalculate re-derives the scores.
+update villas set weighted_rating = (3.5 * 10 + rating_sum) / (10 + rating_count);
@@ -0,0 +1,30 @@
+-- Revenue rollup per payment date, gateway and method (DailyRevenue). DailyRevenueRecorder
+-- keeps it in step with payment changes; existing payments are rolled up once here.
+
+create table daily_revenue (
+    daily_revenue_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    revenue_date date not null,
+    payment_gateway varchar(255) not null,
+    payment_method varchar(255) not null,
+    completed_count bigint not null,
+    completed_paise bigint not null,
+    refunded_count bigint not null,
+    refunded_paise bigint not null,
+    primary key (daily_revenue_id),
+    constraint uk_daily_revenue_bucket unique (revenue_date, payment_gateway, payment_method)
+) engine=InnoDB;
+
+-- payments.amount still holds rupees at this point (V4 converts it), hence the * 100
+insert into daily_revenue (revenue_date, payment_gateway, payment_method,
+        completed_count, completed_paise, refunded_count, refunded_paise, creation_time, updation_time)
+select p.payment_date, coalesce(p.payment_gateway, 'UNKNOWN'), coalesce(p.payment_method, 'UNKNOWN'),
+        sum(case when p.status = 'COMPLETED' then 1 else 0 end),
+        sum(case when p.status = 'COMPLETED' then round(p.amount * 100) else 0 end),
+        sum(case when p.status = 'REFUNDED' then 1 else 0 end),
+        sum(case when p.status = 'REFUNDED' then round(p.amount * 100) else 0 end),
+        now(), now()
+from payments p
+where p.status in ('COMPLETED', 'REFUNDED') and p.payment_date is not null and p.amount is not null
+group by p.payment_date, coalesce(p.payment_gateway, 'UNKNOWN'), coalesce(p.payment_method, 'UNKNOWN');
@@ -0,0 +1,11 @@
+-- Money moved from rupees in DOUBLE columns to whole paise in BIGINT (Money, MoneyConverter).
+-- Existing amounts are scaled by 100 and rounded before the column type changes.
+
+update villas set price_per_night = round(price_per_night * 100) where price_per_night is not null;
+alter table villas modify column price_per_night bigint;
+
+update bookings set total_price = round(total_price * 100) where total_price is not null;
+alter table bookings modify column total_price bigint;
+
+update payments set amount = round(amount * 100) where amount is not null;
+alter table payments modify column amount bigint;
@@ -0,0 +1,26 @@
+-- Dynamic pricing: weekend uplift, seasonal nightly rates and length-of-stay discounts per villa.
+alter table villas
+    add column weekend_uplift_percent integer default 0 not null;
+
+create table villa_seasonal_rates (
+    seasonal_rate_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    start_date date not null,
+    end_date date not null,
+    nightly_rate bigint not null,
+    villa_id bigint not null,
+    primary key (seasonal_rate_id),
+    constraint fk_villa_seasonal_rates_villa foreign key (villa_id) references villas (villa_id)
+) engine=InnoDB;
+
+create table villa_stay_discounts (
+    stay_discount_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    min_nights integer not null,
+    percent_off integer not null,
+    villa_id bigint not null,
+    primary key (stay_discount_id),
+    constraint fk_villa_stay_discounts_villa foreign key (villa_id) references villas (villa_id)
+) engine=InnoDB;
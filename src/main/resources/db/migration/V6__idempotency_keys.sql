@@ -0,0 +1,16 @@
+-- Idempotency-Key claims and stored responses of the create endpoints (IdempotencyRecord).
+
+create table idempotency_keys (
+    idempotency_record_id bigint not null auto_increment,
+    creation_time datetime(6),
+    updation_time datetime(6),
+    scope varchar(320) not null,
+    idempotency_key varchar(100) not null,
+    request_hash varchar(64) not null,
+    completed bit not null,
+    response_status integer,
+    response_body longtext,
+    expires_at datetime(6) not null,
+    primary key (idempotency_record_id),
+    constraint uk_idempotency_scope_key unique (scope, idempotency_key)
+) engine=InnoDB;
@@ -0,0 +1,27 @@
+-- Indexes for the hot repository queries. Each composite index leads with the foreign key
+-- column, so InnoDB drops the single-column index it created for that foreign key.
+-- The unique keys fail on existing duplicates; clean those up before migrating.
+
+-- Availability checks and occupancy (findConflictingBookings, findOccupiedStays,
+-- findVillaBookingsInDateRange): villa, then status, then the stay dates
+create index idx_bookings_villa_status_dates on bookings (villa_id, status, check_in_date, check_out_date);
+
+-- A user's upcoming, past and active bookings
+create index idx_bookings_user_check_in on bookings (user_id, check_in_date);
+
+-- Gateway callbacks look payments up by transaction id
+create index idx_payments_transaction on payments (transaction_id);
+
+-- payments(booking_id) needs nothing: the one-to-one booking has had a unique key since V1
+
+-- A villa's ratings by date
+create index idx_ratings_villa_date on ratings (villa_id, rating_date);
+
+-- One rating per user and villa
+create unique index uk_ratings_user_villa on ratings (user_id, villa_id);
+
+-- Login and registration
+create unique index uk_users_email on users (email);
+
+-- Villa names are unique (checked on create and import)
+create unique index uk_villas_name on villas (name);
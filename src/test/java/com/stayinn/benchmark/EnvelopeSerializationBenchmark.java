@@ -0,0 +1,201 @@
+package com.stayinn.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.dto.Booking.BookingResponseDTO;
+import com.stayinn.dto.Payment.PaymentResponseDTO;
+import com.stayinn.dto.Rating.RatingResponseDTO;
+import com.stayinn.dto.User.UserProfileDTO;
+import com.stayinn.dto.User.UserResponseDTO;
+import com.stayinn.dto.Villa.VillaDetailDTO;
+import com.stayinn.dto.Villa.VillaResponseDTO;
+import com.stayinn.dto.Villa.VillaSummaryDTO;
+import com.stayinn.entities.BookingStatus;
+import com.stayinn.entities.PaymentStatus;
+import com.stayinn.entities.Role;
+import com.stayinn.money.Money;
+
+/**
+ * Serialization throughput of the response body of each main GET endpoint:
+ * old HashMap envelope vs ApiEnvelope, with and without Blackbird. The
+ * endpoint parameter picks the body; list endpoints hold listSize items
+ * (single-object endpoints ignore it).
+ * Not part of the test run; start it with main() from the IDE or
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.stayinn.benchmark.EnvelopeSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvelopeSerializationBenchmark {
+
+	@Param({ "plain", "blackbird" })
+	private String mapper;
+
+	@Param({
+			"GET /api/villas",
+			"GET /api/villas/summaries",
+			"GET /api/villas/{id}",
+			"GET /api/villas/{id}/details",
+			"GET /api/bookings/{id}",
+			"GET /api/bookings/user/{userId}",
+			"GET /api/payments/{id}",
+			"GET /api/payments/user/{userId}",
+			"GET /api/ratings/villa/{villaId}",
+			"GET /api/users/{id}",
+			"GET /api/users/{id}/profile" })
+	private String endpoint;
+
+	@Param({ "20", "200" })
+	private int listSize;
+
+	private ObjectMapper objectMapper;
+	private Object data;
+	private boolean list;
+
+	@Setup
+	public void setUp() {
+		JsonMapper.Builder builder = JsonMapper.builder().findAndAddModules();
+		if ("blackbird".equals(mapper)) {
+			builder.addModule(new BlackbirdModule());
+		}
+		objectMapper = builder.build();
+
+		list = true;
+		data = switch (endpoint) {
+		case "GET /api/villas" -> items(EnvelopeSerializationBenchmark::villa);
+		case "GET /api/villas/summaries" -> items(EnvelopeSerializationBenchmark::villaSummary);
+		case "GET /api/bookings/user/{userId}" -> items(EnvelopeSerializationBenchmark::booking);
+		case "GET /api/payments/user/{userId}" -> items(EnvelopeSerializationBenchmark::payment);
+		case "GET /api/ratings/villa/{villaId}" -> items(EnvelopeSerializationBenchmark::rating);
+		default -> {
+			list = false;
+			yield single();
+		}
+		};
+	}
+
+	private Object single() {
+		return switch (endpoint) {
+		case "GET /api/villas/{id}" -> villa(1);
+		case "GET /api/villas/{id}/details" -> villaDetail();
+		case "GET /api/bookings/{id}" -> booking(1);
+		case "GET /api/payments/{id}" -> payment(1);
+		case "GET /api/users/{id}" -> user();
+		case "GET /api/users/{id}/profile" -> userProfile();
+		default -> throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+		};
+	}
+
+	@Benchmark
+	public String hashMapEnvelope() throws JsonProcessingException {
+		Map<String, Object> response = new HashMap<>();
+		response.put("success", true);
+		if (list) {
+			response.put("count", ((List<?>) data).size());
+		}
+		response.put("data", data);
+		return objectMapper.writeValueAsString(response);
+	}
+
+	@Benchmark
+	public String apiEnvelope() throws JsonProcessingException {
+		return objectMapper.writeValueAsString(list ? ApiEnvelope.list((List<?>) data) : ApiEnvelope.success(data));
+	}
+
+	private <T> List<T> items(LongFunction<T> item) {
+		List<T> items = new ArrayList<>(listSize);
+		for (long i = 1; i <= listSize; i++) {
+			items.add(item.apply(i));
+		}
+		return items;
+	}
+
+	private static VillaResponseDTO villa(long id) {
+		String now = LocalDateTime.now().toString();
+		return new VillaResponseDTO(id, "Villa " + id, "Sea facing villa with a private pool", "Goa",
+				Money.ofPaise(1_250_000), List.of("https://cdn.stayinn.com/" + id + "/1.jpg", "https://cdn.stayinn.com/" + id + "/2.jpg"),
+				4.2, 37, 4.05, now, now);
+	}
+
+	private static VillaSummaryDTO villaSummary(long id) {
+		return new VillaSummaryDTO(id, "Villa " + id, "Goa", Money.ofPaise(1_250_000),
+				"https://cdn.stayinn.com/" + id + "/1.jpg", 4.2, 37, 4.05);
+	}
+
+	private static VillaDetailDTO villaDetail() {
+		LocalDateTime now = LocalDateTime.now();
+		return new VillaDetailDTO(1L, "Villa 1", "Sea facing villa with a private pool", "Goa", Money.ofPaise(1_250_000),
+				List.of("https://cdn.stayinn.com/1/1.jpg", "https://cdn.stayinn.com/1/2.jpg", "https://cdn.stayinn.com/1/3.jpg"),
+				4.2, 37, 20, 10, 4, 2, 1, 120L, 96L, true, now, now);
+	}
+
+	private static BookingResponseDTO booking(long id) {
+		String now = LocalDateTime.now().toString();
+		return new BookingResponseDTO(id, 7L, "Asha Rao", "asha@example.com", 3L, "Villa 3", "Goa", "2025-01-10",
+				"2025-01-14", 4, Money.ofPaise(5_000_000), BookingStatus.CONFIRMED, now, now);
+	}
+
+	private static PaymentResponseDTO payment(long id) {
+		LocalDateTime now = LocalDateTime.now();
+		return new PaymentResponseDTO(id, id, Money.ofPaise(5_000_000), LocalDate.of(2025, 1, 2), "UPI", "RAZORPAY",
+				PaymentStatus.COMPLETED, "pay_" + id, now, now);
+	}
+
+	private static RatingResponseDTO rating(long id) {
+		String now = LocalDateTime.now().toString();
+		return new RatingResponseDTO(id, id, "Guest " + id, 3L, "Villa 3", 4, "Lovely stay, great host", "2025-01-15",
+				now, now);
+	}
+
+	private static UserResponseDTO user() {
+		LocalDateTime now = LocalDateTime.now();
+		return new UserResponseDTO(7L, "asha@example.com", "Asha Rao", "9876543210", Role.USER, true, now, now);
+	}
+
+	private static UserProfileDTO userProfile() {
+		UserProfileDTO profile = new UserProfileDTO();
+		profile.setEmail("asha@example.com");
+		profile.setName("Asha Rao");
+		profile.setPhoneNumber("9876543210");
+		profile.setRole(Role.USER);
+		profile.setActive(true);
+		profile.setTotalBookings(12);
+		profile.setTotalRatings(5);
+		return profile;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(EnvelopeSerializationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,176 @@
+package com.stayinn.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Routing between two embedded H2 databases, wired as ReadReplicaConfig does
+ * (routing DataSource behind a lazy proxy). Each database answers "which am I"
+ * from its own table, and the replica reports its lag from a table the test
+ * controls.
+ */
+class ReplicaRoutingDataSourceTest {
+
+	private static final Duration MAX_LAG = Duration.ofSeconds(5);
+	private static final Duration CHECK_INTERVAL = Duration.ofMillis(20);
+
+	private EmbeddedDatabase primary;
+	private EmbeddedDatabase replica;
+	private FailingDataSource replicaPool;
+	private ReplicaRoutingDataSource routing;
+	private JdbcTemplate jdbc;
+	private TransactionTemplate readOnly;
+	private TransactionTemplate readWrite;
+
+	@BeforeEach
+	void setUp() {
+		primary = database("primary");
+		replica = database("replica");
+		new JdbcTemplate(replica).execute("create table replica_status (seconds_behind bigint)");
+		new JdbcTemplate(replica).update("insert into replica_status values (0)");
+		replicaPool = new FailingDataSource(replica);
+	}
+
+	@AfterEach
+	void tearDown() {
+		routing.close();
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	private void route(boolean fallbackToPrimary) {
+		routing = new ReplicaRoutingDataSource(primary, replicaPool, fallbackToPrimary, MAX_LAG, CHECK_INTERVAL,
+				"select seconds_behind from replica_status", "seconds_behind");
+		routing.afterPropertiesSet();
+		DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+		jdbc = new JdbcTemplate(dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readWrite = new TransactionTemplate(transactionManager);
+	}
+
+	@Test
+	void readOnlyTransactionsGoToReplica() {
+		route(true);
+
+		assertThat(whichDatabase(readOnly)).isEqualTo("replica");
+	}
+
+	@Test
+	void writesAndNonTransactionalWorkGoToPrimary() {
+		route(true);
+
+		String written = readWrite.execute(status -> {
+			jdbc.update("insert into writes values (1)");
+			return whichDatabase();
+		});
+		assertThat(written).isEqualTo("primary");
+		assertThat(whichDatabase()).isEqualTo("primary");
+		assertThat(new JdbcTemplate(primary).queryForObject("select count(*) from writes", Integer.class))
+				.isEqualTo(1);
+	}
+
+	@Test
+	void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+		route(true);
+		eventually(() -> whichDatabase(readOnly), "replica");
+
+		new JdbcTemplate(replica).update("update replica_status set seconds_behind = ?", MAX_LAG.toSeconds() + 1);
+		eventually(() -> whichDatabase(readOnly), "primary");
+
+		new JdbcTemplate(replica).update("update replica_status set seconds_behind = 0");
+		eventually(() -> whichDatabase(readOnly), "replica");
+	}
+
+	@Test
+	void replicaWithoutConnectionFallsBackToPrimary() {
+		route(true);
+		replicaPool.down = true;
+
+		assertThat(whichDatabase(readOnly)).isEqualTo("primary");
+	}
+
+	@Test
+	void withoutFallbackReadOnlyWorkFailsWhileReplicaIsDown() {
+		route(false);
+		replicaPool.down = true;
+
+		assertThatThrownBy(() -> whichDatabase(readOnly))
+				.hasRootCauseInstanceOf(SQLException.class);
+		assertThat(whichDatabase(readWrite)).isEqualTo("primary");
+	}
+
+	private String whichDatabase(TransactionTemplate transaction) {
+		return transaction.execute(status -> whichDatabase());
+	}
+
+	private String whichDatabase() {
+		return jdbc.queryForObject("select name from which_database", String.class);
+	}
+
+	/**
+	 * The lag check runs in the background; wait for it to act on the new state
+	 */
+	private static void eventually(Supplier<String> actual, String expected) {
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (!expected.equals(actual.get()) && System.nanoTime() < deadline) {
+			try {
+				Thread.sleep(CHECK_INTERVAL.toMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		assertThat(actual.get()).isEqualTo(expected);
+	}
+
+	private static EmbeddedDatabase database(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2)
+				.generateUniqueName(true).build();
+		JdbcTemplate jdbc = new JdbcTemplate(database);
+		jdbc.execute("create table which_database (name varchar(20))");
+		jdbc.update("insert into which_database values (?)", name);
+		jdbc.execute("create table writes (id int)");
+		return database;
+	}
+
+	/**
+	 * Replica pool that can be switched to refuse connections, as an unreachable replica does
+	 */
+	private static final class FailingDataSource extends DelegatingDataSource {
+
+		private volatile boolean down;
+
+		FailingDataSource(DataSource target) {
+			super(target);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (down) {
+				throw new SQLException("Connection refused");
+			}
+			return super.getConnection();
+		}
+	}
+}
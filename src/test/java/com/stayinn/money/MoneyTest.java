@@ -0,0 +1,97 @@
+package com.stayinn.money;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+
+class MoneyTest {
+
+	@Test
+	void rupeesRoundHalfUpToThePaisa() {
+		assertThat(Money.valueOf("12500.50").paise()).isEqualTo(1_250_050);
+		assertThat(Money.valueOf("0.005").paise()).isEqualTo(1);
+		assertThat(Money.valueOf("0.0049").paise()).isZero();
+		assertThat(Money.valueOf(" -0.005 ").paise()).isEqualTo(-1);
+		assertThat(Money.of(new BigDecimal("199.994")).paise()).isEqualTo(19_999);
+	}
+
+	@Test
+	void divisionRoundsHalfUpToThePaisa() {
+		assertThat(Money.ofPaise(5).dividedBy(2).paise()).isEqualTo(3);
+		assertThat(Money.ofPaise(1_000_00).dividedBy(3).paise()).isEqualTo(33_333);
+		assertThat(Money.ofPaise(2_000_00).dividedBy(3).paise()).isEqualTo(66_667);
+	}
+
+	@Test
+	void jsonIsPlainRupeeAmount() throws Exception {
+		ObjectMapper objectMapper = new ObjectMapper();
+		Money amount = Money.valueOf("12500.50");
+
+		String json = objectMapper.writeValueAsString(amount);
+
+		assertThat(json).isEqualTo("12500.50");
+		assertThat(objectMapper.readValue(json, Money.class)).isEqualTo(amount);
+		assertThat(objectMapper.readValue("12500.5", Money.class)).isEqualTo(amount);
+		assertThat(objectMapper.readValue("12500", Money.class).paise()).isEqualTo(1_250_000);
+	}
+
+	@Test
+	void arithmeticFailsInsteadOfOverflowing() {
+		Money max = Money.ofPaise(Long.MAX_VALUE);
+		Money min = Money.ofPaise(Long.MIN_VALUE);
+
+		assertThatThrownBy(() -> max.plus(Money.ofPaise(1))).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> min.minus(Money.ofPaise(1))).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> max.times(2)).isInstanceOf(ArithmeticException.class);
+		assertThatThrownBy(() -> Money.valueOf("100000000000000000000")).isInstanceOf(ArithmeticException.class);
+	}
+
+	@Test
+	void converterMapsPaiseAndNull() {
+		MoneyConverter converter = new MoneyConverter();
+
+		assertThat(converter.convertToDatabaseColumn(Money.valueOf("12500.50"))).isEqualTo(1_250_050L);
+		assertThat(converter.convertToEntityAttribute(1_250_050L)).isEqualTo(Money.valueOf("12500.50"));
+		assertThat(converter.convertToDatabaseColumn(null)).isNull();
+		assertThat(converter.convertToEntityAttribute(null)).isNull();
+	}
+
+	@Test
+	void decimalMinAndMaxValidateMoneyThroughServiceRegistration() {
+		// Without the META-INF/services entries this fails with "no validator could be found"
+		try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+			Validator validator = factory.getValidator();
+
+			assertThat(violations(validator, "0.01", "100000")).isEmpty();
+			assertThat(violations(validator, null, null)).isEmpty();
+			assertThat(violations(validator, "0.00", "100000")).containsExactly("amount");
+			assertThat(violations(validator, "0.01", "100000.01")).containsExactly("price");
+			// Bounds are inclusive unless the constraint says otherwise
+			assertThat(violations(validator, "5", "100000.00")).isEmpty();
+		}
+	}
+
+	private static Set<String> violations(Validator validator, String amount, String price) {
+		Priced priced = new Priced(amount != null ? Money.valueOf(amount) : null,
+				price != null ? Money.valueOf(price) : null);
+		return validator.validate(priced).stream().map(ConstraintViolation::getPropertyPath).map(Object::toString)
+				.collect(Collectors.toSet());
+	}
+
+	private record Priced(@DecimalMin("0.01") Money amount, @DecimalMax(value = "100000") Money price) {
+	}
+}
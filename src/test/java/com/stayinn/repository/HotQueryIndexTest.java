@@ -0,0 +1,251 @@
+package com.stayinn.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Runs the migrations on a MySQL container, loads enough rows for the
+ * optimizer to prefer indexes over scans, then calls each hot repository
+ * method, captures the SQL Hibernate sent (with its bind values) through
+ * datasource-proxy and checks with EXPLAIN that it uses the expected index.
+ * The context also validates the entities against the migrated schema.
+ * Skipped without Docker.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class HotQueryIndexTest {
+
+	private static final int USERS = 200;
+	private static final int VILLAS = 50;
+	private static final int BOOKINGS = 5000;
+	private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+	@Container
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0");
+
+	private static final List<QueryInfo> EXECUTED = new ArrayList<>();
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private PaymentRepository paymentRepository;
+
+	@Autowired
+	private RatingRepository ratingRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private VillaRepository villaRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+		registry.add("spring.datasource.username", MYSQL::getUsername);
+		registry.add("spring.datasource.password", MYSQL::getPassword);
+	}
+
+	@TestConfiguration
+	static class StatementCapture {
+
+		@Bean
+		static BeanPostProcessor capturingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource dataSource)) {
+						return bean;
+					}
+					return ProxyDataSourceBuilder.create(dataSource).listener(new QueryExecutionListener() {
+						@Override
+						public void beforeQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+						}
+
+						@Override
+						public void afterQuery(ExecutionInfo execution, List<QueryInfo> queries) {
+							synchronized (EXECUTED) {
+								EXECUTED.addAll(queries);
+							}
+						}
+					}).build();
+				}
+			};
+		}
+	}
+
+	private interface HotQuery {
+		void run(HotQueryIndexTest test);
+	}
+
+	@BeforeAll
+	static void migrateAndLoad() throws SQLException {
+		Flyway.configure()
+				.dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.load()
+				.migrate();
+
+		try (Connection connection = connect()) {
+			connection.setAutoCommit(false);
+			insert(connection, "INSERT INTO users (email, name, role, active) VALUES (?, ?, 'USER', 1)", USERS,
+					(statement, i) -> {
+						statement.setString(1, "user" + i + "@example.com");
+						statement.setString(2, "User " + i);
+					});
+			insert(connection, "INSERT INTO villas (name, price_per_night) VALUES (?, 1000000)", VILLAS,
+					(statement, i) -> statement.setString(1, "Villa " + i));
+			insert(connection, "INSERT INTO bookings (user_id, villa_id, check_in_date, check_out_date, status, "
+					+ "total_price) VALUES (?, ?, ?, ?, ?, 2000000)", BOOKINGS, (statement, i) -> {
+						LocalDate checkIn = START.plusDays(i / VILLAS * 3L);
+						statement.setLong(1, i % USERS + 1);
+						statement.setLong(2, i % VILLAS + 1);
+						statement.setObject(3, checkIn);
+						statement.setObject(4, checkIn.plusDays(2));
+						statement.setString(5, i % 10 == 0 ? "CANCELLED" : "CONFIRMED");
+					});
+			insert(connection, "INSERT INTO payments (booking_id, transaction_id, amount, payment_date, status) "
+					+ "VALUES (?, ?, 2000000, ?, 'COMPLETED')", BOOKINGS, (statement, i) -> {
+						statement.setLong(1, i + 1);
+						statement.setString(2, "pay_" + i);
+						statement.setObject(3, START.plusDays(i / VILLAS * 3L));
+					});
+			// Every user rates every fifth villa once
+			insert(connection, "INSERT INTO ratings (user_id, villa_id, score, rating_date) VALUES (?, ?, 4, ?)",
+					USERS * VILLAS / 5, (statement, i) -> {
+						statement.setLong(1, i / (VILLAS / 5) + 1);
+						statement.setLong(2, i % (VILLAS / 5) * 5 + i / (VILLAS / 5) % 5 + 1);
+						statement.setObject(3, START.plusDays(i % 365));
+					});
+			connection.commit();
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("ANALYZE TABLE users, villas, bookings, payments, ratings");
+			}
+		}
+	}
+
+	static Stream<Arguments> hotQueries() {
+		LocalDate june = LocalDate.of(2025, 6, 1);
+		return Stream.of(
+				hotQuery("findConflictingBookings", "idx_bookings_villa_status_dates",
+						test -> test.bookingRepository.findConflictingBookings(7L, june, june.plusDays(9))),
+				hotQuery("findOccupiedStays", "idx_bookings_villa_status_dates",
+						test -> test.bookingRepository.findOccupiedStays(7L, june, june.plusMonths(6))),
+				hotQuery("findUpcomingBookingsByUser", "idx_bookings_user_check_in",
+						test -> test.bookingRepository.findUpcomingBookingsByUser(12L, june)),
+				hotQuery("findByTransactionId", "idx_payments_transaction",
+						test -> test.paymentRepository.findByTransactionId("pay_1234")),
+				hotQuery("findByBookingId", "uk_payments_booking",
+						test -> test.paymentRepository.findByBookingId(1234L)),
+				hotQuery("findByVillaIdAndDateRange", "idx_ratings_villa_date",
+						test -> test.ratingRepository.findByVillaIdAndDateRange(6L, LocalDate.of(2025, 3, 1),
+								LocalDate.of(2025, 3, 31))),
+				hotQuery("existsByUserIdAndVillaId", "uk_ratings_user_villa",
+						test -> test.ratingRepository.existsByUserIdAndVillaId(12L, 6L)),
+				hotQuery("findByEmail", "uk_users_email",
+						test -> test.userRepository.findByEmail("user12@example.com")),
+				hotQuery("existsByName", "uk_villas_name", test -> test.villaRepository.existsByName("Villa 12")));
+	}
+
+	private static Arguments hotQuery(String name, String index, HotQuery query) {
+		return Arguments.of(name, index, query);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("hotQueries")
+	void hotQueryUsesIndex(String name, String index, HotQuery query) throws Exception {
+		synchronized (EXECUTED) {
+			EXECUTED.clear();
+		}
+		query.run(this);
+		QueryInfo statement;
+		synchronized (EXECUTED) {
+			// The repository query is the first statement; later ones load associations by id
+			assertThat(EXECUTED).as("statements run by %s", name).isNotEmpty();
+			statement = EXECUTED.get(0);
+		}
+
+		List<String> keys = new ArrayList<>();
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.getQuery())) {
+			bind(explain, statement.getParametersList().isEmpty() ? List.of() : statement.getParametersList().get(0));
+			try (ResultSet plan = explain.executeQuery()) {
+				while (plan.next()) {
+					keys.add(plan.getString("key"));
+				}
+			}
+		}
+		assertThat(keys).as("indexes used by %s: %s", name, statement.getQuery()).contains(index);
+	}
+
+	/**
+	 * Replays the captured setXxx calls on the EXPLAIN statement
+	 */
+	private static void bind(PreparedStatement statement, List<ParameterSetOperation> parameters) throws Exception {
+		for (ParameterSetOperation parameter : parameters) {
+			try {
+				parameter.getMethod().invoke(statement, parameter.getArgs());
+			} catch (InvocationTargetException e) {
+				throw (Exception) e.getCause();
+			}
+		}
+	}
+
+	private interface RowBinder {
+		void bind(PreparedStatement statement, int row) throws SQLException;
+	}
+
+	private static void insert(Connection connection, String sql, int rows, RowBinder binder) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(sql)) {
+			for (int i = 0; i < rows; i++) {
+				binder.bind(statement, i);
+				statement.addBatch();
+			}
+			statement.executeBatch();
+		}
+	}
+
+	private static Connection connect() throws SQLException {
+		return DriverManager.getConnection(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+	}
+}
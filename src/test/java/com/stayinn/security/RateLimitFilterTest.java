@@ -0,0 +1,166 @@
+package com.stayinn.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayinn.metrics.BusinessMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * RateLimitFilter on a hand-driven clock; eviction runs inline, as if the
+ * eviction executor picked it up at once.
+ */
+class RateLimitFilterTest {
+
+	private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+	@AfterEach
+	void clearSecurityContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	private RateLimitFilter filter(int maxBuckets, String... rules) {
+		return new RateLimitFilter(new BusinessMetrics(new SimpleMeterRegistry()), new ObjectMapper(), Runnable::run,
+				true, List.of(rules), maxBuckets, clock::get);
+	}
+
+	private void advance(Duration duration) {
+		clock.addAndGet(duration.toNanos());
+	}
+
+	@Test
+	void allowsBurstOfCapacityThenRejects() throws Exception {
+		RateLimitFilter filter = filter(100, "GET /api/villas/search=3/1m");
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(200);
+		}
+		MockHttpServletResponse rejected = send(filter, "GET", "/api/villas/search", "10.0.0.1");
+
+		assertThat(rejected.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		assertThat(rejected.getContentAsString()).contains("Too many requests");
+	}
+
+	@Test
+	void refillsOneRequestPerInterval() throws Exception {
+		// 3 per minute: one more every 20 s
+		RateLimitFilter filter = filter(100, "GET /api/villas/search=3/1m");
+		for (int i = 0; i < 3; i++) {
+			send(filter, "GET", "/api/villas/search", "10.0.0.1");
+		}
+
+		advance(Duration.ofSeconds(19));
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(429);
+		advance(Duration.ofSeconds(1));
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(200);
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(429);
+
+		// Idle for a full period: the whole burst is back, not more
+		advance(Duration.ofMinutes(5));
+		for (int i = 0; i < 3; i++) {
+			assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(200);
+		}
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(429);
+	}
+
+	@Test
+	void retryAfterIsSecondsUntilNextRequestRoundedUp() throws Exception {
+		RateLimitFilter filter = filter(100, "GET /api/villas/search=3/1m");
+		for (int i = 0; i < 3; i++) {
+			send(filter, "GET", "/api/villas/search", "10.0.0.1");
+		}
+
+		assertThat(retryAfter(send(filter, "GET", "/api/villas/search", "10.0.0.1"))).isEqualTo("20");
+		advance(Duration.ofMillis(500));
+		assertThat(retryAfter(send(filter, "GET", "/api/villas/search", "10.0.0.1"))).isEqualTo("20");
+		advance(Duration.ofMillis(19_100));
+		assertThat(retryAfter(send(filter, "GET", "/api/villas/search", "10.0.0.1"))).isEqualTo("1");
+	}
+
+	@Test
+	void firstMatchingRuleApplies() throws Exception {
+		RateLimitFilter filter = filter(100, "GET /api/villas/search=1/1m", "* /api/villas/**=3/1m");
+
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(200);
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(429);
+		// The search requests did not draw on the broader rule's bucket
+		for (int i = 0; i < 3; i++) {
+			assertThat(send(filter, "GET", "/api/villas/7", "10.0.0.1").getStatus()).isEqualTo(200);
+		}
+		assertThat(send(filter, "POST", "/api/villas/7", "10.0.0.1").getStatus()).isEqualTo(429);
+		// No rule: never limited
+		assertThat(send(filter, "GET", "/api/ratings/villa/7", "10.0.0.1").getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void limitsEachClientSeparately() throws Exception {
+		RateLimitFilter filter = filter(100, "GET /api/villas/search=1/1m");
+
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(200);
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.2").getStatus()).isEqualTo(200);
+
+		// Authenticated callers are keyed by email, whatever their address
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+				"guest@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.1").getStatus()).isEqualTo(200);
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.3").getStatus()).isEqualTo(429);
+	}
+
+	@Test
+	void evictionDropsRefilledThenLeastRecentlyActiveBuckets() throws Exception {
+		// Bound 3, trimmed to 2 (90%) once passed
+		RateLimitFilter filter = filter(3, "GET /api/villas/search=1/1m");
+		send(filter, "GET", "/api/villas/search", "10.0.0.1");
+		advance(Duration.ofMinutes(2)); // 10.0.0.1 has refilled
+		send(filter, "GET", "/api/villas/search", "10.0.0.2");
+		advance(Duration.ofSeconds(1));
+		send(filter, "GET", "/api/villas/search", "10.0.0.3");
+		advance(Duration.ofSeconds(1));
+		// Fourth bucket passes the bound: the refilled one goes, then the least recently active (10.0.0.2)
+		send(filter, "GET", "/api/villas/search", "10.0.0.4");
+
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.3").getStatus()).isEqualTo(429);
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.4").getStatus()).isEqualTo(429);
+		// Forgotten: starts over with a full bucket
+		assertThat(send(filter, "GET", "/api/villas/search", "10.0.0.2").getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void invalidRuleIsRejectedAtStartup() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> filter(100, "GET /api/villas/search"));
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> filter(100, "GET /api/villas/search=0/1m"));
+	}
+
+	private static MockHttpServletResponse send(RateLimitFilter filter, String method, String path, String address)
+			throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.setRemoteAddr(address);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static String retryAfter(MockHttpServletResponse response) {
+		assertThat(response.getStatus()).isEqualTo(429);
+		return response.getHeader(HttpHeaders.RETRY_AFTER);
+	}
+}
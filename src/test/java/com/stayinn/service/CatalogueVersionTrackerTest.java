@@ -0,0 +1,130 @@
+package com.stayinn.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.stayinn.entities.Villa;
+import com.stayinn.metrics.BusinessMetrics;
+import com.stayinn.repository.BookingRepository;
+import com.stayinn.repository.RatingRepository;
+import com.stayinn.repository.VillaRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Conditional GETs of the catalogue and of one villa, with the repository
+ * answering the version queries from a single in-memory villa row.
+ */
+class CatalogueVersionTrackerTest {
+
+	private static final Long VILLA_ID = 7L;
+
+	private final Villa villa = new Villa();
+	private CatalogueVersionTracker tracker;
+	private VillaServiceImpl villaService;
+
+	@BeforeEach
+	void setUp() {
+		villa.setId(VILLA_ID);
+		villa.setName("Sea Breeze");
+		villa.setImageUrls(new ArrayList<>(List.of("https://img.example.com/1.jpg")));
+		villa.setUpdatedAt(LocalDateTime.of(2026, 1, 1, 10, 0));
+
+		VillaRepository villaRepository = mock(VillaRepository.class);
+		when(villaRepository.findById(VILLA_ID)).thenReturn(Optional.of(villa));
+		when(villaRepository.save(villa)).thenReturn(villa);
+		when(villaRepository.findUpdatedAtById(VILLA_ID)).thenAnswer(call -> Optional.of(villa.getUpdatedAt()));
+		when(villaRepository.findCatalogueStamp())
+				.thenAnswer(call -> Collections.singletonList(new Object[] { 1L, villa.getUpdatedAt() }));
+
+		RatingRepository ratingRepository = mock(RatingRepository.class);
+		BusinessMetrics businessMetrics = new BusinessMetrics(new SimpleMeterRegistry());
+		tracker = new CatalogueVersionTracker(villaRepository, ratingRepository, businessMetrics);
+		villaService = new VillaServiceImpl(villaRepository, mock(BookingRepository.class), ratingRepository,
+				mock(WeightedRatingCalculator.class), mock(ApplicationEventPublisher.class), mock(PricingService.class),
+				tracker, businessMetrics, mock(PlatformTransactionManager.class));
+	}
+
+	@Test
+	void unchangedVillaAnswersNotModified() {
+		String villaEtag = villaEtag(null);
+		String catalogueEtag = catalogueEtag(null);
+
+		assertThat(tracker.checkVillaNotModified(request(villaEtag).request(), VILLA_ID)).isTrue();
+		assertThat(tracker.checkCatalogueNotModified(request(catalogueEtag).request())).isTrue();
+	}
+
+	@Test
+	void addingAnImageInvalidatesVillaAndCatalogueEtags() {
+		String villaEtag = villaEtag(null);
+		String catalogueEtag = catalogueEtag(null);
+		long version = tracker.villaVersion(VILLA_ID);
+
+		villaService.addImageToVilla(VILLA_ID, "https://img.example.com/2.jpg");
+
+		assertThat(villaEtag(villaEtag)).isNotEqualTo(villaEtag);
+		assertThat(catalogueEtag(catalogueEtag)).isNotEqualTo(catalogueEtag);
+		assertThat(tracker.villaVersion(VILLA_ID)).isNotEqualTo(version);
+	}
+
+	@Test
+	void removingAnImageInvalidatesVillaEtag() {
+		String villaEtag = villaEtag(null);
+
+		villaService.removeImageFromVilla(VILLA_ID, "https://img.example.com/1.jpg");
+
+		assertThat(villaEtag(villaEtag)).isNotEqualTo(villaEtag);
+	}
+
+	@Test
+	void addingAnImageAlreadyPresentKeepsEtag() {
+		String villaEtag = villaEtag(null);
+
+		villaService.addImageToVilla(VILLA_ID, "https://img.example.com/1.jpg");
+
+		assertThat(tracker.checkVillaNotModified(request(villaEtag).request(), VILLA_ID)).isTrue();
+	}
+
+	/**
+	 * GET the villa, optionally revalidating; asserts a full response and returns its ETag
+	 */
+	private String villaEtag(String ifNoneMatch) {
+		Exchange exchange = request(ifNoneMatch);
+		assertThat(tracker.checkVillaNotModified(exchange.request(), VILLA_ID)).isFalse();
+		return exchange.response().getHeader(HttpHeaders.ETAG);
+	}
+
+	private String catalogueEtag(String ifNoneMatch) {
+		Exchange exchange = request(ifNoneMatch);
+		assertThat(tracker.checkCatalogueNotModified(exchange.request())).isFalse();
+		return exchange.response().getHeader(HttpHeaders.ETAG);
+	}
+
+	private static Exchange request(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/villas");
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		return new Exchange(new ServletWebRequest(request, response), response);
+	}
+
+	private record Exchange(ServletWebRequest request, MockHttpServletResponse response) {
+	}
+}
@@ -0,0 +1,255 @@
+package com.stayinn.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stayinn.dto.ApiEnvelope;
+import com.stayinn.entities.IdempotencyRecord;
+import com.stayinn.repository.IdempotencyRecordRepository;
+
+/**
+ * IdempotencyStore against an in-memory stand-in for the idempotency_keys
+ * table: the unique key on (scope, key) is enforced by saveAndFlush, as the
+ * database does.
+ */
+class IdempotencyStoreTest {
+
+	private static final String OPERATION = "POST /api/bookings";
+	private static final String SCOPE = OPERATION + " anonymous";
+	private static final Duration LEASE = Duration.ofMinutes(2);
+
+	private final Map<String, IdempotencyRecord> rows = new HashMap<>();
+	private final AtomicLong ids = new AtomicLong();
+	private final AtomicInteger runs = new AtomicInteger();
+
+	private IdempotencyRecordRepository repository;
+	private PlatformTransactionManager transactionManager;
+	private IdempotencyStore store;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(IdempotencyRecordRepository.class);
+		when(repository.saveAndFlush(any(IdempotencyRecord.class))).thenAnswer(invocation -> {
+			IdempotencyRecord record = invocation.getArgument(0);
+			String row = record.getScope() + "\n" + record.getIdempotencyKey();
+			if (rows.containsKey(row)) {
+				throw new DataIntegrityViolationException("Duplicate entry for uk_idempotency_scope_key");
+			}
+			record.setId(ids.incrementAndGet());
+			record.setCreatedAt(LocalDateTime.now());
+			rows.put(row, record);
+			return record;
+		});
+		when(repository.save(any(IdempotencyRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+		when(repository.findByScopeAndIdempotencyKey(anyString(), anyString())).thenAnswer(invocation -> Optional
+				.ofNullable(rows.get(invocation.getArgument(0) + "\n" + invocation.getArgument(1))));
+		doAnswer(invocation -> {
+			Long id = invocation.getArgument(0);
+			rows.values().removeIf(record -> record.getId().equals(id));
+			return null;
+		}).when(repository).deleteById(anyLong());
+
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		store = newStore();
+	}
+
+	private IdempotencyStore newStore() {
+		return new IdempotencyStore(repository, new ObjectMapper(), transactionManager, Duration.ofHours(24), LEASE,
+				Duration.ofMinutes(10), 10_000, Duration.ofMinutes(15));
+	}
+
+	private Supplier<ResponseEntity<ApiEnvelope<String>>> created(String data) {
+		return () -> {
+			runs.incrementAndGet();
+			return ResponseEntity.status(HttpStatus.CREATED).body(ApiEnvelope.success("Created", data));
+		};
+	}
+
+	@Test
+	void firstRequestClaimsKeyAndStoresItsResponse() {
+		ResponseEntity<ApiEnvelope<String>> response = store.execute("key-1", OPERATION, "request", String.class,
+				created("booking 1"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(response.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+		assertThat(runs).hasValue(1);
+		IdempotencyRecord record = rows.get(SCOPE + "\nkey-1");
+		assertThat(record.isCompleted()).isTrue();
+		assertThat(record.getResponseStatus()).isEqualTo(201);
+	}
+
+	@Test
+	void retryWithSameKeyReplaysStoredResponseWithoutRunningAgain() {
+		store.execute("key-1", OPERATION, "request", String.class, created("booking 1"));
+
+		ResponseEntity<ApiEnvelope<String>> fromMemory = store.execute("key-1", OPERATION, "request", String.class,
+				created("booking 2"));
+		// Another instance: no in-memory copy, the stored row answers
+		ResponseEntity<ApiEnvelope<String>> fromDatabase = newStore().execute("key-1", OPERATION, "request",
+				String.class, created("booking 3"));
+
+		assertThat(runs).hasValue(1);
+		for (ResponseEntity<ApiEnvelope<String>> replay : List.of(fromMemory, fromDatabase)) {
+			assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+			assertThat(replay.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+			assertThat(replay.getBody().data()).isEqualTo("booking 1");
+			assertThat(replay.getBody().message()).isEqualTo("Created");
+		}
+	}
+
+	@Test
+	void keyReusedForDifferentRequestIsRejected() {
+		store.execute("key-1", OPERATION, "request", String.class, created("booking 1"));
+
+		ResponseEntity<ApiEnvelope<String>> response = store.execute("key-1", OPERATION, "other request",
+				String.class, created("booking 2"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+		assertThat(response.getBody().success()).isFalse();
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void keyStillBeingProcessedAnswersConflict() {
+		IdempotencyRecord inProgress = claimedBy("key-1", "request", LocalDateTime.now());
+
+		ResponseEntity<ApiEnvelope<String>> response = store.execute("key-1", OPERATION, "request", String.class,
+				created("booking 1"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		assertThat(runs).hasValue(0);
+		assertThat(rows.get(SCOPE + "\nkey-1")).isSameAs(inProgress);
+	}
+
+	@Test
+	void serverErrorReleasesKeySoRetryRuns() {
+		ResponseEntity<ApiEnvelope<String>> failed = store.execute("key-1", OPERATION, "request", String.class, () -> {
+			runs.incrementAndGet();
+			return ResponseEntity.internalServerError().body(ApiEnvelope.failure("Payment gateway unavailable"));
+		});
+		assertThat(failed.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+		assertThat(rows).isEmpty();
+
+		ResponseEntity<ApiEnvelope<String>> retried = store.execute("key-1", OPERATION, "request", String.class,
+				created("booking 1"));
+
+		assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(retried.getHeaders().containsKey(IdempotencyStore.REPLAYED_HEADER)).isFalse();
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void exceptionReleasesKeyAndPropagates() {
+		assertThatThrownBy(() -> store.execute("key-1", OPERATION, "request", String.class, () -> {
+			runs.incrementAndGet();
+			throw new IllegalStateException("Lock wait timeout exceeded");
+		})).isInstanceOf(IllegalStateException.class);
+		assertThat(rows).isEmpty();
+
+		ResponseEntity<ApiEnvelope<String>> retried = store.execute("key-1", OPERATION, "request", String.class,
+				created("booking 1"));
+
+		assertThat(retried.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void businessRuleFailureIsStoredAndReplayed() {
+		Supplier<ResponseEntity<ApiEnvelope<String>>> rejected = () -> {
+			runs.incrementAndGet();
+			return ResponseEntity.badRequest().body(ApiEnvelope.failure("Villa is not available for the selected dates"));
+		};
+		store.execute("key-1", OPERATION, "request", String.class, rejected);
+
+		ResponseEntity<ApiEnvelope<String>> replay = store.execute("key-1", OPERATION, "request", String.class,
+				rejected);
+
+		assertThat(replay.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(replay.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+		assertThat(runs).hasValue(1);
+	}
+
+	@Test
+	void abandonedClaimIsTakenOverAfterLease() {
+		claimedBy("key-1", "request", LocalDateTime.now().minus(LEASE).minusSeconds(1));
+
+		ResponseEntity<ApiEnvelope<String>> response = store.execute("key-1", OPERATION, "request", String.class,
+				created("booking 1"));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(runs).hasValue(1);
+		assertThat(rows.get(SCOPE + "\nkey-1").isCompleted()).isTrue();
+	}
+
+	@Test
+	void keysAreScopedToOperation() {
+		store.execute("key-1", OPERATION, "request", String.class, created("booking 1"));
+
+		ResponseEntity<ApiEnvelope<String>> response = store.execute("key-1", "POST /api/payments", "request",
+				String.class, created("payment 1"));
+
+		assertThat(response.getBody().data()).isEqualTo("payment 1");
+		assertThat(runs).hasValue(2);
+	}
+
+	@Test
+	void withoutKeyActionJustRuns() {
+		store.execute(null, OPERATION, "request", String.class, created("booking 1"));
+		store.execute(null, OPERATION, "request", String.class, created("booking 2"));
+
+		assertThat(runs).hasValue(2);
+		assertThat(rows).isEmpty();
+	}
+
+	/**
+	 * A claim left by a request that has not completed (still running, or its instance died)
+	 */
+	private IdempotencyRecord claimedBy(String key, String request, LocalDateTime createdAt) {
+		IdempotencyRecord record = new IdempotencyRecord();
+		record.setScope(SCOPE);
+		record.setIdempotencyKey(key);
+		record.setRequestHash(hashOf(request));
+		record.setExpiresAt(LocalDateTime.now().plusHours(24));
+		record.setId(ids.incrementAndGet());
+		record.setCreatedAt(createdAt);
+		rows.put(SCOPE + "\n" + key, record);
+		return record;
+	}
+
+	private static String hashOf(String request) {
+		try {
+			byte[] json = new ObjectMapper().writeValueAsBytes(request);
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.stayinn.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.stayinn.entities.SeasonalRate;
+import com.stayinn.entities.StayDiscount;
+import com.stayinn.entities.Villa;
+import com.stayinn.money.Money;
+
+class PriceCalendarTest {
+
+	// A Thursday: the 2nd and 3rd are the weekend nights
+	private static final LocalDate START = LocalDate.of(2026, 1, 1);
+	private static final int DAYS = 30;
+
+	@Test
+	void quoteIsNightlyTotalOfAnyRange() {
+		PriceCalendar calendar = PriceCalendar.build(villa("10000", 0),
+				List.of(season(START.plusDays(5), START.plusDays(9), "12000")), List.of(), START, DAYS);
+
+		for (int from = 0; from < DAYS; from++) {
+			for (int to = from + 1; to <= DAYS; to++) {
+				long expected = 0;
+				for (int night = from; night < to; night++) {
+					expected += calendar.nightPaise(START.plusDays(night));
+				}
+				assertThat(calendar.quote(START.plusDays(from), START.plusDays(to)).paise()).isEqualTo(expected);
+			}
+		}
+		// 3 base nights, then 2 season nights
+		assertThat(calendar.quote(START.plusDays(2), START.plusDays(7))).isEqualTo(Money.valueOf("54000"));
+	}
+
+	@Test
+	void laterSeasonOverwritesEarlierOneWhereTheyOverlap() {
+		PriceCalendar calendar = PriceCalendar.build(villa("10000", 0),
+				List.of(season(START.plusDays(2), START.plusDays(10), "15000"),
+						season(START.plusDays(8), START.plusDays(12), "20000")),
+				List.of(), START, DAYS);
+
+		assertThat(calendar.nightPaise(START.plusDays(1))).isEqualTo(1_000_000);
+		assertThat(calendar.nightPaise(START.plusDays(7))).isEqualTo(1_500_000);
+		assertThat(calendar.nightPaise(START.plusDays(8))).isEqualTo(2_000_000);
+		assertThat(calendar.nightPaise(START.plusDays(12))).isEqualTo(2_000_000);
+		assertThat(calendar.nightPaise(START.plusDays(13))).isEqualTo(1_000_000);
+	}
+
+	@Test
+	void seasonOutsideCalendarIsClipped() {
+		PriceCalendar calendar = PriceCalendar.build(villa("10000", 0),
+				List.of(season(START.minusDays(10), START.plusDays(1), "12000"),
+						season(START.plusDays(DAYS - 1), START.plusDays(DAYS + 30), "13000")),
+				List.of(), START, DAYS);
+
+		assertThat(calendar.nightPaise(START)).isEqualTo(1_200_000);
+		assertThat(calendar.nightPaise(START.plusDays(2))).isEqualTo(1_000_000);
+		assertThat(calendar.nightPaise(START.plusDays(DAYS - 1))).isEqualTo(1_300_000);
+	}
+
+	@Test
+	void weekendUpliftAppliesToFridayAndSaturdayNightsOnTopOfSeason() {
+		PriceCalendar calendar = PriceCalendar.build(villa("10000", 20),
+				List.of(season(START.plusDays(2), START.plusDays(2), "15000")), List.of(), START, DAYS);
+
+		assertThat(calendar.nightPaise(START)).isEqualTo(1_000_000); // Thursday
+		assertThat(calendar.nightPaise(START.plusDays(1))).isEqualTo(1_200_000); // Friday
+		assertThat(calendar.nightPaise(START.plusDays(2))).isEqualTo(1_800_000); // Saturday, in season
+		assertThat(calendar.nightPaise(START.plusDays(3))).isEqualTo(1_000_000); // Sunday
+	}
+
+	@Test
+	void largestDiscountTheStayQualifiesForApplies() {
+		// Not sorted by percent: a 10-night stay gets the 7-night 15%, not the 10-night 10%
+		PriceCalendar calendar = PriceCalendar.build(villa("10000", 0), List.of(),
+				List.of(discount(3, 5), discount(7, 15), discount(10, 10)), START, DAYS);
+
+		assertThat(calendar.quote(START, START.plusDays(2))).isEqualTo(Money.valueOf("20000"));
+		assertThat(calendar.quote(START, START.plusDays(3))).isEqualTo(Money.valueOf("28500"));
+		assertThat(calendar.quote(START, START.plusDays(10))).isEqualTo(Money.valueOf("85000"));
+	}
+
+	@Test
+	void upliftAndDiscountRoundHalfUpToThePaisa() {
+		PriceCalendar calendar = PriceCalendar.build(villa("333.33", 15), List.of(), List.of(discount(3, 5)),
+				START, DAYS);
+
+		// 333.33 * 1.15 = 383.3295
+		assertThat(calendar.nightPaise(START.plusDays(1))).isEqualTo(38_333);
+		// 3 x 333.33 = 999.99, less 5% (49.9995) = 949.99
+		assertThat(calendar.quote(START.plusDays(3), START.plusDays(6))).isEqualTo(Money.valueOf("949.99"));
+	}
+
+	@Test
+	void coversOnlyStaysInsideTheCalendar() {
+		PriceCalendar calendar = PriceCalendar.build(villa("10000", 0), List.of(), List.of(), START, DAYS);
+
+		assertThat(calendar.covers(START, START.plusDays(DAYS))).isTrue();
+		assertThat(calendar.covers(START.minusDays(1), START.plusDays(2))).isFalse();
+		assertThat(calendar.covers(START.plusDays(DAYS - 1), START.plusDays(DAYS + 1))).isFalse();
+	}
+
+	private static Villa villa(String pricePerNight, int weekendUpliftPercent) {
+		Villa villa = new Villa();
+		villa.setPricePerNight(Money.valueOf(pricePerNight));
+		villa.setWeekendUpliftPercent(weekendUpliftPercent);
+		return villa;
+	}
+
+	private static SeasonalRate season(LocalDate startDate, LocalDate endDate, String nightlyRate) {
+		SeasonalRate rate = new SeasonalRate();
+		rate.setStartDate(startDate);
+		rate.setEndDate(endDate);
+		rate.setNightlyRate(Money.valueOf(nightlyRate));
+		return rate;
+	}
+
+	private static StayDiscount discount(int minNights, int percentOff) {
+		StayDiscount discount = new StayDiscount();
+		discount.setMinNights(minNights);
+		discount.setPercentOff(percentOff);
+		return discount;
+	}
+}